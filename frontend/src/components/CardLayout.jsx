@@ -1,5 +1,6 @@
 import React from 'react';
 import '../pages/CardSearch.css'; // Reusing the CSS
+import { getFaceImageUrl } from '../services/api';
 
 const CardLayout = ({ 
     title, 
@@ -12,6 +13,7 @@ const CardLayout = ({
     loading, 
     cards, 
     renderCardActions,
+    suggestions = [],
     emptyMessage = "No cards found."
 }) => {
     return (
@@ -25,7 +27,13 @@ const CardLayout = ({
                         placeholder="Search..." 
                         value={searchTerm}
                         onChange={(e) => onSearchTermChange(e.target.value)}
+                        list="card-name-suggestions"
                     />
+                    <datalist id="card-name-suggestions">
+                        {suggestions.map(suggestion => (
+                            <option key={suggestion.id} value={suggestion.name} />
+                        ))}
+                    </datalist>
                     <button className="btn btn-primary" type="submit">Search</button>
                 </form>
             </div>
@@ -52,8 +60,11 @@ const CardLayout = ({
                             let imageUrl = "https://via.placeholder.com/250x350?text=No+Image";
                             if (card.imageUrl) {
                                 imageUrl = card.imageUrl;
+                            } else if (card.faceId) {
+                                // Card summaries carry only the front face's id
+                                imageUrl = getFaceImageUrl(card.faceId);
                             } else if (card.faces && card.faces.length > 0 && card.faces[0].imageUrl) {
-                                imageUrl = card.faces[0].imageUrl;
+                                imageUrl = getFaceImageUrl(card.faces[0].id);
                             }
 
                             return (
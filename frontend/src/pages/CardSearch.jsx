@@ -1,5 +1,5 @@
 import React, { useEffect, useState } from 'react';
-import { searchCards, addCardToBinder, getCardQuantity } from '../services/api';
+import { searchCards, autocompleteCards, addCardToBinder, getCardQuantities } from '../services/api';
 import GenericModal from '../components/GenericModal';
 import CardLayout from '../components/CardLayout';
 
@@ -10,6 +10,7 @@ const CardSearch = () => {
     const [loading, setLoading] = useState(false);
     const [page, setPage] = useState(0);
     const [totalPages, setTotalPages] = useState(0);
+    const [suggestions, setSuggestions] = useState([]);
     const pageSize = 20;
 
     // --- BINDER STATE ---
@@ -28,6 +29,21 @@ const CardSearch = () => {
         performSearch();
     }, [page]); 
 
+    // Name suggestions while typing (skipped once the user is writing search syntax like t:creature)
+    useEffect(() => {
+        const term = searchTerm.trim();
+        if (term.length < 2 || /[:<>=]/.test(term)) {
+            setSuggestions([]);
+            return;
+        }
+        const timer = setTimeout(() => {
+            autocompleteCards(term)
+                .then(response => setSuggestions(response.data))
+                .catch(() => setSuggestions([]));
+        }, 100);
+        return () => clearTimeout(timer);
+    }, [searchTerm]);
+
     // 2. Fetch Ownership when Cards Change
     useEffect(() => {
         if (cards.length > 0) {
@@ -49,16 +65,12 @@ const CardSearch = () => {
     };
 
     const fetchOwnershipCounts = async () => {
-        const newQuantities = {};
-        await Promise.all(cards.map(async (card) => {
-            try {
-                const response = await getCardQuantity(userId, card.id);
-                newQuantities[card.id] = response.data; 
-            } catch (err) {
-                console.warn(`Failed to fetch quantity for ${card.name}`, err);
-            }
-        }));
-        setOwnedQuantities(newQuantities);
+        try {
+            const response = await getCardQuantities(userId, cards.map(card => card.id));
+            setOwnedQuantities(response.data);
+        } catch (err) {
+            console.warn("Failed to fetch owned quantities", err);
+        }
     };
 
     const handleSearchSubmit = (e) => {
@@ -112,6 +124,7 @@ const CardSearch = () => {
                 onPageChange={setPage}
                 loading={loading}
                 cards={cardsWithQuantity}
+                suggestions={suggestions}
                 renderCardActions={(card) => (
                     <button 
                         className="btn btn-add"
@@ -1,9 +1,10 @@
 import React, { useState, useEffect } from 'react';
-import { getUserDetails } from '../services/api';
+import { getUserDetails, getCollectionStats } from '../services/api';
 import './Profile.css'; 
 
 const Profile = () => {
     const [user, setUser] = useState(null);
+    const [stats, setStats] = useState(null);
     const [loading, setLoading] = useState(true);
     const [error, setError] = useState(null);
 
@@ -12,6 +13,7 @@ const Profile = () => {
 
     useEffect(() => {
         loadProfile();
+        loadStats();
     }, []);
 
     const loadProfile = async () => {
@@ -26,6 +28,16 @@ const Profile = () => {
         }
     };
 
+    // Stats are optional on this page; a failure only hides the collection section
+    const loadStats = async () => {
+        try {
+            const response = await getCollectionStats(userId);
+            setStats(response.data);
+        } catch (err) {
+            console.error("Error loading collection stats:", err);
+        }
+    };
+
     if (loading) {
         return <div className="profile-container loading-message">Loading Profile...</div>;
     }
@@ -55,6 +67,26 @@ const Profile = () => {
                     <span className="value">{user.email || "N/A"}</span>
                 </div>
                 
+                {stats && (
+                    <div className="profile-summary">
+                        <p>Collection:</p>
+                        <div className="profile-detail">
+                            <span className="label">Cards owned:</span>
+                            <span className="value">{stats.copies} ({stats.cards} unique)</span>
+                        </div>
+                        {['color', 'rarity', 'cmc'].map(facet => (
+                            <div className="profile-detail" key={facet}>
+                                <span className="label">By {facet === 'cmc' ? 'mana value' : facet}:</span>
+                                <span className="value">
+                                    {Object.entries(stats.facets[facet] || {})
+                                        .map(([value, count]) => `${value} ${count.copies}`)
+                                        .join(' · ') || 'N/A'}
+                                </span>
+                            </div>
+                        ))}
+                    </div>
+                )}
+
                 <div className="profile-summary">
                     <p>Current application environment status:</p>
                     <ul>
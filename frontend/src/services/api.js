@@ -7,15 +7,28 @@ const api = axios.create({
 });
 
 // --- CARD API ---
-export const searchCards = (name, page = 0, size = 20) => {
-    const query = name 
-        ? `?name=${encodeURIComponent(name)}&page=${page}&size=${size}` 
+// The search box takes plain names or the Scryfall-style syntax, e.g. `c:rg t:creature cmc>=3`.
+// Returns lean summaries (name, set, rarity, front face id); use getCardById for the full card
+export const searchCards = (search, page = 0, size = 20) => {
+    const query = search 
+        ? `?q=${encodeURIComponent(search)}&page=${page}&size=${size}` 
         : `?page=${page}&size=${size}`;
-    return api.get(`/cards${query}`);
+    return api.get(`/cards/summaries${query}`);
 };
 
 export const getCardById = (id) => api.get(`/cards/${id}`);
 
+// Several cards in one request (up to 500 ids), returned in the order asked for
+export const getCardsByIds = (ids) => api.post('/cards/batch', ids);
+
+// Name suggestions for the search box; answered from memory on the server
+export const autocompleteCards = (q, limit = 10) => 
+    api.get(`/cards/autocomplete?q=${encodeURIComponent(q)}&limit=${limit}`);
+
+// --- IMAGE API ---
+// Face images are served from the backend's local cache; 'THUMB' for grids, 'NORMAL' for full size
+export const getFaceImageUrl = (faceId, size = 'THUMB') => `${API_URL}/images/${faceId}?size=${size}`;
+
 // --- BINDER API ---
 // Note: Hardcoding userId=1 for dev until we add login
 export const getUserBinder = (userId, name = '', page = 0, size = 20) => {
@@ -27,6 +40,12 @@ export const getUserBinder = (userId, name = '', page = 0, size = 20) => {
 
 export const getCardQuantity = (userId, cardId) => api.get(`/binder/${userId}/card/${cardId}`);
 
+// Owned quantities for a whole page of cards in one request: { [cardId]: quantity }
+export const getCardQuantities = (userId, cardIds) => api.post(`/binder/${userId}/quantities`, cardIds);
+
+// Collection totals: { copies, cards, facets: { color, rarity, set, cmc: { [value]: { copies, cards } } } }
+export const getCollectionStats = (userId) => api.get(`/binder/${userId}/stats`);
+
 export const addCardToBinder = (userId, cardId, quantity = 1) => {
     return api.post(`/binder/${userId}/add?cardId=${cardId}&quantity=${quantity}`);
 };
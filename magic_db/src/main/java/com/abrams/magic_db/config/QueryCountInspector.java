@@ -0,0 +1,33 @@
+package com.abrams.magic_db.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread, so a request's query count can
+ * be measured (e.g. to spot N+1 loading). Registered through
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * Starts counting from zero on the current thread.
+     */
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    /**
+     * @return The statements prepared on the current thread since the last {@link #reset()}.
+     */
+    public static long count() {
+        return COUNT.get()[0];
+    }
+}
@@ -0,0 +1,12 @@
+package com.abrams.magic_db.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background refreshes (e.g. of the autocomplete index).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
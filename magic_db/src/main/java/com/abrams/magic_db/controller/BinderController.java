@@ -2,13 +2,29 @@ package com.abrams.magic_db.controller;
 
 import com.abrams.magic_db.model.Binder;
 import com.abrams.magic_db.service.BinderService;
+import com.abrams.magic_db.service.collection.CollectionExportFormat;
+import com.abrams.magic_db.service.collection.CollectionExportService;
+import com.abrams.magic_db.service.collection.CollectionFormat;
+import com.abrams.magic_db.service.collection.CollectionImportResult;
+import com.abrams.magic_db.service.collection.CollectionImportService;
+import com.abrams.magic_db.service.collection.CollectionStats;
+import com.abrams.magic_db.service.collection.CollectionStatsService;
+import com.abrams.magic_db.service.collection.CollectionSyncResult;
+import com.abrams.magic_db.service.collection.CollectionSyncService;
+import com.abrams.magic_db.service.collection.SnapshotEntry;
+import com.abrams.magic_db.service.paging.CursorPage;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -19,9 +35,20 @@ import java.util.UUID;
 public class BinderController {
 
     private final BinderService binderService;
+    private final CollectionImportService collectionImportService;
+    private final CollectionStatsService collectionStatsService;
+    private final CollectionExportService collectionExportService;
+    private final CollectionSyncService collectionSyncService;
 
-    public BinderController(BinderService binderService) {
+    public BinderController(BinderService binderService, CollectionImportService collectionImportService,
+                            CollectionStatsService collectionStatsService,
+                            CollectionExportService collectionExportService,
+                            CollectionSyncService collectionSyncService) {
         this.binderService = binderService;
+        this.collectionImportService = collectionImportService;
+        this.collectionStatsService = collectionStatsService;
+        this.collectionExportService = collectionExportService;
+        this.collectionSyncService = collectionSyncService;
     }
 
     /**
@@ -44,6 +71,59 @@ public class BinderController {
         return binderService.searchUserBinder(userId, name, pageable);
     }
 
+    /**
+     * Retrieves a user's binder sorted by card name with cursor (keyset) pagination for infinite scrolling.
+     * * @param userId The ID of the user whose binder to retrieve.
+     * @param name Optional search term for card name.
+     * @param cursor The {@code next} value of the previous page; omit for the first page.
+     * @param size The number of items per page (default 20).
+     * @param includeTotal Whether to include the total number of matching entries (default false).
+     * @return A {@link CursorPage} of {@link Binder} entries.
+     */
+    @GetMapping("/{userId}/scroll")
+    public CursorPage<Binder> scrollUserBinder(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal
+    ) {
+        return binderService.scrollUserBinder(userId, name, cursor, size, includeTotal);
+    }
+
+    /**
+     * Retrieves collection totals for the user's binder: copies and distinct printings owned overall
+     * and by color, rarity, set and mana value. The totals are maintained as the binder changes,
+     * so this costs the same for any collection size.
+     * Used by the Profile page.
+     * * @param userId The ID of the user.
+     * @return The user's {@link CollectionStats}.
+     */
+    @GetMapping("/{userId}/stats")
+    public CollectionStats getCollectionStats(@PathVariable Long userId) {
+        return collectionStatsService.getStats(userId);
+    }
+
+    /**
+     * Downloads the user's whole binder, sorted by card name. Rows are streamed from a database cursor
+     * as they are read, so memory use stays flat for any binder size. The CSV can be imported again.
+     * * @param userId The ID of the user.
+     * @param format CSV (default) or NDJSON.
+     * @return The binder as a file attachment.
+     */
+    @GetMapping("/{userId}/export")
+    public ResponseEntity<StreamingResponseBody> exportCollection(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "CSV") CollectionExportFormat format
+    ) {
+        StreamingResponseBody body = collectionExportService.export(userId, format);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"binder-" + userId + "." + format.getExtension() + "\"")
+                .body(body);
+    }
+
     /**
      * Retrieves the quantity of a specific card owned by the user.
      * Used primarily by the Card Search page to display ownership badges.
@@ -56,6 +136,18 @@ public class BinderController {
         return binderService.getCardQuantity(userId, cardId); 
     }
 
+    /**
+     * Retrieves the quantities of several cards owned by the user in one request.
+     * Used by the Card Search page to display ownership badges for a whole page of results.
+     * * @param userId The ID of the user.
+     * @param cardIds The UUIDs of the card printings (at most 500).
+     * @return The quantity owned per card ID, 0 for cards not in the binder.
+     */
+    @PostMapping("/{userId}/quantities")
+    public Map<UUID, Integer> getCardQuantities(@PathVariable Long userId, @RequestBody List<UUID> cardIds) {
+        return binderService.getCardQuantities(userId, cardIds);
+    }
+
     /**
      * Adds a specified quantity of a card to the user's binder.
      * * @param userId The ID of the user.
@@ -72,6 +164,43 @@ public class BinderController {
         return binderService.addCardToBinder(userId, cardId, quantity);
     }
 
+    /**
+     * Adds a whole collection to the user's binder in one transaction, e.g. when onboarding an existing
+     * collection. The request body is a text list ({@code 4 Lightning Bolt}, {@code 1 Counterspell (MH2) 267})
+     * or CSV with a header row (quantity, name, set, collector number). Copies are added to what the user
+     * already owns; lines that cannot be read or matched to a card are skipped and reported.
+     * * @param userId The ID of the user.
+     * @param format The layout of the body: AUTO (default), TEXT or CSV.
+     * @param body The collection, one card per line (at most 50,000 lines).
+     * @return The number of lines imported and the per-line error report.
+     */
+    @PostMapping("/{userId}/import")
+    public CollectionImportResult importCollection(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "AUTO") CollectionFormat format,
+            @RequestBody String body
+    ) {
+        return collectionImportService.importCollection(userId, body, format);
+    }
+
+    /**
+     * Makes the user's binder match a full snapshot, e.g. one kept in a spreadsheet, by applying only
+     * the entries that differ: cards missing from the snapshot (or with quantity 0) are removed, new ones
+     * added and changed quantities set. With {@code dryRun=true} the diff is returned without applying it.
+     * * @param userId The ID of the user.
+     * @param dryRun Whether to only compute the diff (default false).
+     * @param snapshot Every card the user owns as {@code [{"cardId": ..., "quantity": ...}]} (at most 100,000 entries).
+     * @return The inserts, updates and deletes, and any card ids that match no card.
+     */
+    @PutMapping("/{userId}/sync")
+    public CollectionSyncResult syncCollection(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "false") boolean dryRun,
+            @RequestBody List<SnapshotEntry> snapshot
+    ) {
+        return collectionSyncService.sync(userId, snapshot, dryRun);
+    }
+
     /**
      * Removes a specified quantity of a card from the user's binder.
      * * @param userId The ID of the user.
@@ -1,12 +1,22 @@
 package com.abrams.magic_db.controller;
 
 import com.abrams.magic_db.model.Card;
+import com.abrams.magic_db.model.CardSummary;
 import com.abrams.magic_db.service.CardService;
+import com.abrams.magic_db.service.paging.CursorPage;
+import com.abrams.magic_db.service.search.CardAutocompleteService;
+import com.abrams.magic_db.service.search.CardFacetIndex.Facet;
+import com.abrams.magic_db.service.search.CardFacetIndexService;
+import com.abrams.magic_db.service.search.CardSuggestion;
+import com.abrams.magic_db.service.search.FacetCounts;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -18,14 +28,24 @@ import java.util.UUID;
 public class CardController {
 
     private final CardService cardService;
+    private final CardAutocompleteService cardAutocompleteService;
+    private final CardFacetIndexService cardFacetIndexService;
 
-    public CardController(CardService cardService) {
+    public CardController(CardService cardService, CardAutocompleteService cardAutocompleteService,
+                          CardFacetIndexService cardFacetIndexService) {
         this.cardService = cardService;
+        this.cardAutocompleteService = cardAutocompleteService;
+        this.cardFacetIndexService = cardFacetIndexService;
     }
 
     /**
-     * Retrieves a paginated list of all cards, optionally filtered by name.
+     * Retrieves a paginated list of all cards, optionally filtered by name, by a search query or by rules text.
      * * @param name Optional search term for the card name (case-insensitive).
+     * @param q Optional Scryfall-style search, e.g. {@code c:rg t:creature cmc>=3 o:"draw a card" r:mythic s:one}.
+     *          Takes precedence over {@code text} and {@code name}; malformed searches are rejected with 400 Bad Request.
+     * @param text Optional full-text search over name, type line and rules text, best matches first.
+     *             Accepts web search syntax: {@code destroy target artifact}, {@code "enters the battlefield"},
+     *             {@code flying -haste}, {@code trample or menace}. Takes precedence over {@code name}.
      * @param page The page number (default 0).
      * @param size The number of items per page (default 20).
      * @return A {@link Page} of {@link Card} objects.
@@ -33,13 +53,119 @@ public class CardController {
     @GetMapping
     public Page<Card> getCards(
             @RequestParam(required = false) String name,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String text,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size
     ) {
         Pageable pageable = PageRequest.of(page, size);
+        if (q != null && !q.isBlank()) {
+            return cardService.searchByQuery(q, pageable);
+        }
+        if (text != null && !text.isBlank()) {
+            return cardService.searchFullText(text, pageable);
+        }
         return cardService.searchCards(name, pageable);
     }
 
+    /**
+     * Retrieves a paginated list of card summaries for result grids: id, name, set, rarity, front face ID
+     * (for the image) and mana cost. Each page is read with a single query, without loading faces or rules
+     * text; use {@link #getCardById} for the full card.
+     * * @param q Optional Scryfall-style search; takes precedence over {@code text} and {@code name}.
+     * @param text Optional full-text search over name, type line and rules text; takes precedence over {@code name}.
+     * @param name Optional search term for the card name (case-insensitive).
+     * @param page The page number (default 0).
+     * @param size The number of items per page (default 20).
+     * @return A {@link Page} of {@link CardSummary} objects.
+     */
+    @GetMapping("/summaries")
+    public Page<CardSummary> getCardSummaries(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String text,
+            @RequestParam(required = false) String name,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return cardService.listSummaries(q, text, name, PageRequest.of(page, size));
+    }
+
+    /**
+     * Retrieves cards sorted by name with cursor (keyset) pagination for infinite scrolling.
+     * Unlike {@link #getCards}, deep pages are as fast as the first and no count query runs unless asked for.
+     * * @param q Optional Scryfall-style search; takes precedence over {@code name}.
+     * @param name Optional search term for the card name (case-insensitive).
+     * @param cursor The {@code next} value of the previous page; omit for the first page.
+     * @param size The number of items per page (default 20).
+     * @param includeTotal Whether to include the total number of matches (default false).
+     * @return A {@link CursorPage} of {@link Card} objects.
+     */
+    @GetMapping("/scroll")
+    public CursorPage<Card> scrollCards(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal
+    ) {
+        return cardService.scrollCards(q, name, cursor, size, includeTotal);
+    }
+
+    /**
+     * Suggests card names for a search box as the user types. Served from memory, without a database query.
+     * * @param q What the user has typed so far; matched against the start of any word in a name.
+     * @param limit The maximum number of suggestions (default 10, at most 25).
+     * @return The most popular matching names, each with the id of its most popular printing.
+     */
+    @GetMapping("/autocomplete")
+    public List<CardSuggestion> autocomplete(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return cardAutocompleteService.complete(q, limit);
+    }
+
+    /**
+     * Counts cards by color, rarity, set, type word and mana value for a faceted search sidebar.
+     * Served from an in-memory bitmap index, without a database query. Each parameter accepts several
+     * values (repeated or comma-separated): colors must all be present, other values match any of them.
+     * * @param color Color letters (W, U, B, R, G, or C for colorless).
+     * @param rarity Rarities, e.g. common or mythic.
+     * @param set Set codes, e.g. one.
+     * @param type Words from the type line, e.g. creature or elf.
+     * @param cmc Mana values; 7 and above share the bucket {@code 7+}.
+     * @param limit The maximum number of values returned per facet (default 50).
+     * @return The number of matching cards and, per facet, the count for each of its values
+     *         with that facet's own filter left out.
+     */
+    @GetMapping("/facets")
+    public FacetCounts getFacets(
+            @RequestParam(required = false) List<String> color,
+            @RequestParam(required = false) List<String> rarity,
+            @RequestParam(required = false) List<String> set,
+            @RequestParam(required = false) List<String> type,
+            @RequestParam(required = false) List<String> cmc,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        Map<Facet, List<String>> filters = new EnumMap<>(Facet.class);
+        if (color != null) filters.put(Facet.COLOR, color);
+        if (rarity != null) filters.put(Facet.RARITY, rarity);
+        if (set != null) filters.put(Facet.SET, set);
+        if (type != null) filters.put(Facet.TYPE, type);
+        if (cmc != null) filters.put(Facet.CMC, cmc);
+        return cardFacetIndexService.count(filters, limit);
+    }
+
+    /**
+     * Retrieves several cards with their faces in one request, e.g. every card on a page of results.
+     * * @param ids The UUIDs of the card printings (at most 500); unknown IDs are skipped.
+     * @return The {@link Card} objects in the order requested.
+     */
+    @PostMapping("/batch")
+    public List<Card> getCardsByIds(@RequestBody List<UUID> ids) {
+        return cardService.getCardsByIds(ids);
+    }
+
     /**
      * Retrieves detailed information for a single card by its UUID.
      * * @param id The UUID of the card printing.
@@ -0,0 +1,52 @@
+package com.abrams.magic_db.controller;
+
+import com.abrams.magic_db.service.image.CachedImage;
+import com.abrams.magic_db.service.image.ImageService;
+import com.abrams.magic_db.service.image.ImageSize;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * REST controller serving card face images from the local image cache,
+ * so the frontend does not load them from Scryfall's CDN directly.
+ */
+@RestController
+@RequestMapping("/api/images")
+public class ImageController {
+
+    private final ImageService imageService;
+
+    public ImageController(ImageService imageService) {
+        this.imageService = imageService;
+    }
+
+    /**
+     * Retrieves the image of a card face. Responses may be cached by the browser for a day and are then
+     * revalidated against an ETag that changes with the face's image URL, so a re-imported image shows up.
+     * * @param faceId The ID of the card face.
+     * @param size THUMB (default) for grids, or NORMAL for the full-size image.
+     * @return The encoded image, or 304 Not Modified if the browser's copy is current.
+     */
+    @GetMapping("/{faceId}")
+    public ResponseEntity<byte[]> getImage(
+            @PathVariable Long faceId,
+            @RequestParam(defaultValue = "THUMB") ImageSize size,
+            WebRequest request
+    ) {
+        // Checked before the image is read, so a revalidation never touches the disk or the CDN
+        String etag = "\"" + imageService.getImageVersion(faceId) + "-" + size.name().toLowerCase() + "\"";
+        // Sends the 304 itself when the browser's copy matches
+        if (request.checkNotModified(etag)) return null;
+        CachedImage image = imageService.getImage(faceId, size);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(1, TimeUnit.DAYS).cachePublic())
+                .eTag(etag)
+                .contentType(MediaType.parseMediaType(image.contentType()))
+                .body(image.data());
+    }
+}
@@ -1,34 +1,267 @@
 package com.abrams.magic_db.controller;
 
+import com.abrams.magic_db.model.ImportJob;
+import com.abrams.magic_db.service.ImportJobService;
 import com.abrams.magic_db.service.ScryfallService;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import com.abrams.magic_db.service.benchmark.BinderConcurrencyBenchmarkService;
+import com.abrams.magic_db.service.benchmark.BinderConcurrencyResult;
+import com.abrams.magic_db.service.benchmark.CatalogBenchmarkResult;
+import com.abrams.magic_db.service.benchmark.CatalogBenchmarkService;
+import com.abrams.magic_db.service.benchmark.InsertBenchmarkResult;
+import com.abrams.magic_db.service.benchmark.InsertBenchmarkService;
+import com.abrams.magic_db.service.benchmark.ListQueryBenchmarkResult;
+import com.abrams.magic_db.service.benchmark.ListQueryBenchmarkService;
+import com.abrams.magic_db.service.benchmark.SearchBenchmarkResult;
+import com.abrams.magic_db.service.benchmark.SearchBenchmarkService;
+import com.abrams.magic_db.service.benchmark.TextSearchBenchmarkResult;
+import com.abrams.magic_db.service.catalog.CardCache;
+import com.abrams.magic_db.service.catalog.CardCacheStats;
+import com.abrams.magic_db.service.image.ImageService;
+import com.abrams.magic_db.service.importer.BulkSourceType;
+import com.abrams.magic_db.service.importer.ImportOptions;
+import com.abrams.magic_db.service.importer.ParseBenchmarkResult;
+import org.springframework.web.bind.annotation.*;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
+/**
+ * REST controller for loading the card catalog from Scryfall.
+ */
 @RestController
 @RequestMapping("/setup")
 public class SetupController {
 
+    private final ImportJobService importJobService;
     private final ScryfallService scryfallService;
+    private final InsertBenchmarkService insertBenchmarkService;
+    private final SearchBenchmarkService searchBenchmarkService;
+    private final CatalogBenchmarkService catalogBenchmarkService;
+    private final ListQueryBenchmarkService listQueryBenchmarkService;
+    private final BinderConcurrencyBenchmarkService binderConcurrencyBenchmarkService;
+    private final ImageService imageService;
+    private final CardCache cardCache;
 
-    public SetupController(ScryfallService scryfallService) {
+    public SetupController(ImportJobService importJobService, ScryfallService scryfallService,
+                           InsertBenchmarkService insertBenchmarkService, SearchBenchmarkService searchBenchmarkService,
+                           CatalogBenchmarkService catalogBenchmarkService,
+                           ListQueryBenchmarkService listQueryBenchmarkService,
+                           BinderConcurrencyBenchmarkService binderConcurrencyBenchmarkService,
+                           ImageService imageService, CardCache cardCache) {
+        this.importJobService = importJobService;
         this.scryfallService = scryfallService;
+        this.insertBenchmarkService = insertBenchmarkService;
+        this.searchBenchmarkService = searchBenchmarkService;
+        this.catalogBenchmarkService = catalogBenchmarkService;
+        this.listQueryBenchmarkService = listQueryBenchmarkService;
+        this.binderConcurrencyBenchmarkService = binderConcurrencyBenchmarkService;
+        this.imageService = imageService;
+        this.cardCache = cardCache;
     }
 
+    /**
+     * Starts a Scryfall import job in the background. Every {@link ImportOptions} field can be set
+     * as a query parameter, e.g. {@code ?mode=TREE&loader=JPA}, {@code ?parallel=true&writerThreads=6}
+     * or {@code ?source=FILE} to import from {@code scryfall.bulk-data.path} without network access.
+     * Only one import may run at a time; a second request is rejected with 409 Conflict.
+     * * @param options The import options; unset fields keep their defaults.
+     * @return The queued {@link ImportJob}, whose ID can be polled for progress.
+     */
     @PostMapping("/import")
-    public String runImport() {
-        // Run the import in a separate thread so the HTTP request doesn't time out
-        // The user will see "Import started!" immediately, while the backend works in the background.
-        new Thread(() -> {
-            try {
-                scryfallService.importCardsFromScryfall();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }).start();
-
-        return "Import started! Check your console logs for progress.";
-    }
-}
\ No newline at end of file
+    public ImportJob runImport(@ModelAttribute ImportOptions options) {
+        return importJobService.submit(options);
+    }
+
+    /**
+     * Retrieves the status of an import job: phase, processed/failed counts and,
+     * while it is running, the current rate, progress and ETA.
+     * * @param jobId The ID of the import job.
+     * @return The requested {@link ImportJob}.
+     */
+    @GetMapping("/import/{jobId}")
+    public ImportJob getImportJob(@PathVariable Long jobId) {
+        return importJobService.getJob(jobId);
+    }
+
+    /**
+     * Cancels a running import job. The import stops at the next card it reads.
+     * * @param jobId The ID of the import job.
+     * @return The job as it currently stands.
+     */
+    @DeleteMapping("/import/{jobId}")
+    public ImportJob cancelImportJob(@PathVariable Long jobId) {
+        return importJobService.cancelJob(jobId);
+    }
+
+    /**
+     * Resumes a failed or cancelled import job from the last batch it committed.
+     * * @param jobId The ID of the import job.
+     * @return The re-queued {@link ImportJob}.
+     */
+    @PostMapping("/import/{jobId}/resume")
+    public ImportJob resumeImportJob(@PathVariable Long jobId) {
+        return importJobService.resume(jobId);
+    }
+
+    /**
+     * Starts caching every card face image and its thumbnail in the background.
+     * Images that are already cached are skipped, so this can be re-run after each import.
+     * * @return Whether a new prefetch was started, and the current size of the image cache.
+     */
+    @PostMapping("/images/prefetch")
+    public Map<String, Object> prefetchImages() {
+        boolean started = imageService.startPrefetch();
+        return Map.of(
+                "started", started,
+                "running", imageService.isPrefetching(),
+                "cachedFiles", imageService.getCachedFileCount(),
+                "cachedBytes", imageService.getCachedBytes());
+    }
+
+    /**
+     * Reports how well the card cache is doing: hits, misses, hit rate, evictions and current size.
+     * The counters run from startup; the cache itself is cleared after every import.
+     * * @return The current {@link CardCacheStats}.
+     */
+    @GetMapping("/cache/cards")
+    public CardCacheStats getCardCacheStats() {
+        return cardCache.getStats();
+    }
+
+    /**
+     * Reads and parses the bulk file from each of the given sources in turn, without writing anything,
+     * and reports how fast each one was. Runs on the request thread. The file sources share the OS
+     * page cache, so the first one to read a file pays for the disk.
+     * * @param sources The sources to compare, e.g. {@code ?sources=FILE,MAPPED}.
+     * @param options The parse mode to use for every source; the URL and path come from configuration.
+     * @return One result per source, in the order given.
+     */
+    @PostMapping("/benchmark/parse")
+    public List<ParseBenchmarkResult> benchmarkParse(@RequestParam List<BulkSourceType> sources,
+                                                     @ModelAttribute ImportOptions options) throws IOException {
+        List<ParseBenchmarkResult> results = new ArrayList<>();
+        for (BulkSourceType source : sources) {
+            options.setSource(source);
+            results.add(scryfallService.benchmarkParse(options));
+        }
+        return results;
+    }
+
+    /**
+     * Times inserting card faces through JPA. Throwaway cards with two faces each are created
+     * and rolled back afterwards.
+     * * @param cards The number of cards to create; twice as many faces are inserted.
+     * @return The face insert throughput.
+     */
+    @PostMapping("/benchmark/inserts/faces")
+    public InsertBenchmarkResult benchmarkFaceInserts(@RequestParam(defaultValue = "5000") int cards) {
+        return insertBenchmarkService.benchmarkFaceInserts(cards);
+    }
+
+    /**
+     * Times adding cards to a user's binder through JPA. The rows are rolled back afterwards.
+     * * @param userId The user whose binder receives the rows.
+     * @param count The maximum number of cards to add.
+     * @return The binder insert throughput.
+     */
+    @PostMapping("/benchmark/inserts/binder")
+    public InsertBenchmarkResult benchmarkBinderInserts(@RequestParam Long userId,
+                                                        @RequestParam(defaultValue = "5000") int count) {
+        return insertBenchmarkService.benchmarkBinderInserts(userId, count);
+    }
+
+    /**
+     * Times card name searches through the repository query and through the in-memory name index.
+     * For each row count the cards table is padded with renamed copies of the stored cards inside
+     * a transaction that is rolled back.
+     * * @param rows The table sizes to measure at.
+     * @param queries The search terms to time.
+     * @param iterations How many timed runs to average per search.
+     * @return One result per row count and query.
+     */
+    @PostMapping("/benchmark/name-search")
+    public List<SearchBenchmarkResult> benchmarkNameSearch(
+            @RequestParam(defaultValue = "30000,300000") List<Integer> rows,
+            @RequestParam(defaultValue = "bolt,dragon,of the,xyzzy") List<String> queries,
+            @RequestParam(defaultValue = "10") int iterations
+    ) {
+        List<SearchBenchmarkResult> results = new ArrayList<>();
+        for (int rowCount : rows) {
+            results.addAll(searchBenchmarkService.benchmarkNameSearch(rowCount, queries, iterations));
+        }
+        return results;
+    }
+
+    /**
+     * Times rules-text searches through the ranked full-text search (tsvector + GIN) and through a
+     * substring match on the oracle text. For each row count the cards and faces are padded with copies
+     * of the stored ones inside a transaction that is rolled back.
+     * * @param rows The table sizes to measure at.
+     * @param queries The search text to time.
+     * @param iterations How many timed runs to average per search.
+     * @return One result per row count and query.
+     */
+    @PostMapping("/benchmark/text-search")
+    public List<TextSearchBenchmarkResult> benchmarkTextSearch(
+            @RequestParam(defaultValue = "30000,300000") List<Integer> rows,
+            @RequestParam(defaultValue = "flying,destroy target artifact,draw a card,xyzzy") List<String> queries,
+            @RequestParam(defaultValue = "10") int iterations
+    ) {
+        List<TextSearchBenchmarkResult> results = new ArrayList<>();
+        for (int rowCount : rows) {
+            results.addAll(searchBenchmarkService.benchmarkTextSearch(rowCount, queries, iterations));
+        }
+        return results;
+    }
+
+    /**
+     * Compares reading cards through Hibernate against the in-memory card catalog: heap taken by the
+     * whole catalog either way, and bytes allocated and time spent per card lookup and per page of cards.
+     * * @param lookups How many random cards and pages to read per path.
+     * @return The footprint and per-request figures for both paths.
+     */
+    @PostMapping("/benchmark/catalog")
+    public CatalogBenchmarkResult benchmarkCatalog(@RequestParam(defaultValue = "2000") int lookups) {
+        return catalogBenchmarkService.benchmarkCatalog(lookups);
+    }
+
+    /**
+     * Compares one page of the card listing loaded as entities (EAGER faces) against the summary
+     * projection: SQL statements per request, average time and JSON response size.
+     * * @param names Name searches to measure besides the unfiltered listing.
+     * @param size The page size.
+     * @param iterations How many timed runs to average per listing.
+     * @return One result per listing.
+     */
+    @PostMapping("/benchmark/listing")
+    public List<ListQueryBenchmarkResult> benchmarkListing(
+            @RequestParam(defaultValue = "bolt,dragon") List<String> names,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "10") int iterations
+    ) {
+        return listQueryBenchmarkService.benchmarkListing(names, size, iterations);
+    }
+
+    /**
+     * Stress-tests concurrent binder writes: the given number of threads add and remove copies of one
+     * card in one user's binder, each call in its own transaction, and the final quantity is compared with
+     * the calls that succeeded. The binder entry is restored to its starting quantity afterwards.
+     * * @param userId The user whose binder is written to.
+     * @param cardId The card printing every call targets.
+     * @param threads The number of concurrent callers.
+     * @param operations The total number of adds and removes.
+     * @return The expected and final quantity, lost updates, row count and throughput.
+     */
+    @PostMapping("/benchmark/binder-concurrency")
+    public BinderConcurrencyResult benchmarkBinderConcurrency(
+            @RequestParam Long userId,
+            @RequestParam UUID cardId,
+            @RequestParam(defaultValue = "32") int threads,
+            @RequestParam(defaultValue = "10000") int operations
+    ) throws InterruptedException {
+        return binderConcurrencyBenchmarkService.benchmarkConcurrentUpdates(userId, cardId, threads, operations);
+    }
+}
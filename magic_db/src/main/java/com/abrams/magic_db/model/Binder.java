@@ -16,10 +16,12 @@ import jakarta.validation.constraints.Min;
 public class Binder {
 
     /**
-     * The unique identifier for this binder entry.
+     * The unique identifier for this binder entry. Binder rows are written by raw SQL upserts that take
+     * their id from the column default, so the sequence hands out one id at a time rather than blocks.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "binders_seq")
+    @SequenceGenerator(name = "binders_seq", sequenceName = "binders_seq", allocationSize = 1)
     @Column(name = "binder_id")
     private Long id;
 
@@ -3,6 +3,8 @@ package com.abrams.magic_db.model;
 import java.util.List;
 import java.util.UUID;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.*;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
@@ -59,6 +61,29 @@ public class Card {
      */
     private String layout;
 
+    /**
+     * A 64-bit fingerprint of this card and its faces as imported from Scryfall.
+     * Used by delta imports to skip cards that have not changed. Ignored during JSON serialization.
+     */
+    @Column(name = "content_hash")
+    @JsonIgnore
+    private Long contentHash;
+
+    /**
+     * The card's colors (those of all its faces) as a {@link ColorMask}. Ignored during JSON serialization.
+     */
+    @Column(name = "color_mask")
+    @JsonIgnore
+    private Short colorMask;
+
+    /**
+     * The card's color identity (colors in its costs and rules text) as a {@link ColorMask}.
+     * Ignored during JSON serialization.
+     */
+    @Column(name = "color_identity")
+    @JsonIgnore
+    private Short colorIdentity;
+
     /**
      * A list of {@link CardFace} objects associated with this card. 
      * This list contains one face for single-faced cards, and multiple for double-faced cards.
@@ -22,7 +22,8 @@ public class CardFace {
      * The unique identifier for this card face entry.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "card_faces_seq")
+    @SequenceGenerator(name = "card_faces_seq", sequenceName = "card_faces_seq", allocationSize = 50)
     @Column(name = "face_id")
     private Long id;
 
@@ -75,6 +76,13 @@ public class CardFace {
     @Column(name = "colors", columnDefinition = "text[]")
     private List<String> colors;
     
+    /**
+     * The same colors as a {@link ColorMask}. Ignored during JSON serialization.
+     */
+    @Column(name = "color_mask")
+    @JsonIgnore
+    private Short colorMask;
+
     /**
      * The power of the creature.
      */
@@ -0,0 +1,16 @@
+package com.abrams.magic_db.model;
+
+import java.util.UUID;
+
+/**
+ * The fields a card grid shows, read straight from the database without loading the {@link Card}
+ * entity or its faces. The face fields are those of the front face (face index 0).
+ * @param id The card's UUID.
+ * @param name The card name.
+ * @param setCode The set code.
+ * @param rarity The rarity.
+ * @param faceId The front face's ID, for {@code /api/images/{faceId}}.
+ * @param manaCost The front face's mana cost.
+ */
+public record CardSummary(UUID id, String name, String setCode, String rarity, Long faceId, String manaCost) {
+}
@@ -0,0 +1,107 @@
+package com.abrams.magic_db.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Colors packed into one small integer: one bit per color in WUBRG order, and a separate bit for
+ * colorless so that "colorless" is a value of its own rather than the absence of one. A mask is
+ * either {@link #COLORLESS} or a non-zero combination of the five color bits.
+ *
+ * <p>Since there are only 32 valid masks, a color filter is resolved here with bit operations into
+ * the list of masks it accepts, and the database answers {@code color_mask IN (...)} from a plain
+ * B-tree index instead of evaluating bit operations (or array operators) row by row.
+ */
+public final class ColorMask {
+
+    public static final int WHITE = 1;
+    public static final int BLUE = 1 << 1;
+    public static final int BLACK = 1 << 2;
+    public static final int RED = 1 << 3;
+    public static final int GREEN = 1 << 4;
+    public static final int COLORLESS = 1 << 5;
+
+    private static final int COLORS = WHITE | BLUE | BLACK | RED | GREEN;
+    private static final String LETTERS = "WUBRG";
+
+    /**
+     * How a card's mask is compared with the mask of a filter.
+     */
+    public enum Match {
+        /** The same colors, no more and no fewer. */
+        EXACTLY,
+        /** At least the filter's colors. */
+        INCLUDING,
+        /** No colors outside the filter's; colorless always qualifies. */
+        AT_MOST
+    }
+
+    private ColorMask() {
+    }
+
+    /**
+     * @param colors Color letters such as "W" or "G"; unknown letters are ignored.
+     * @return The mask of the colors, or {@link #COLORLESS} if there are none (or the list is null).
+     */
+    public static short of(Collection<String> colors) {
+        int mask = 0;
+        if (colors != null) {
+            for (String color : colors) {
+                mask |= bit(color);
+            }
+        }
+        return normalize(mask);
+    }
+
+    /**
+     * @param masks Masks to combine, e.g. those of a card's faces; nulls are skipped.
+     * @return The mask with every color of any of the masks, or {@link #COLORLESS} if there are none.
+     */
+    public static short union(Collection<Short> masks) {
+        int mask = 0;
+        for (Short part : masks) {
+            if (part != null) mask |= part & COLORS;
+        }
+        return normalize(mask);
+    }
+
+    /**
+     * @param letter One color letter (W, U, B, R or G, in either case).
+     * @return The bit of the color, or 0 if the letter is not a color.
+     */
+    public static int bit(String letter) {
+        if (letter == null || letter.length() != 1) return 0;
+        int index = LETTERS.indexOf(Character.toUpperCase(letter.charAt(0)));
+        return index < 0 ? 0 : 1 << index;
+    }
+
+    /**
+     * @param filter The filter's mask.
+     * @param match How card masks are compared with it.
+     * @return Every valid mask that satisfies the filter, for an {@code IN (...)} condition.
+     */
+    public static List<Short> matching(int filter, Match match) {
+        int wanted = filter & COLORS;
+        List<Short> masks = new ArrayList<>();
+        for (int mask = 1; mask <= COLORS; mask++) {
+            boolean accepted = switch (match) {
+                case EXACTLY -> mask == wanted;
+                case INCLUDING -> wanted != 0 && (mask & wanted) == wanted;
+                case AT_MOST -> (mask & ~wanted) == 0;
+            };
+            if (accepted) masks.add((short) mask);
+        }
+        // Colorless is exactly/including nothing but the colorless filter, and within any at-most filter
+        boolean colorless = switch (match) {
+            case EXACTLY, INCLUDING -> wanted == 0;
+            case AT_MOST -> true;
+        };
+        if (colorless) masks.add((short) COLORLESS);
+        return masks;
+    }
+
+    private static short normalize(int colors) {
+        return (short) (colors == 0 ? COLORLESS : colors);
+    }
+}
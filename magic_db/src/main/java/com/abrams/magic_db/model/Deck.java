@@ -18,7 +18,8 @@ public class Deck {
      * The unique identifier for the deck.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "decks_seq")
+    @SequenceGenerator(name = "decks_seq", sequenceName = "decks_seq", allocationSize = 50)
     @Column(name = "deck_id")
     private Long id;
 
@@ -20,7 +20,8 @@ public class DeckCard {
      * The unique identifier for this entry in the deck list.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "deck_cards_seq")
+    @SequenceGenerator(name = "deck_cards_seq", sequenceName = "deck_cards_seq", allocationSize = 50)
     private Long id;
 
     /**
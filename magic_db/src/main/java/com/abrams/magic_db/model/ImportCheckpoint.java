@@ -0,0 +1,38 @@
+package com.abrams.magic_db.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * How far an {@link ImportJob} has durably got through the bulk file. Written in the same
+ * transaction as each committed batch, so a restarted job can skip everything before it.
+ */
+@Entity
+@Table(name = "import_checkpoints")
+@Data
+@NoArgsConstructor
+public class ImportCheckpoint {
+
+    /**
+     * The {@link ImportJob} this checkpoint belongs to.
+     */
+    @Id
+    @Column(name = "job_id")
+    private Long jobId;
+
+    /**
+     * The ordinal (position in the bulk file's card array) of the first card not yet committed.
+     * Every card before it has been written or deliberately skipped.
+     */
+    @Column(name = "next_ordinal", nullable = false)
+    private Long nextOrdinal;
+
+    /**
+     * When the checkpoint last moved.
+     */
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
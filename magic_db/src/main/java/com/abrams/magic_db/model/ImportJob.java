@@ -0,0 +1,91 @@
+package com.abrams.magic_db.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A record of one Scryfall import run: the options it was started with, how far it got
+ * and how it ended.
+ */
+@Entity
+@Table(name = "import_jobs")
+@Data
+@NoArgsConstructor
+public class ImportJob {
+
+    /**
+     * The unique identifier for the job.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "job_id")
+    private Long id;
+
+    /**
+     * The current phase of the job.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ImportPhase phase;
+
+    /**
+     * The import options the job was started with, as JSON.
+     */
+    @Column(columnDefinition = "TEXT")
+    private String options;
+
+    /**
+     * Number of cards written so far.
+     */
+    private Long processed = 0L;
+
+    /**
+     * Number of cards that could not be built.
+     */
+    private Long failed = 0L;
+
+    /**
+     * When the job was submitted.
+     */
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    /**
+     * When a worker picked the job up.
+     */
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    /**
+     * When the job completed, failed or was cancelled.
+     */
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    /**
+     * The reason the job failed, if it did.
+     */
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    /**
+     * Transient field holding the current import rate while the job is running.
+     */
+    @Transient
+    private Double cardsPerSecond;
+
+    /**
+     * Transient field holding the estimated fraction of the bulk file already read (0 to 1).
+     */
+    @Transient
+    private Double progress;
+
+    /**
+     * Transient field holding the estimated seconds left while the job is running.
+     */
+    @Transient
+    private Long etaSeconds;
+}
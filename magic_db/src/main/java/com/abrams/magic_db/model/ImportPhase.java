@@ -0,0 +1,21 @@
+package com.abrams.magic_db.model;
+
+/**
+ * The lifecycle of an {@link ImportJob}.
+ */
+public enum ImportPhase {
+    QUEUED,
+    PREPARING,
+    IMPORTING,
+    FINALIZING,
+    COMPLETED,
+    FAILED,
+    CANCELLED;
+
+    /**
+     * @return true once the job has stopped, successfully or not.
+     */
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED || this == CANCELLED;
+    }
+}
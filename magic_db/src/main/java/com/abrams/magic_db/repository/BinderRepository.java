@@ -2,10 +2,16 @@ package com.abrams.magic_db.repository;
 
 import com.abrams.magic_db.model.Binder;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,9 +21,78 @@ public interface BinderRepository extends JpaRepository<Binder, Long> {
     // Find a specific card in a user's binder
     Optional<Binder> findByUserIdAndCardId(Long userId, UUID cardId);
 
+    // Adds copies in one statement, creating the row if the user has none yet. Returns the row with its
+    // owner's details and whether it was created; runs as a query (not @Modifying) because of the
+    // RETURNING clause. (xmax = 0) relies on PostgreSQL storage internals: the system column holds the
+    // locking transaction's id for a row ON CONFLICT updated and 0 for a freshly inserted one
+    @Transactional
+    @Query(value = """
+            WITH upserted AS (
+                INSERT INTO binders (user_id, card_id, quantity) VALUES (:userId, :cardId, :quantity)
+                ON CONFLICT (user_id, card_id) DO UPDATE SET quantity = binders.quantity + EXCLUDED.quantity
+                RETURNING binder_id, user_id, quantity, (xmax = 0) AS inserted
+            )
+            SELECT up.binder_id AS id, up.quantity AS quantity, up.inserted AS inserted,
+                   u.username AS username, u.email AS email
+            FROM upserted up JOIN users u ON u.user_id = up.user_id
+            """, nativeQuery = true)
+    BinderWriteView addQuantity(@Param("userId") Long userId, @Param("cardId") UUID cardId,
+                                @Param("quantity") int quantity);
+
+    // Takes copies away only if enough are owned; 0 rows updated means the row is missing or too small
+    @Modifying
+    @Query(value = """
+            UPDATE binders SET quantity = quantity - :quantity
+            WHERE user_id = :userId AND card_id = :cardId AND quantity >= :quantity
+            """, nativeQuery = true)
+    int removeQuantity(@Param("userId") Long userId, @Param("cardId") UUID cardId, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query(value = "DELETE FROM binders WHERE user_id = :userId AND card_id = :cardId AND quantity = 0", nativeQuery = true)
+    int deleteIfEmpty(@Param("userId") Long userId, @Param("cardId") UUID cardId);
+
+    long countByUserIdAndCardId(Long userId, UUID cardId);
+
+    // Owned quantities of several cards at once; cards the user does not own are left out
+    @Query("SELECT b.card.id AS cardId, b.quantity AS quantity FROM Binder b WHERE b.user.id = :userId AND b.card.id IN :cardIds")
+    List<CardQuantityView> findQuantities(@Param("userId") Long userId, @Param("cardIds") Collection<UUID> cardIds);
+
     //Search a user's binder
     Page<Binder> findByUserIdAndCardNameContainingIgnoreCase(Long userId, String name, Pageable pageable);
     
+    // Keyset pages of a user's binder, sorted by (card name, binder id); pattern is a lower-case LIKE pattern
+    @Query("""
+            SELECT b FROM Binder b JOIN FETCH b.card c
+            WHERE b.user.id = :userId AND LOWER(c.name) LIKE :pattern
+            ORDER BY c.name, b.id
+            """)
+    List<Binder> findFirstPage(@Param("userId") Long userId, @Param("pattern") String pattern, Limit limit);
+
+    @Query("""
+            SELECT b FROM Binder b JOIN FETCH b.card c
+            WHERE b.user.id = :userId AND LOWER(c.name) LIKE :pattern
+              AND (c.name, b.id) > (:name, :id)
+            ORDER BY c.name, b.id
+            """)
+    List<Binder> findPageAfter(@Param("userId") Long userId, @Param("pattern") String pattern,
+                               @Param("name") String name, @Param("id") Long id, Limit limit);
+
+    @Query("SELECT COUNT(b) FROM Binder b WHERE b.user.id = :userId AND LOWER(b.card.name) LIKE :pattern")
+    long countMatching(@Param("userId") Long userId, @Param("pattern") String pattern);
+
     // Get all cards for a user
     List<Binder> findByUserId(Long userId);
+
+    interface BinderWriteView {
+        Long getId();
+        Integer getQuantity();
+        Boolean getInserted();
+        String getUsername();
+        String getEmail();
+    }
+
+    interface CardQuantityView {
+        UUID getCardId();
+        Integer getQuantity();
+    }
 }
\ No newline at end of file
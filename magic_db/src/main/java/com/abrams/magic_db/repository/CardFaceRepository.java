@@ -0,0 +1,27 @@
+package com.abrams.magic_db.repository;
+
+import com.abrams.magic_db.model.CardFace;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CardFaceRepository extends JpaRepository<CardFace, Long> {
+
+    // Just the remote image of a face, without loading the face or its card
+    @Query("SELECT f.imageUrl FROM CardFace f WHERE f.id = :id")
+    Optional<String> findImageUrlById(@Param("id") Long id);
+
+    // Every face that has an image, for warming the image cache
+    @Query("SELECT f.id AS id, f.imageUrl AS imageUrl FROM CardFace f WHERE f.imageUrl IS NOT NULL ORDER BY f.id")
+    List<FaceImageView> findAllImageUrls();
+
+    interface FaceImageView {
+        Long getId();
+        String getImageUrl();
+    }
+}
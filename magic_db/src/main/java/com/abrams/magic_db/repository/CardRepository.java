@@ -1,15 +1,215 @@
 package com.abrams.magic_db.repository;
 
 import com.abrams.magic_db.model.Card;
+import com.abrams.magic_db.model.CardSummary;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface CardRepository extends JpaRepository<Card, UUID> {
+public interface CardRepository extends JpaRepository<Card, UUID>, JpaSpecificationExecutor<Card>, CardSummaryRepository {
     
     Page<Card> findByNameContainingIgnoreCase(String name, Pageable pageable);
-}
\ No newline at end of file
+
+    // Grid summaries of the given cards, front face joined in, in no particular order
+    @Query("""
+            SELECT new com.abrams.magic_db.model.CardSummary(c.id, c.name, c.setCode, c.rarity, f.id, f.manaCost)
+            FROM Card c LEFT JOIN c.faces f ON f.faceIndex = 0
+            WHERE c.id IN :ids
+            """)
+    List<CardSummary> findSummariesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Which of the given ids belong to a card
+    @Query("SELECT c.id FROM Card c WHERE c.id IN :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    // Cards by id with their faces fetched in the same query, instead of one face query per card
+    @Query("SELECT DISTINCT c FROM Card c LEFT JOIN FETCH c.faces WHERE c.id IN :ids")
+    List<Card> findAllWithFacesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Id and content hash of every card, without loading faces (used by delta imports)
+    @Query("SELECT c.id AS id, c.contentHash AS contentHash FROM Card c")
+    List<ContentHashView> findAllContentHashes();
+
+    // Id and name of every card, without loading faces (used to build the name index)
+    @Query("SELECT c.id AS id, c.name AS name FROM Card c")
+    List<CardNameView> findAllNames();
+
+    // Cards with a face matching a web-style search ("destroy target artifact", "flying -haste"),
+    // best match first; a card ranks by its best face. Rank normalization 1 divides by document
+    // length, so a short card that is mostly the search terms beats a long one that mentions them once.
+    @Query(value = """
+            SELECT r.card_id AS id, r.rank AS rank
+            FROM (SELECT f.card_id, MAX(ts_rank(f.search_vector, q, 1)) AS rank
+                  FROM card_faces f, websearch_to_tsquery('english', :text) q
+                  WHERE f.search_vector @@ q
+                  GROUP BY f.card_id) r
+            JOIN cards c ON c.id = r.card_id
+            ORDER BY r.rank DESC, c.name, c.id
+            """, countQuery = """
+            SELECT COUNT(DISTINCT f.card_id)
+            FROM card_faces f
+            WHERE f.search_vector @@ websearch_to_tsquery('english', :text)
+            """, nativeQuery = true)
+    Page<RankedCardView> searchFullText(@Param("text") String text, Pageable pageable);
+
+    // Every card with the number of binder and deck entries using it (used to rank autocomplete)
+    @Query(value = """
+            SELECT c.id AS id, c.name AS name, COALESCE(b.uses, 0) + COALESCE(d.uses, 0) AS popularity
+            FROM cards c
+            LEFT JOIN (SELECT card_id, COUNT(*) AS uses FROM binders GROUP BY card_id) b ON b.card_id = c.id
+            LEFT JOIN (SELECT card_id, COUNT(*) AS uses FROM deck_cards GROUP BY card_id) d ON d.card_id = c.id
+            """, nativeQuery = true)
+    List<CardPopularityView> findAllPopularity();
+
+    // One row per face with the card-level fields the facet index needs, grouped by card in set order
+    @Query(value = """
+            SELECT c.id AS id, c.rarity AS rarity, c.set_code AS setCode,
+                   array_to_string(f.colors, '') AS colors, f.type_line AS typeLine, f.cmc AS cmc
+            FROM cards c
+            LEFT JOIN card_faces f ON f.card_id = c.id
+            ORDER BY c.set_code, c.id, f.face_index
+            """, nativeQuery = true)
+    List<CardFacetView> findAllFacetRows();
+
+    // Every card's own columns, without faces or an entity, sorted like the paged listings (used to build the
+    // in-memory catalog)
+    @Query(value = """
+            SELECT c.id AS id, c.oracle_id AS oracleId, c.name AS name, c.set_code AS setCode,
+                   c.collector_number AS collectorNumber, c.rarity AS rarity, c.layout AS layout
+            FROM cards c
+            ORDER BY c.name, c.id
+            """, nativeQuery = true)
+    List<CatalogCardView> findAllCatalogCards();
+
+    // Every face's columns with its card id, colors joined with commas (used to build the in-memory catalog)
+    @Query(value = """
+            SELECT f.card_id AS cardId, f.face_id AS id, f.face_index AS faceIndex, f.name AS name,
+                   f.mana_cost AS manaCost, f.cmc AS cmc, f.type_line AS typeLine, f.oracle_text AS oracleText,
+                   array_to_string(f.colors, ',') AS colors, f.power AS power, f.toughness AS toughness,
+                   f.image_url AS imageUrl
+            FROM card_faces f
+            ORDER BY f.card_id, f.face_index
+            """, nativeQuery = true)
+    List<CatalogFaceView> findAllCatalogFaces();
+
+    // Cards whose full name or front face name is one of the given lower-case names, newest printing first
+    @Query(value = """
+            SELECT c.id AS id, c.name AS name, c.set_code AS setCode, c.collector_number AS collectorNumber
+            FROM cards c
+            LEFT JOIN sets s ON s.code = c.set_code
+            WHERE lower(c.name) IN (:names) OR lower(split_part(c.name, ' // ', 1)) IN (:names)
+            ORDER BY s.release_date DESC NULLS LAST, c.id
+            """, nativeQuery = true)
+    List<CardKeyView> findKeysByLowerNames(@Param("names") Collection<String> names);
+
+    // Printings in the given sets named (full name or front face, lower-case) one of the given names, for
+    // resolving name and set pairs
+    @Query(value = """
+            SELECT c.id AS id, c.name AS name, c.set_code AS setCode, c.collector_number AS collectorNumber
+            FROM cards c
+            WHERE c.set_code IN (:setCodes)
+              AND (lower(c.name) IN (:names) OR lower(split_part(c.name, ' // ', 1)) IN (:names))
+            ORDER BY c.id
+            """, nativeQuery = true)
+    List<CardKeyView> findKeysByLowerNamesInSets(@Param("names") Collection<String> names,
+                                                 @Param("setCodes") Collection<String> setCodes);
+
+    // Printings in the given sets with one of the given lower-case collector numbers, for resolving set and
+    // collector number pairs
+    @Query(value = """
+            SELECT c.id AS id, c.name AS name, c.set_code AS setCode, c.collector_number AS collectorNumber
+            FROM cards c
+            WHERE c.set_code IN (:setCodes) AND lower(c.collector_number) IN (:numbers)
+            """, nativeQuery = true)
+    List<CardKeyView> findKeysByCollectorNumbersInSets(@Param("numbers") Collection<String> numbers,
+                                                       @Param("setCodes") Collection<String> setCodes);
+
+    // Delete cards (and their faces) that no binder or deck still points at
+    @Modifying
+    @Query(value = """
+            DELETE FROM card_faces f WHERE f.card_id IN (:ids)
+              AND NOT EXISTS (SELECT 1 FROM binders b WHERE b.card_id = f.card_id)
+              AND NOT EXISTS (SELECT 1 FROM deck_cards d WHERE d.card_id = f.card_id)
+            """, nativeQuery = true)
+    int deleteUnreferencedFaces(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query(value = """
+            DELETE FROM cards c WHERE c.id IN (:ids)
+              AND NOT EXISTS (SELECT 1 FROM binders b WHERE b.card_id = c.id)
+              AND NOT EXISTS (SELECT 1 FROM deck_cards d WHERE d.card_id = c.id)
+            """, nativeQuery = true)
+    int deleteUnreferencedCards(@Param("ids") Collection<UUID> ids);
+
+    interface CardPopularityView {
+        UUID getId();
+        String getName();
+        Long getPopularity();
+    }
+
+    interface CatalogCardView {
+        UUID getId();
+        UUID getOracleId();
+        String getName();
+        String getSetCode();
+        String getCollectorNumber();
+        String getRarity();
+        String getLayout();
+    }
+
+    interface CatalogFaceView {
+        UUID getCardId();
+        Long getId();
+        Integer getFaceIndex();
+        String getName();
+        String getManaCost();
+        Double getCmc();
+        String getTypeLine();
+        String getOracleText();
+        String getColors();
+        String getPower();
+        String getToughness();
+        String getImageUrl();
+    }
+
+    interface RankedCardView {
+        UUID getId();
+        Double getRank();
+    }
+
+    interface CardFacetView {
+        UUID getId();
+        String getRarity();
+        String getSetCode();
+        String getColors();
+        String getTypeLine();
+        Double getCmc();
+    }
+
+    interface CardKeyView {
+        UUID getId();
+        String getName();
+        String getSetCode();
+        String getCollectorNumber();
+    }
+
+    interface CardNameView {
+        UUID getId();
+        String getName();
+    }
+
+    interface ContentHashView {
+        UUID getId();
+        Long getContentHash();
+    }
+}
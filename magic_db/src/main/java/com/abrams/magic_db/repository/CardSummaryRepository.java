@@ -0,0 +1,21 @@
+package com.abrams.magic_db.repository;
+
+import com.abrams.magic_db.model.Card;
+import com.abrams.magic_db.model.CardSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Summary listings for arbitrary {@link Specification}s, which derived and {@code @Query} methods cannot express.
+ */
+public interface CardSummaryRepository {
+
+    /**
+     * Lists card summaries sorted by name (then id), with the front face joined into the same query.
+     * @param specification The filter, or null for every card.
+     * @param pageable The page to return; its sort is ignored.
+     * @return The page of summaries, counted with one extra query.
+     */
+    Page<CardSummary> findSummaries(Specification<Card> specification, Pageable pageable);
+}
@@ -0,0 +1,54 @@
+package com.abrams.magic_db.repository;
+
+import com.abrams.magic_db.model.Card;
+import com.abrams.magic_db.model.CardFace;
+import com.abrams.magic_db.model.CardSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+class CardSummaryRepositoryImpl implements CardSummaryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<CardSummary> findSummaries(Specification<Card> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<CardSummary> query = cb.createQuery(CardSummary.class);
+        Root<Card> card = query.from(Card.class);
+        Join<Card, CardFace> front = card.join("faces", JoinType.LEFT);
+        front.on(cb.equal(front.get("faceIndex"), 0));
+        query.select(cb.construct(CardSummary.class, card.get("id"), card.get("name"), card.get("setCode"),
+                card.get("rarity"), front.get("id"), front.get("manaCost")));
+        Predicate filter = specification != null ? specification.toPredicate(card, query, cb) : null;
+        if (filter != null) query.where(filter);
+        query.orderBy(cb.asc(card.get("name")), cb.asc(card.get("id")));
+
+        List<CardSummary> content = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        CriteriaQuery<Long> count = cb.createQuery(Long.class);
+        Root<Card> counted = count.from(Card.class);
+        count.select(cb.count(counted));
+        Predicate countFilter = specification != null ? specification.toPredicate(counted, count, cb) : null;
+        if (countFilter != null) count.where(countFilter);
+        long total = entityManager.createQuery(count).getSingleResult();
+
+        return new PageImpl<>(content, pageable, total);
+    }
+}
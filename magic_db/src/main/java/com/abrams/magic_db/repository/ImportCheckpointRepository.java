@@ -0,0 +1,21 @@
+package com.abrams.magic_db.repository;
+
+import com.abrams.magic_db.model.ImportCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ImportCheckpointRepository extends JpaRepository<ImportCheckpoint, Long> {
+
+    // Checkpoints only move forward, even if parallel writers commit out of order
+    @Modifying
+    @Query(value = """
+            INSERT INTO import_checkpoints (job_id, next_ordinal, updated_at) VALUES (:jobId, :nextOrdinal, now())
+            ON CONFLICT (job_id) DO UPDATE
+            SET next_ordinal = GREATEST(import_checkpoints.next_ordinal, EXCLUDED.next_ordinal), updated_at = now()
+            """, nativeQuery = true)
+    void saveCheckpoint(@Param("jobId") Long jobId, @Param("nextOrdinal") long nextOrdinal);
+}
@@ -0,0 +1,14 @@
+package com.abrams.magic_db.repository;
+
+import com.abrams.magic_db.model.ImportJob;
+import com.abrams.magic_db.model.ImportPhase;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+    List<ImportJob> findByPhaseIn(Collection<ImportPhase> phases);
+}
@@ -0,0 +1,15 @@
+package com.abrams.magic_db.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a batch request asks for more items than one request may carry.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class BatchTooLargeException extends RuntimeException {
+
+    public BatchTooLargeException(int size, int max) {
+        super("Batch of " + size + " items exceeds the limit of " + max);
+    }
+}
@@ -4,16 +4,26 @@ import com.abrams.magic_db.model.Binder;
 import com.abrams.magic_db.model.Card;
 import com.abrams.magic_db.model.User;
 import com.abrams.magic_db.repository.BinderRepository;
-import com.abrams.magic_db.repository.CardRepository;
-import com.abrams.magic_db.repository.UserRepository;
+import com.abrams.magic_db.repository.BinderRepository.BinderWriteView;
 
+import com.abrams.magic_db.service.catalog.CardCache;
+import com.abrams.magic_db.service.collection.CollectionStatsService;
+import com.abrams.magic_db.service.paging.CursorPage;
+import com.abrams.magic_db.service.paging.InvalidCursorException;
+import com.abrams.magic_db.service.paging.InvalidPageSizeException;
+import com.abrams.magic_db.service.paging.SeekCursor;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.ServerErrorMessage;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -24,13 +34,14 @@ import java.util.UUID;
 public class BinderService {
 
     private final BinderRepository binderRepository;
-    private final CardRepository cardRepository;
-    private final UserRepository userRepository;
+    private final CardCache cardCache;
+    private final CollectionStatsService collectionStatsService;
 
-    public BinderService(BinderRepository binderRepository, CardRepository cardRepository, UserRepository userRepository) {
+    public BinderService(BinderRepository binderRepository, CardCache cardCache,
+                         CollectionStatsService collectionStatsService) {
         this.binderRepository = binderRepository;
-        this.cardRepository = cardRepository;
-        this.userRepository = userRepository;
+        this.cardCache = cardCache;
+        this.collectionStatsService = collectionStatsService;
     }
 
     /**
@@ -44,7 +55,8 @@ public class BinderService {
 
     /**
      * Adds a specified quantity of a card to the user's binder.
-     * If the card already exists, the quantity is updated. Otherwise, a new entry is created.
+     * The row is created or incremented by a single upsert, so concurrent adds of the same card
+     * neither lose an increment nor create a second row. The collection stats are updated in the same transaction.
      * * @param userId The ID of the user whose binder is being modified.
      * @param cardId The UUID of the card printing to add.
      * @param quantity The amount to add (must be positive).
@@ -56,49 +68,57 @@ public class BinderService {
     public Binder addCardToBinder(Long userId, UUID cardId, int quantity) {
         if (quantity <= 0) throw new IllegalArgumentException("Quantity must be positive");
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        Card card = cardRepository.findById(cardId)
-                .orElseThrow(() -> new RuntimeException("Card not found"));
-
-        Optional<Binder> existingEntry = binderRepository.findByUserIdAndCardId(userId, cardId);
-
-        if (existingEntry.isPresent()) {
-            Binder binder = existingEntry.get();
-            binder.setQuantity(binder.getQuantity() + quantity);
-            return binderRepository.save(binder);
-        } else {
-            Binder newBinder = new Binder();
-            newBinder.setUser(user);
-            newBinder.setCard(card);
-            newBinder.setQuantity(quantity);
-            return binderRepository.save(newBinder);
+        Card card = cardCache.get(cardId);
+        BinderWriteView written;
+        try {
+            written = binderRepository.addQuantity(userId, cardId, quantity);
+        } catch (DataIntegrityViolationException e) {
+            String column = missingForeignKey(e);
+            if ("user_id".equals(column)) throw new RuntimeException("User not found");
+            // The cached card may have been deleted since it was cached
+            if ("card_id".equals(column)) throw new RuntimeException("Card not found");
+            throw e;
         }
+        collectionStatsService.recordChange(userId, cardId, quantity, written.getInserted() ? 1 : 0);
+
+        User user = new User();
+        user.setId(userId);
+        user.setUsername(written.getUsername());
+        user.setEmail(written.getEmail());
+        Binder binder = new Binder();
+        binder.setId(written.getId());
+        binder.setUser(user);
+        binder.setCard(card);
+        binder.setQuantity(written.getQuantity());
+        return binder;
     }
 
     /**
      * Removes a specified quantity of a card from the user's binder.
      * If the quantity reaches zero, the binder entry is deleted.
      * This is used for general binder management and deck building (pulling from inventory).
+     * The decrement is a single guarded update, so concurrent removes can never take the quantity below zero.
+     * The collection stats are updated in the same transaction.
      * * @param userId The ID of the user.
      * @param cardId The UUID of the card printing to remove.
      * @param quantity The amount to remove (must be positive).
-     * @throws RuntimeException if the card is not found or if the removal quantity exceeds owned quantity.
+     * @throws IllegalArgumentException if quantity is not positive.
+     * @throws InsufficientBinderQuantityException if the card is not in the binder or fewer copies are owned.
      */
     @Transactional
     public void removeCardFromBinder(Long userId, UUID cardId, int quantity) {
-        Binder binder = binderRepository.findByUserIdAndCardId(userId, cardId)
-                .orElseThrow(() -> new RuntimeException("Card not found in user's binder"));
-
-        int newQuantity = binder.getQuantity() - quantity;
-        if (newQuantity < 0) {
-            throw new RuntimeException("Not enough cards in binder to remove");
-        } else if (newQuantity == 0) {
-            binderRepository.delete(binder);
-        } else {
-            binder.setQuantity(newQuantity);
-            binderRepository.save(binder);
+        if (quantity <= 0) throw new IllegalArgumentException("Quantity must be positive");
+
+        if (binderRepository.removeQuantity(userId, cardId, quantity) == 0) {
+            // Only the failure path needs to look at the row, to say why
+            if (binderRepository.countByUserIdAndCardId(userId, cardId) == 0) {
+                throw new InsufficientBinderQuantityException("Card not found in user's binder");
+            }
+            throw new InsufficientBinderQuantityException("Not enough cards in binder to remove");
         }
+        // The updated row stays locked until commit, so no concurrent add can slip in between
+        int deleted = binderRepository.deleteIfEmpty(userId, cardId);
+        collectionStatsService.recordChange(userId, cardId, -quantity, -deleted);
     }
 
     /**
@@ -116,9 +136,49 @@ public class BinderService {
         return binderRepository.findByUserIdAndCardNameContainingIgnoreCase(userId, name, pageable);
     }
 
+    /**
+     * Lists a user's binder sorted by (card name, entry id) using keyset pagination, so deep pages
+     * cost the same as the first one.
+     * * @param userId The ID of the user.
+     * @param name Optional search term for the card name (case-insensitive).
+     * @param cursor The {@link CursorPage#next()} of the previous page, or null for the first page.
+     * @param size The page size, capped at {@link CursorPage#MAX_SIZE}.
+     * @param includeTotal Whether to also count all matching entries (one extra query).
+     * @return The page of binder entries and the cursor for the next one.
+     * @throws InvalidCursorException if the cursor is malformed.
+     * @throws InvalidPageSizeException if the size is less than 1.
+     */
+    public CursorPage<Binder> scrollUserBinder(Long userId, String name, String cursor, int size, boolean includeTotal) {
+        int limit = CursorPage.checkSize(size);
+        String pattern = "%" + (name == null ? "" : name.trim().toLowerCase()
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_")) + "%";
+        SeekCursor after = SeekCursor.decode(cursor);
+        List<Binder> entries;
+        if (after == null) {
+            entries = binderRepository.findFirstPage(userId, pattern, Limit.of(limit + 1));
+        } else {
+            long afterId;
+            try {
+                afterId = Long.parseLong(after.id());
+            } catch (NumberFormatException e) {
+                throw new InvalidCursorException();
+            }
+            entries = binderRepository.findPageAfter(userId, pattern, after.name(), afterId, Limit.of(limit + 1));
+        }
+
+        String next = null;
+        if (entries.size() > limit) {
+            entries = entries.subList(0, limit);
+            Binder last = entries.get(limit - 1);
+            next = new SeekCursor(last.getCard().getName(), last.getId().toString()).encode();
+        }
+        Long total = includeTotal ? binderRepository.countMatching(userId, pattern) : null;
+        return new CursorPage<>(entries, next, total);
+    }
+
     /**
      * Retrieves the current owned quantity of a specific card printing for a user.
-     * This is primarily a helper for the {@link DeckService} to perform inventory checks.
+     * Used by the Card Search page to show how many copies of a card the user owns.
      * * @param userId The ID of the user.
      * @param cardId The UUID of the card printing.
      * @return The quantity owned, or 0 if the entry does not exist.
@@ -128,4 +188,38 @@ public class BinderService {
                 .map(Binder::getQuantity)
                 .orElse(0);
     }
-}
\ No newline at end of file
+
+    /**
+     * Retrieves the owned quantities of several card printings for a user with one query.
+     * Used by the Card Search page to show ownership badges for a whole page of results.
+     * * @param userId The ID of the user.
+     * @param cardIds The UUIDs of the card printings.
+     * @return The quantity owned per card, in the order given, with 0 for cards the user does not own.
+     * @throws BatchTooLargeException if more than {@link CardService#MAX_BATCH_SIZE} distinct ids are given.
+     */
+    public Map<UUID, Integer> getCardQuantities(Long userId, List<UUID> cardIds) {
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        cardIds.forEach(cardId -> quantities.put(cardId, 0));
+        if (quantities.size() > CardService.MAX_BATCH_SIZE) {
+            throw new BatchTooLargeException(quantities.size(), CardService.MAX_BATCH_SIZE);
+        }
+        if (quantities.isEmpty()) return quantities;
+        binderRepository.findQuantities(userId, quantities.keySet())
+                .forEach(owned -> quantities.put(owned.getCardId(), owned.getQuantity()));
+        return quantities;
+    }
+
+    /**
+     * @return The column of the foreign key the write violated, or null if it failed for another reason.
+     */
+    private static String missingForeignKey(DataIntegrityViolationException e) {
+        // 23503 is foreign_key_violation; the detail reads "Key (user_id)=(42) is not present in table ..."
+        if (!(e.getMostSpecificCause() instanceof PSQLException pg) || !"23503".equals(pg.getSQLState())) return null;
+        ServerErrorMessage message = pg.getServerErrorMessage();
+        String detail = message != null ? message.getDetail() : null;
+        if (detail == null) return null;
+        int open = detail.indexOf('(');
+        int close = detail.indexOf(')', open + 1);
+        return open >= 0 && close > open ? detail.substring(open + 1, close) : null;
+    }
+}
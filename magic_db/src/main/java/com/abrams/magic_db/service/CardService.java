@@ -1,34 +1,228 @@
 package com.abrams.magic_db.service;
 
 import com.abrams.magic_db.model.Card;
+import com.abrams.magic_db.model.CardSummary;
 import com.abrams.magic_db.repository.CardRepository;
+import com.abrams.magic_db.service.catalog.CardCache;
+import com.abrams.magic_db.service.catalog.CardCatalog;
+import com.abrams.magic_db.service.catalog.CardCatalogService;
+import com.abrams.magic_db.service.search.CardNameIndex;
+import com.abrams.magic_db.service.search.CardNameIndexService;
 import org.springframework.data.domain.Page;
+import com.abrams.magic_db.service.paging.CursorPage;
+import com.abrams.magic_db.service.paging.InvalidCursorException;
+import com.abrams.magic_db.service.paging.InvalidPageSizeException;
+import com.abrams.magic_db.service.paging.SeekCursor;
+import com.abrams.magic_db.service.search.query.CardQuery;
+import com.abrams.magic_db.service.search.query.CardQueryCompiler;
+import com.abrams.magic_db.service.search.query.CardQueryParser;
+import com.abrams.magic_db.service.search.query.InvalidCardQueryException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
 @Service
 public class CardService {
 
+    public static final int MAX_BATCH_SIZE = 500;
+
     private final CardRepository cardRepository;
+    private final CardNameIndexService cardNameIndexService;
+    private final CardQueryCompiler cardQueryCompiler;
+    private final CardCatalogService cardCatalogService;
+    private final CardCache cardCache;
 
-    public CardService(CardRepository cardRepository) {
+    public CardService(CardRepository cardRepository, CardNameIndexService cardNameIndexService,
+                       CardQueryCompiler cardQueryCompiler, CardCatalogService cardCatalogService,
+                       CardCache cardCache) {
         this.cardRepository = cardRepository;
+        this.cardNameIndexService = cardNameIndexService;
+        this.cardQueryCompiler = cardQueryCompiler;
+        this.cardCatalogService = cardCatalogService;
+        this.cardCache = cardCache;
     }
 
-    //  Get a specific card (for the card details page)
+    //  Get a specific card (for the card details page), from the in-memory catalog once it is built, else through the card cache
     public Card getCardById(UUID id) {
-        return cardRepository.findById(id)
+        CardCatalog catalog = cardCatalogService.getCatalog();
+        Card card = catalog != null ? catalog.get(id) : null;
+        if (card != null) return card;
+        return cardCache.find(id)
                 .orElseThrow(() -> new RuntimeException("Card not found with ID: " + id));
     }
 
-    //searching cards by name (refactor soon)
+    // Searching cards by name: the in-memory name index finds the page of ids, then only those cards are loaded.
+    // Without a name every card is listed by (name, id), the same order as the summaries listing
     public Page<Card> searchCards(String name, Pageable pageable) {
         if (name == null || name.trim().isEmpty()) {
-            return cardRepository.findAll(pageable);
+            CardCatalog catalog = cardCatalogService.getCatalog();
+            if (catalog == null) {
+                return cardRepository.findAll(PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                        Sort.by("name", "id")));
+            }
+            return new PageImpl<>(catalog.slice(pageable.getOffset(), pageable.getPageSize()), pageable, catalog.size());
+        }
+        CardNameIndex.Hits hits = cardNameIndexService.search(name, (int) pageable.getOffset(), pageable.getPageSize());
+        if (hits == null) {
+            // Index not built yet (still starting up)
+            return cardRepository.findByNameContainingIgnoreCase(name, pageable);
+        }
+        return new PageImpl<>(findAllInOrder(hits.ids()), pageable, hits.total());
+    }
+
+    // Ranked full-text search over name, type line and rules text: Postgres ranks and pages the ids,
+    // then only those cards are loaded
+    public Page<Card> searchFullText(String text, Pageable pageable) {
+        Page<CardRepository.RankedCardView> ranked = cardRepository.searchFullText(text.trim(), pageable);
+        List<UUID> ids = ranked.getContent().stream()
+                .map(CardRepository.RankedCardView::getId)
+                .toList();
+        return new PageImpl<>(findAllInOrder(ids), pageable, ranked.getTotalElements());
+    }
+
+    /**
+     * Lists lean card summaries for result grids: one query for the page (front face joined in) plus
+     * a count or an index lookup, however many cards are on the page. Takes the same searches as the
+     * full listing, in the same precedence: {@code query}, then {@code text}, then {@code name}.
+     * Search-syntax and name results are sorted by name; full-text results by rank.
+     * @param query Optional Scryfall-style search.
+     * @param text Optional full-text search over name, type line and rules text.
+     * @param name Optional search term for the card name.
+     * @param pageable Pagination information (page number and size).
+     * @return A {@link Page} of {@link CardSummary} objects.
+     * @throws InvalidCardQueryException if the search cannot be parsed.
+     */
+    public Page<CardSummary> listSummaries(String query, String text, String name, Pageable pageable) {
+        if (query != null && !query.isBlank()) {
+            return cardRepository.findSummaries(cardQueryCompiler.compile(CardQueryParser.parse(query)), pageable);
         }
-        return cardRepository.findByNameContainingIgnoreCase(name, pageable);
+        if (text != null && !text.isBlank()) {
+            Page<CardRepository.RankedCardView> ranked = cardRepository.searchFullText(text.trim(), pageable);
+            List<UUID> ids = ranked.getContent().stream()
+                    .map(CardRepository.RankedCardView::getId)
+                    .toList();
+            return new PageImpl<>(findSummariesInOrder(ids), pageable, ranked.getTotalElements());
+        }
+        if (name != null && !name.isBlank()) {
+            CardNameIndex.Hits hits = cardNameIndexService.search(name, (int) pageable.getOffset(), pageable.getPageSize());
+            if (hits != null) {
+                return new PageImpl<>(findSummariesInOrder(hits.ids()), pageable, hits.total());
+            }
+            // Index not built yet (still starting up)
+            return cardRepository.findSummaries(cardQueryCompiler.compile(
+                    new CardQuery.Term(CardQuery.Field.NAME, CardQuery.Operator.COLON, name)), pageable);
+        }
+        return cardRepository.findSummaries(null, pageable);
+    }
+
+    // Loads summaries by id with one query, keeping the order of the ids
+    private List<CardSummary> findSummariesInOrder(List<UUID> ids) {
+        if (ids.isEmpty()) return List.of();
+        Map<UUID, CardSummary> summariesById = new HashMap<>();
+        cardRepository.findSummariesByIdIn(ids).forEach(summary -> summariesById.put(summary.id(), summary));
+        return ids.stream()
+                .map(summariesById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Retrieves several cards at once, e.g. every card on a page the UI is about to show.
+     * @param ids The card ids; duplicates are returned once.
+     * @return The cards in the order of their first id, leaving out ids that do not exist.
+     * @throws BatchTooLargeException if more than {@link #MAX_BATCH_SIZE} distinct ids are given.
+     */
+    public List<Card> getCardsByIds(List<UUID> ids) {
+        List<UUID> distinct = List.copyOf(new LinkedHashSet<>(ids));
+        if (distinct.size() > MAX_BATCH_SIZE) throw new BatchTooLargeException(distinct.size(), MAX_BATCH_SIZE);
+        return findAllInOrder(distinct);
+    }
+
+    // Loads cards by id, keeping the order of the ids; served from the catalog once it is built,
+    // else with one query that fetches the faces along with the cards
+    private List<Card> findAllInOrder(List<UUID> ids) {
+        if (ids.isEmpty()) return List.of();
+        CardCatalog catalog = cardCatalogService.getCatalog();
+        if (catalog != null) return catalog.getAll(ids);
+        Map<UUID, Card> cardsById = new HashMap<>();
+        cardRepository.findAllWithFacesByIdIn(ids).forEach(card -> cardsById.put(card.getId(), card));
+        return ids.stream()
+                .map(cardsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Lists cards sorted by (name, id) using keyset pagination: each page seeks past the last card
+     * of the previous one instead of skipping rows, so every page costs the same.
+     * @param query Optional Scryfall-style search; takes precedence over {@code name}.
+     * @param name Optional search term for the card name.
+     * @param cursor The {@link CursorPage#next()} of the previous page, or null for the first page.
+     * @param size The page size, capped at {@link CursorPage#MAX_SIZE}.
+     * @param includeTotal Whether to also count all matching cards (one extra query).
+     * @return The page of cards and the cursor for the next one.
+     * @throws InvalidCursorException if the cursor is malformed.
+     * @throws InvalidPageSizeException if the size is less than 1.
+     */
+    public CursorPage<Card> scrollCards(String query, String name, String cursor, int size, boolean includeTotal) {
+        int limit = CursorPage.checkSize(size);
+        Specification<Card> filter = null;
+        if (query != null && !query.isBlank()) {
+            filter = cardQueryCompiler.compile(CardQueryParser.parse(query));
+        } else if (name != null && !name.isBlank()) {
+            filter = cardQueryCompiler.compile(new CardQuery.Term(CardQuery.Field.NAME, CardQuery.Operator.COLON, name));
+        }
+
+        Specification<Card> page = Specification.where(filter);
+        SeekCursor after = SeekCursor.decode(cursor);
+        if (after != null) {
+            UUID afterId = parseCardId(after.id());
+            // (name, id) > (?, ?), spelled out with a redundant name >= ? so the (name, id) index bounds the scan
+            page = page.and((root, q, cb) -> cb.and(
+                    cb.greaterThanOrEqualTo(root.get("name"), after.name()),
+                    cb.or(cb.greaterThan(root.get("name"), after.name()), cb.greaterThan(root.get("id"), afterId))));
+        }
+
+        List<Card> cards = cardRepository.findBy(page, q -> q.sortBy(Sort.by("name", "id")).limit(limit + 1).all());
+        String next = null;
+        if (cards.size() > limit) {
+            cards = cards.subList(0, limit);
+            Card last = cards.get(limit - 1);
+            next = new SeekCursor(last.getName(), last.getId().toString()).encode();
+        }
+        Long total = includeTotal ? cardRepository.count(Specification.where(filter)) : null;
+        return new CursorPage<>(cards, next, total);
+    }
+
+    private static UUID parseCardId(String id) {
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    /**
+     * Searches cards with the Scryfall-style syntax, e.g. {@code c:rg t:creature cmc>=3 o:"draw a card"}.
+     * Results are sorted by name.
+     * @param query The search as typed by the user.
+     * @param pageable Pagination information (page number and size).
+     * @return A {@link Page} of matching cards.
+     * @throws InvalidCardQueryException if the search cannot be parsed.
+     */
+    public Page<Card> searchByQuery(String query, Pageable pageable) {
+        Specification<Card> specification = cardQueryCompiler.compile(CardQueryParser.parse(query));
+        Pageable byName = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("name", "id"));
+        return cardRepository.findAll(specification, byName);
     }
-    //TODO: Add other serach methods
 }
\ No newline at end of file
@@ -4,10 +4,10 @@ import com.abrams.magic_db.model.Card;
 import com.abrams.magic_db.model.Deck;
 import com.abrams.magic_db.model.DeckCard;
 import com.abrams.magic_db.model.User;
-import com.abrams.magic_db.repository.CardRepository;
 import com.abrams.magic_db.repository.DeckCardRepository;
 import com.abrams.magic_db.repository.DeckRepository;
 import com.abrams.magic_db.repository.UserRepository;
+import com.abrams.magic_db.service.catalog.CardCache;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,15 +28,15 @@ public class DeckService {
     private final DeckRepository deckRepository;
     private final DeckCardRepository deckCardRepository;
     private final UserRepository userRepository;
-    private final CardRepository cardRepository;
+    private final CardCache cardCache;
     private final BinderService binderService;
 
     public DeckService(DeckRepository deckRepository, DeckCardRepository deckCardRepository, 
-                       UserRepository userRepository, CardRepository cardRepository, BinderService binderService) {
+                       UserRepository userRepository, CardCache cardCache, BinderService binderService) {
         this.deckRepository = deckRepository;
         this.deckCardRepository = deckCardRepository;
         this.userRepository = userRepository;
-        this.cardRepository = cardRepository;
+        this.cardCache = cardCache;
         this.binderService = binderService;
     }
 
@@ -125,8 +125,7 @@ public class DeckService {
     @Transactional
     public DeckCard addCardToDeck(Long deckId, UUID cardId, int quantity, boolean isSideboard) {
         Deck deck = getDeckById(deckId);
-        Card card = cardRepository.findById(cardId)
-                .orElseThrow(() -> new RuntimeException("Card not found"));
+        Card card = cardCache.get(cardId);
         
 
         // Capacity Check 
@@ -138,12 +137,13 @@ public class DeckService {
             throw new RuntimeException("Deck capacity exceeded!");
         }
 
-        // Inventory Check
-        int owned = binderService.getCardQuantity(deck.getUser().getId(), cardId);
-        if (owned < quantity) throw new RuntimeException("Not enough cards in your binder to add to the deck");
-
-        // Remove the card from the binder (consumes inventory)
-        binderService.removeCardFromBinder(deck.getUser().getId(), cardId, quantity);
+        // Remove the card from the binder (consumes inventory); the guarded decrement fails, and rolls
+        // the whole add back, if the binder does not hold enough copies
+        try {
+            binderService.removeCardFromBinder(deck.getUser().getId(), cardId, quantity);
+        } catch (InsufficientBinderQuantityException e) {
+            throw new RuntimeException("Not enough cards in your binder to add to the deck");
+        }
 
         // Now we can actually add it
         Optional<DeckCard> existing = deckCardRepository.findByDeckIdAndCardId(deckId, cardId);
@@ -0,0 +1,299 @@
+package com.abrams.magic_db.service;
+
+import com.abrams.magic_db.model.ImportCheckpoint;
+import com.abrams.magic_db.model.ImportJob;
+import com.abrams.magic_db.model.ImportPhase;
+import com.abrams.magic_db.repository.ImportCheckpointRepository;
+import com.abrams.magic_db.repository.ImportJobRepository;
+import com.abrams.magic_db.service.image.ImageService;
+import com.abrams.magic_db.service.importer.ImportAlreadyRunningException;
+import com.abrams.magic_db.service.importer.ImportCancelledException;
+import com.abrams.magic_db.service.importer.ImportOptions;
+import com.abrams.magic_db.service.importer.ImportStats;
+import com.abrams.magic_db.service.catalog.CardCache;
+import com.abrams.magic_db.service.catalog.CardCatalogService;
+import com.abrams.magic_db.service.collection.CollectionStatsService;
+import com.abrams.magic_db.service.search.CardAutocompleteService;
+import com.abrams.magic_db.service.search.CardFacetIndexService;
+import com.abrams.magic_db.service.search.CardNameIndexService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs Scryfall imports as tracked {@link ImportJob}s. At most one import is queued or running
+ * at a time; it runs on a dedicated worker thread, reports live progress, and can be cancelled.
+ * Jobs checkpoint every committed batch, so a failed or cancelled job can be resumed.
+ */
+@Service
+public class ImportJobService {
+
+    private static final EnumSet<ImportPhase> ACTIVE_PHASES =
+            EnumSet.of(ImportPhase.QUEUED, ImportPhase.PREPARING, ImportPhase.IMPORTING, ImportPhase.FINALIZING);
+
+    private final ScryfallService scryfallService;
+    private final ImportJobRepository importJobRepository;
+    private final ImportCheckpointRepository importCheckpointRepository;
+    private final ImageService imageService;
+    private final CardNameIndexService cardNameIndexService;
+    private final CardAutocompleteService cardAutocompleteService;
+    private final CardFacetIndexService cardFacetIndexService;
+    private final CardCatalogService cardCatalogService;
+    private final CollectionStatsService collectionStatsService;
+    private final CardCache cardCache;
+    private final ObjectMapper objectMapper;
+
+    // One worker and room for one queued job; single-flight keeps the queue from ever filling up
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1), runnable -> new Thread(runnable, "scryfall-import"));
+
+    private ActiveImport active;
+
+    public ImportJobService(ScryfallService scryfallService, ImportJobRepository importJobRepository,
+                            ImportCheckpointRepository importCheckpointRepository, ImageService imageService,
+                            CardNameIndexService cardNameIndexService, CardAutocompleteService cardAutocompleteService,
+                            CardFacetIndexService cardFacetIndexService, CardCatalogService cardCatalogService,
+                            CollectionStatsService collectionStatsService, CardCache cardCache,
+                            ObjectMapper objectMapper) {
+        this.scryfallService = scryfallService;
+        this.importJobRepository = importJobRepository;
+        this.importCheckpointRepository = importCheckpointRepository;
+        this.imageService = imageService;
+        this.cardNameIndexService = cardNameIndexService;
+        this.cardAutocompleteService = cardAutocompleteService;
+        this.cardFacetIndexService = cardFacetIndexService;
+        this.cardCatalogService = cardCatalogService;
+        this.collectionStatsService = collectionStatsService;
+        this.cardCache = cardCache;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Queues a new import job.
+     * @param options The options to run the import with.
+     * @return The newly created {@link ImportJob}.
+     * @throws ImportAlreadyRunningException if another import is still queued or running.
+     */
+    public synchronized ImportJob submit(ImportOptions options) {
+        if (active != null) throw new ImportAlreadyRunningException(active.jobId());
+
+        ImportJob job = new ImportJob();
+        job.setPhase(ImportPhase.QUEUED);
+        job.setOptions(toJson(options));
+        job.setCreatedAt(Instant.now());
+        job = importJobRepository.save(job);
+
+        return start(job, options, 0);
+    }
+
+    /**
+     * Re-runs a failed or cancelled job from its last checkpoint, with the options it was started with.
+     * @param jobId The ID of the job to resume.
+     * @return The re-queued {@link ImportJob}.
+     * @throws ImportAlreadyRunningException if another import is still queued or running.
+     * @throws RuntimeException if the job is not found or did not fail or get cancelled.
+     */
+    public synchronized ImportJob resume(Long jobId) {
+        if (active != null) throw new ImportAlreadyRunningException(active.jobId());
+
+        ImportJob job = importJobRepository.findById(jobId)
+                .orElseThrow(() -> new RuntimeException("Import job not found"));
+        if (job.getPhase() != ImportPhase.FAILED && job.getPhase() != ImportPhase.CANCELLED) {
+            throw new RuntimeException("Only failed or cancelled import jobs can be resumed");
+        }
+        ImportOptions options = fromJson(job.getOptions());
+        long startOrdinal = importCheckpointRepository.findById(jobId)
+                .map(ImportCheckpoint::getNextOrdinal)
+                .orElse(0L);
+
+        job.setPhase(ImportPhase.QUEUED);
+        job.setFinishedAt(null);
+        job.setErrorMessage(null);
+        job = importJobRepository.save(job);
+
+        return start(job, options, startOrdinal);
+    }
+
+    private ImportJob start(ImportJob job, ImportOptions options, long startOrdinal) {
+        ImportStats stats = new ImportStats("job " + job.getId());
+        stats.setPhase(ImportPhase.QUEUED);
+        active = new ActiveImport(job.getId(), stats);
+
+        Long jobId = job.getId();
+        try {
+            executor.execute(() -> runJob(jobId, options, stats, startOrdinal));
+        } catch (RejectedExecutionException e) {
+            active = null;
+            finishJob(jobId, stats, ImportPhase.FAILED, "Import executor rejected the job");
+            throw e;
+        }
+        return withLiveProgress(job);
+    }
+
+    /**
+     * Retrieves an import job, including live rate and ETA if it is still running.
+     * @param jobId The ID of the job.
+     * @return The requested {@link ImportJob}.
+     * @throws RuntimeException if the job is not found.
+     */
+    public ImportJob getJob(Long jobId) {
+        ImportJob job = importJobRepository.findById(jobId)
+                .orElseThrow(() -> new RuntimeException("Import job not found"));
+        return withLiveProgress(job);
+    }
+
+    /**
+     * Asks a running import to stop. The job moves to CANCELLED once the import notices.
+     * @param jobId The ID of the job to cancel.
+     * @return The job as it currently stands.
+     * @throws RuntimeException if the job is not found.
+     */
+    public ImportJob cancelJob(Long jobId) {
+        ActiveImport current = currentImport(jobId);
+        if (current != null) {
+            current.stats().requestCancel();
+        }
+        return getJob(jobId);
+    }
+
+    /**
+     * Marks jobs that were still active when the application last stopped as failed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failAbandonedJobs() {
+        for (ImportJob job : importJobRepository.findByPhaseIn(ACTIVE_PHASES)) {
+            job.setPhase(ImportPhase.FAILED);
+            job.setFinishedAt(Instant.now());
+            job.setErrorMessage("Interrupted by an application restart; resume it to continue from its last checkpoint");
+            importJobRepository.save(job);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ActiveImport current = currentImport(null);
+        if (current != null) {
+            current.stats().requestCancel();
+        }
+        executor.shutdown();
+    }
+
+    private void runJob(Long jobId, ImportOptions options, ImportStats stats, long startOrdinal) {
+        ImportJob job = importJobRepository.findById(jobId).orElseThrow();
+        job.setPhase(ImportPhase.PREPARING);
+        if (job.getStartedAt() == null) job.setStartedAt(Instant.now());
+        importJobRepository.save(job);
+
+        ImportPhase outcome = ImportPhase.COMPLETED;
+        String error = null;
+        try {
+            stats.checkCancelled();
+            scryfallService.importCardsFromScryfall(options, stats, jobId, startOrdinal);
+        } catch (ImportCancelledException e) {
+            outcome = ImportPhase.CANCELLED;
+        } catch (Exception e) {
+            outcome = ImportPhase.FAILED;
+            error = e.getMessage();
+            e.printStackTrace();
+        }
+        // Stays the active import until the rebuilds below are done, so no new job can queue behind them
+        try {
+            finishJob(jobId, stats, outcome, error);
+            // Even a cancelled or failed import may have committed some batches
+            cardCache.invalidateAll();
+            try {
+                cardNameIndexService.rebuild();
+                cardAutocompleteService.rebuild();
+                cardFacetIndexService.rebuild();
+                cardCatalogService.rebuild();
+            } catch (Exception e) {
+                System.err.println("Failed to rebuild card search indexes and catalog - " + e.getMessage());
+            }
+            // Binder stats only depend on card data, so an import that wrote and deleted nothing leaves them as they are
+            if (stats.changedCards()) {
+                try {
+                    collectionStatsService.rebuildAll();
+                } catch (Exception e) {
+                    System.err.println("Failed to rebuild collection stats - " + e.getMessage());
+                }
+            }
+        } finally {
+            synchronized (this) {
+                active = null;
+            }
+        }
+        if (outcome == ImportPhase.COMPLETED && options.isPrefetchImages()) {
+            imageService.startPrefetch();
+        }
+    }
+
+    private void finishJob(Long jobId, ImportStats stats, ImportPhase outcome, String error) {
+        ImportJob job = importJobRepository.findById(jobId).orElseThrow();
+        job.setPhase(outcome);
+        // A resumed job adds to what its earlier runs already wrote
+        job.setProcessed(job.getProcessed() + stats.getProcessed());
+        job.setFailed(job.getFailed() + stats.getFailed());
+        job.setFinishedAt(Instant.now());
+        job.setErrorMessage(error);
+        importJobRepository.save(job);
+        System.out.println("Import job " + jobId + " finished: " + outcome);
+    }
+
+    private synchronized ActiveImport currentImport(Long jobId) {
+        if (active == null || (jobId != null && !active.jobId().equals(jobId))) return null;
+        return active;
+    }
+
+    /**
+     * Fills in the live counters of the job if it is the one currently running and its outcome
+     * has not been recorded yet.
+     */
+    private ImportJob withLiveProgress(ImportJob job) {
+        if (job.getFinishedAt() != null) return job;
+        ActiveImport current = currentImport(job.getId());
+        if (current == null) return job;
+
+        ImportStats stats = current.stats();
+        job.setPhase(stats.getPhase());
+        job.setProcessed(job.getProcessed() + stats.getProcessed());
+        job.setFailed(job.getFailed() + stats.getFailed());
+        if (stats.getPhase() != ImportPhase.QUEUED) {
+            job.setCardsPerSecond(stats.getCardsPerSecond());
+            double progress = stats.getProgress();
+            job.setProgress(progress >= 0 ? progress : null);
+            long eta = stats.getEtaSeconds();
+            job.setEtaSeconds(eta >= 0 ? eta : null);
+        }
+        return job;
+    }
+
+    private String toJson(ImportOptions options) {
+        try {
+            return objectMapper.writeValueAsString(options);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private ImportOptions fromJson(String json) {
+        if (json == null) return new ImportOptions();
+        try {
+            return objectMapper.readValue(json, ImportOptions.class);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Stored import options could not be read", e);
+        }
+    }
+
+    private record ActiveImport(Long jobId, ImportStats stats) {
+    }
+}
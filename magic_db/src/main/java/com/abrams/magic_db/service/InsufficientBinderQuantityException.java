@@ -0,0 +1,11 @@
+package com.abrams.magic_db.service;
+
+/**
+ * Thrown when copies are taken out of a binder that does not hold the card, or not enough of it.
+ */
+public class InsufficientBinderQuantityException extends RuntimeException {
+
+    public InsufficientBinderQuantityException(String message) {
+        super(message);
+    }
+}
@@ -2,106 +2,376 @@ package com.abrams.magic_db.service;
 
 import com.abrams.magic_db.model.Card;
 import com.abrams.magic_db.model.CardFace;
+import com.abrams.magic_db.model.ColorMask;
+import com.abrams.magic_db.model.ImportPhase;
 import com.abrams.magic_db.model.Set;
 import com.abrams.magic_db.repository.CardRepository;
+import com.abrams.magic_db.repository.ImportCheckpointRepository;
 import com.abrams.magic_db.repository.SetRepository;
+import com.abrams.magic_db.service.importer.CardBatchWriter;
+import com.abrams.magic_db.service.importer.CardContentHash;
+import com.abrams.magic_db.service.importer.CardNodeSource;
+import com.abrams.magic_db.service.importer.CopyCardBatchWriter;
+import com.abrams.magic_db.service.importer.BulkDataSource;
+import com.abrams.magic_db.service.importer.BulkSourceType;
+import com.abrams.magic_db.service.importer.FileBulkDataSource;
+import com.abrams.magic_db.service.importer.HttpBulkDataSource;
+import com.abrams.magic_db.service.importer.DeltaTracker;
+import com.abrams.magic_db.service.importer.ImportCancelledException;
+import com.abrams.magic_db.service.importer.ImportMode;
+import com.abrams.magic_db.service.importer.ImportOptions;
+import com.abrams.magic_db.service.importer.ImportPipeline;
+import com.abrams.magic_db.service.importer.ImportStats;
+import com.abrams.magic_db.service.importer.JpaCardBatchWriter;
+import com.abrams.magic_db.service.importer.LoadStrategy;
+import com.abrams.magic_db.service.importer.MappedFileBulkDataSource;
+import com.abrams.magic_db.service.importer.ParseBenchmarkResult;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.sql.DataSource;
 import java.io.IOException;
-import java.net.URL;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Service
 public class ScryfallService {
 
     private final CardRepository cardRepository;
     private final SetRepository setRepository;
+    private final ImportCheckpointRepository checkpointRepository;
     private final ObjectMapper objectMapper;
+    private final DataSource dataSource;
+    private final PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
-    private static final String BULK_DATA_URL = "https://data.scryfall.io/oracle-cards/oracle-cards-20251210220808.json";
     private static final int BATCH_SIZE = 1000; // Save in chunks of 1000 for speed
 
-    public ScryfallService(CardRepository cardRepository, SetRepository setRepository, ObjectMapper objectMapper) {
+    private final String bulkDataUrl;
+    private final String bulkDataPath;
+
+    public ScryfallService(CardRepository cardRepository, SetRepository setRepository,
+                           ImportCheckpointRepository checkpointRepository, ObjectMapper objectMapper,
+                           DataSource dataSource, PlatformTransactionManager transactionManager,
+                           @Value("${scryfall.bulk-data.url}") String bulkDataUrl,
+                           @Value("${scryfall.bulk-data.path:}") String bulkDataPath) {
+        this.bulkDataUrl = bulkDataUrl;
+        this.bulkDataPath = bulkDataPath;
         this.cardRepository = cardRepository;
         this.setRepository = setRepository;
+        this.checkpointRepository = checkpointRepository;
         this.objectMapper = objectMapper;
+        this.dataSource = dataSource;
+        this.transactionManager = transactionManager;
     }
 
-    @Transactional
+    /**
+     * Imports the Scryfall bulk file using the default {@link ImportOptions}.
+     */
     public void importCardsFromScryfall() throws IOException {
-        System.out.println("Starting Scryfall Import from: " + BULK_DATA_URL);
-        
-        URL url = new URL(BULK_DATA_URL);
-        JsonNode rootNode = objectMapper.readTree(url.openStream());
+        importCardsFromScryfall(new ImportOptions());
+    }
+
+    /**
+     * Imports every paper card from the Scryfall bulk file, writing them in batches.
+     * Throughput and peak heap are reported at the end so the modes can be compared.
+     * @param options How to parse the bulk file, how to write the cards and whether to run in parallel.
+     */
+    public void importCardsFromScryfall(ImportOptions options) throws IOException {
+        importCardsFromScryfall(options, new ImportStats(options.getMode() + "/" + options.getLoader()
+                + (options.isParallel() ? "/parallel" : "")));
+    }
+
+    /**
+     * Imports the Scryfall bulk file, reporting progress into the given stats. The import stops with an
+     * {@link ImportCancelledException} at the next card once {@link ImportStats#requestCancel()} is called.
+     * @param options How to parse the bulk file, how to write the cards and whether to run in parallel.
+     * @param stats Receives progress and phase changes; may be watched from other threads.
+     */
+    public void importCardsFromScryfall(ImportOptions options, ImportStats stats) throws IOException {
+        importCardsFromScryfall(options, stats, null, 0);
+    }
+
+    /**
+     * Imports the Scryfall bulk file as part of an import job. Every committed batch records a
+     * checkpoint for the job, and cards before {@code startOrdinal} are skipped, which lets a
+     * failed job pick up where its last checkpoint left off.
+     * @param options How to parse the bulk file, how to write the cards and whether to run in parallel.
+     * @param stats Receives progress and phase changes; may be watched from other threads.
+     * @param jobId The job to record checkpoints for, or null to import without checkpoints.
+     * @param startOrdinal Position in the bulk file's card array to resume from (0 for a fresh import).
+     */
+    public void importCardsFromScryfall(ImportOptions options, ImportStats stats, Long jobId, long startOrdinal)
+            throws IOException {
+        BulkDataSource bulkData = openSource(options);
+        System.out.println("Starting Scryfall Import (" + options.getMode() + ", " + options.getLoader()
+                + (options.isParallel() ? ", parallel" : "") + ") from: " + bulkData.describe()
+                + (startOrdinal > 0 ? " resuming at card #" + startOrdinal : ""));
+        stats.setPhase(ImportPhase.PREPARING);
 
         // Cache sets to avoid a ton of DB lookups
         java.util.Set<String> knownSets = new HashSet<>();
         setRepository.findAll().forEach(s -> knownSets.add(s.getCode()));
 
-        List<Card> batch = new ArrayList<>();
-        int count = 0;
-
-        if (rootNode.isArray()) {
-            for (JsonNode cardNode : rootNode) {
-                try {
-                    // Filter: Only paper games
-                    if (cardNode.has("games") && !isPaperGame(cardNode.get("games"))) continue;
-
-                    // 1. Process Set (Check cache first)
-                    String setCode = getString(cardNode, "set");
-                    if (setCode != null && !knownSets.contains(setCode)) {
-                        String setName = getString(cardNode, "set_name");
-                        String dateStr = getString(cardNode, "released_at");
-                        createSet(setCode, setName, dateStr);
-                        knownSets.add(setCode); // Add to cache
-                    }
+        DeltaTracker delta = options.isDelta() ? loadDeltaTracker() : null;
 
-                    // 2. Process Card (Build object, don't save yet)
-                    Card card = buildCard(cardNode);
-                    if (card != null) {
-                        batch.add(card);
+        try (InputStream in = bulkData.open(stats)) {
+            stats.setPhase(ImportPhase.IMPORTING);
+            CardNodeSource source = action -> {
+                long[] ordinal = {0};
+                readCardNodes(in, options.getMode(), stats, cardNode -> {
+                    stats.checkCancelled();
+                    stats.nodeScanned();
+                    long current = ordinal[0]++;
+                    if (current < startOrdinal) {
+                        // Already committed by an earlier run of this job
+                        if (delta != null) markSeen(cardNode, delta);
+                        return;
                     }
+                    action.accept(cardNode, current);
+                });
+            };
+            if (options.isParallel()) {
+                new ImportPipeline(options, BATCH_SIZE,
+                        cardNode -> discoverSet(cardNode, knownSets),
+                        cardNode -> mapCard(cardNode, delta, stats),
+                        () -> openWriter(options.getLoader()),
+                        stats, jobId).run(source, startOrdinal);
+            } else {
+                importSequentially(source, knownSets, delta, options, stats, jobId);
+            }
+        }
 
-                    // 3. Batch Save
-                    if (batch.size() >= BATCH_SIZE) {
-                        cardRepository.saveAll(batch);
-                        batch.clear(); // Free up memory
-                        count += BATCH_SIZE;
-                        System.out.println("Saved " + count + " cards...");
-                    }
+        if (delta != null) {
+            stats.setPhase(ImportPhase.FINALIZING);
+            deleteUnseenCards(delta, stats);
+            delta.report();
+        }
+        stats.report();
+    }
+
+    /**
+     * Reads and parses the bulk file from the configured source without building or writing any cards,
+     * to compare how fast each source can feed the import.
+     * @param options The source, its location and the parse mode to measure.
+     * @return The bytes and cards read per second, and the peak heap of the run.
+     */
+    public ParseBenchmarkResult benchmarkParse(ImportOptions options) throws IOException {
+        BulkDataSource bulkData = openSource(options);
+        ImportStats stats = new ImportStats("parse " + options.getSource());
+        try (InputStream in = bulkData.open(stats)) {
+            readCardNodes(in, options.getMode(), stats, cardNode -> stats.nodeScanned());
+        }
 
-                } catch (Exception e) {
-                    // If one card fails, log it and keep going!
-                    String cardName = getString(cardNode, "name");
-                    System.err.println("Failed to import card: " + (cardName != null ? cardName : "Unknown") + " - " + e.getMessage());
+        ParseBenchmarkResult result = new ParseBenchmarkResult();
+        result.setSource(options.getSource());
+        result.setLocation(bulkData.describe());
+        result.setMode(options.getMode());
+        result.setBytesRead(stats.getBytesRead());
+        result.setCards(stats.getScanned());
+        double seconds = stats.getElapsedSeconds();
+        result.setSeconds(seconds);
+        result.setMegabytesPerSecond(stats.getBytesRead() / (1024.0 * 1024.0) / seconds);
+        result.setCardsPerSecond(stats.getScanned() / seconds);
+        result.setPeakHeapMegabytes(stats.getPeakHeapBytes() / (1024 * 1024));
+        System.out.printf("Parse benchmark [%s %s] %d cards, %.1f MB/s, %.0f cards/sec from %s%n",
+                options.getSource(), options.getMode(), result.getCards(), result.getMegabytesPerSecond(),
+                result.getCardsPerSecond(), result.getLocation());
+        return result;
+    }
+
+    private BulkDataSource openSource(ImportOptions options) {
+        if (options.getSource() == BulkSourceType.HTTP) {
+            return new HttpBulkDataSource(bulkDataUrl);
+        }
+        if (bulkDataPath == null || bulkDataPath.isBlank()) {
+            throw new RuntimeException("scryfall.bulk-data.path is not set");
+        }
+        return options.getSource() == BulkSourceType.MAPPED
+                ? new MappedFileBulkDataSource(Path.of(bulkDataPath))
+                : new FileBulkDataSource(Path.of(bulkDataPath));
+    }
+
+    private DeltaTracker loadDeltaTracker() {
+        DeltaTracker delta = new DeltaTracker();
+        cardRepository.findAllContentHashes().forEach(view -> delta.addStored(view.getId(), view.getContentHash()));
+        return delta;
+    }
+
+    /**
+     * Removes stored cards that are no longer in the bulk file, except those a binder or deck still uses.
+     */
+    private void deleteUnseenCards(DeltaTracker delta, ImportStats stats) {
+        List<UUID> unseen = delta.getUnseenIds();
+        long deleted = 0;
+        for (int from = 0; from < unseen.size(); from += BATCH_SIZE) {
+            List<UUID> chunk = unseen.subList(from, Math.min(from + BATCH_SIZE, unseen.size()));
+            Integer count = new TransactionTemplate(transactionManager).execute(status -> {
+                cardRepository.deleteUnreferencedFaces(chunk);
+                return cardRepository.deleteUnreferencedCards(chunk);
+            });
+            deleted += count != null ? count : 0;
+        }
+        delta.recordDeletes(deleted, unseen.size() - deleted);
+        stats.cardsDeleted(deleted);
+    }
+
+    /**
+     * Parses, builds and writes every card on the calling thread. With a job id, each batch is
+     * committed on its own together with a checkpoint; otherwise everything commits at the end.
+     */
+    private void importSequentially(CardNodeSource source, java.util.Set<String> knownSets, DeltaTracker delta,
+                                    ImportOptions options, ImportStats stats, Long jobId) throws IOException {
+        List<Card> batch = new ArrayList<>();
+        long[] nextOrdinal = {0};
+
+        try (CardBatchWriter writer = openWriter(options.getLoader())) {
+            source.forEach((cardNode, ordinal) -> {
+                nextOrdinal[0] = ordinal + 1;
+                Set newSet = discoverSet(cardNode, knownSets);
+                if (newSet != null) {
+                    writer.writeSet(newSet);
                 }
-            }
-            
+
+                Card card = mapCard(cardNode, delta, stats);
+                if (card != null) {
+                    batch.add(card);
+                }
+
+                // Batch Save
+                if (batch.size() >= BATCH_SIZE) {
+                    saveBatch(batch, writer, stats, jobId, nextOrdinal[0]);
+                    System.out.println("Saved " + stats.getProcessed() + " cards...");
+                }
+            });
+
             // Save any remaining cards in the final batch
             if (!batch.isEmpty()) {
-                cardRepository.saveAll(batch);
-                count += batch.size();
+                saveBatch(batch, writer, stats, jobId, nextOrdinal[0]);
+            }
+            stats.setPhase(ImportPhase.FINALIZING);
+            writer.finish();
+        }
+    }
+
+    private CardBatchWriter openWriter(LoadStrategy loader) {
+        return loader == LoadStrategy.COPY
+                ? new CopyCardBatchWriter(dataSource)
+                : new JpaCardBatchWriter(cardRepository, setRepository, checkpointRepository, entityManager, transactionManager);
+    }
+
+    private void readCardNodes(InputStream in, ImportMode mode, ImportStats stats, Consumer<JsonNode> action) throws IOException {
+        if (mode == ImportMode.STREAMING) {
+            streamCardNodes(in, action);
+        } else {
+            JsonNode rootNode = objectMapper.readTree(in);
+            if (rootNode.isArray()) {
+                stats.setExpectedNodes(rootNode.size());
+                rootNode.forEach(action);
+            }
+        }
+    }
+
+    /**
+     * Walks a JSON array of cards token by token, materializing only one card object at a time.
+     */
+    private void streamCardNodes(InputStream in, Consumer<JsonNode> action) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected the bulk file to be a JSON array of cards");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                JsonNode cardNode = objectMapper.readTree(parser);
+                action.accept(cardNode);
+            }
+        }
+    }
+
+    /**
+     * Returns the set of a paper card the first time it is seen, or null if it is already known.
+     */
+    private Set discoverSet(JsonNode cardNode, java.util.Set<String> knownSets) {
+        // Filter: Only paper games
+        if (cardNode.has("games") && !isPaperGame(cardNode.get("games"))) return null;
+
+        String setCode = getString(cardNode, "set");
+        if (setCode == null || !knownSets.add(setCode)) return null;
+
+        try {
+            return buildSet(setCode, getString(cardNode, "set_name"), getString(cardNode, "released_at"));
+        } catch (Exception e) {
+            System.err.println("Failed to import set: " + setCode + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Builds the card for a paper card node, or returns null if the node is skipped, broken,
+     * or (for delta imports) unchanged since the last import.
+     */
+    private Card mapCard(JsonNode cardNode, DeltaTracker delta, ImportStats stats) {
+        try {
+            // Filter: Only paper games
+            if (cardNode.has("games") && !isPaperGame(cardNode.get("games"))) return null;
+
+            Card card = buildCard(cardNode);
+            if (card != null && delta != null && !delta.needsWrite(card)) return null;
+            return card;
+
+        } catch (Exception e) {
+            // If one card fails, log it and keep going!
+            stats.cardFailed();
+            if (delta != null) {
+                // Still in the bulk file, so it must not be deleted
+                markSeen(cardNode, delta);
             }
+            String cardName = getString(cardNode, "name");
+            System.err.println("Failed to import card: " + (cardName != null ? cardName : "Unknown") + " - " + e.getMessage());
+            return null;
         }
-        System.out.println("Import Complete! Total cards processed: " + count);
     }
 
-    
+    private void markSeen(JsonNode cardNode, DeltaTracker delta) {
+        if (!cardNode.has("id")) return;
+        try {
+            delta.markSeen(UUID.fromString(cardNode.get("id").asText()));
+        } catch (IllegalArgumentException ignored) {
+            // Not a valid id, so it cannot match a stored card either
+        }
+    }
+
+    private void saveBatch(List<Card> batch, CardBatchWriter writer, ImportStats stats, Long jobId, long nextOrdinal) {
+        writer.writeCards(batch);
+        if (jobId != null) {
+            writer.writeCheckpoint(jobId, nextOrdinal);
+            writer.finish();
+        }
+        stats.cardsProcessed(batch.size());
+        batch.clear(); // Free up memory
+    }
 
-    private void createSet(String code, String name, String dateStr) {
+    private Set buildSet(String code, String name, String dateStr) {
         LocalDate date = (dateStr != null) 
             ? LocalDate.parse(dateStr, DateTimeFormatter.ISO_DATE) 
             : LocalDate.now(); 
-        Set set = new Set(code, name, date);
-        setRepository.saveAndFlush(set);
+        return new Set(code, name, date);
     }
 
     private Card buildCard(JsonNode node) {
@@ -136,6 +406,9 @@ public class ScryfallService {
         }
 
         card.setFaces(faces);
+        card.setColorMask(ColorMask.union(faces.stream().map(CardFace::getColorMask).toList()));
+        card.setColorIdentity(node.has("color_identity") ? ColorMask.of(getStrings(node, "color_identity")) : card.getColorMask());
+        card.setContentHash(CardContentHash.of(card));
         return card;
     }
 
@@ -152,12 +425,9 @@ public class ScryfallService {
         
         // Array Handling for Colors
         if (node.has("colors") && node.get("colors").isArray()) {
-            List<String> colorList = new ArrayList<>();
-            for (JsonNode color : node.get("colors")) {
-                colorList.add(color.asText());
-            }
-            face.setColors(colorList);
+            face.setColors(getStrings(node, "colors"));
         }
+        face.setColorMask(ColorMask.of(face.getColors()));
 
         // Image Logic: Check face first, then parent
         if (node.has("image_uris") && node.get("image_uris").has("normal")) {
@@ -174,6 +444,14 @@ public class ScryfallService {
         return node.has(fieldName) ? node.get(fieldName).asText() : null;
     }
 
+    private List<String> getStrings(JsonNode node, String fieldName) {
+        List<String> values = new ArrayList<>();
+        for (JsonNode value : node.get(fieldName)) {
+            values.add(value.asText());
+        }
+        return values;
+    }
+
     private Double getDouble(JsonNode node, String fieldName) {
         return node.has(fieldName) ? node.get(fieldName).asDouble() : null;
     }
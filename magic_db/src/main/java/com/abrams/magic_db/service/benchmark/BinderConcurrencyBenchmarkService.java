@@ -0,0 +1,127 @@
+package com.abrams.magic_db.service.benchmark;
+
+import com.abrams.magic_db.repository.BinderRepository;
+import com.abrams.magic_db.service.BinderService;
+import com.abrams.magic_db.service.InsufficientBinderQuantityException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stress-tests the binder write path: many threads add and remove copies of the same card for the same
+ * user at once, each call in its own transaction exactly as a request would run it, and the final
+ * quantity is checked against the calls that succeeded. The binder entry is put back to its starting
+ * quantity afterwards.
+ */
+@Service
+public class BinderConcurrencyBenchmarkService {
+
+    private final BinderService binderService;
+    private final BinderRepository binderRepository;
+
+    public BinderConcurrencyBenchmarkService(BinderService binderService, BinderRepository binderRepository) {
+        this.binderService = binderService;
+        this.binderRepository = binderRepository;
+    }
+
+    /**
+     * Runs the operations spread over the threads; every third one removes a copy, the rest add one.
+     * @param userId The user whose binder is written to.
+     * @param cardId The card printing every operation targets.
+     * @param threads The number of concurrent callers.
+     * @param operations The total number of adds and removes.
+     * @return The counts, the expected and actual final quantity, and the throughput.
+     * @throws RuntimeException if the user or card is not found.
+     */
+    public BinderConcurrencyResult benchmarkConcurrentUpdates(Long userId, UUID cardId, int threads, int operations)
+            throws InterruptedException {
+        int initial = binderService.getCardQuantity(userId, cardId);
+        // Fail fast on an unknown user or card rather than once per operation
+        binderService.addCardToBinder(userId, cardId, 1);
+        binderService.removeCardFromBinder(userId, cardId, 1);
+
+        AtomicInteger adds = new AtomicInteger();
+        AtomicInteger removes = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        AtomicInteger next = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long elapsed;
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int op = next.getAndIncrement(); op < operations; op = next.getAndIncrement()) {
+                        try {
+                            if (op % 3 == 2) {
+                                binderService.removeCardFromBinder(userId, cardId, 1);
+                                removes.incrementAndGet();
+                            } else {
+                                binderService.addCardToBinder(userId, cardId, 1);
+                                adds.incrementAndGet();
+                            }
+                        } catch (InsufficientBinderQuantityException e) {
+                            rejected.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> worker : workers) {
+                try {
+                    worker.get();
+                } catch (ExecutionException e) {
+                    failures.incrementAndGet();
+                }
+            }
+            elapsed = System.nanoTime() - begin;
+        } finally {
+            executor.shutdownNow();
+        }
+
+        BinderConcurrencyResult result = new BinderConcurrencyResult();
+        result.setThreads(threads);
+        result.setOperations(operations);
+        result.setAdds(adds.get());
+        result.setRemoves(removes.get());
+        result.setRejectedRemoves(rejected.get());
+        result.setFailures(failures.get());
+        result.setInitialQuantity(initial);
+        result.setExpectedQuantity(initial + adds.get() - removes.get());
+        result.setFinalQuantity(binderService.getCardQuantity(userId, cardId));
+        result.setLostUpdates(result.getExpectedQuantity() - result.getFinalQuantity());
+        result.setRows(binderRepository.countByUserIdAndCardId(userId, cardId));
+        result.setSeconds(elapsed / 1_000_000_000.0);
+        result.setOperationsPerSecond(result.getSeconds() > 0 ? operations / result.getSeconds() : 0);
+        System.out.printf("Binder concurrency benchmark: %d ops on %d threads in %.3fs (%.0f ops/sec), "
+                        + "expected %d, final %d, rows %d%n",
+                operations, threads, result.getSeconds(), result.getOperationsPerSecond(),
+                result.getExpectedQuantity(), result.getFinalQuantity(), result.getRows());
+
+        restore(userId, cardId, initial, result.getFinalQuantity());
+        return result;
+    }
+
+    private void restore(Long userId, UUID cardId, int initial, int current) {
+        if (current > initial) {
+            binderService.removeCardFromBinder(userId, cardId, current - initial);
+        } else if (current < initial) {
+            binderService.addCardToBinder(userId, cardId, initial - current);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.abrams.magic_db.service.benchmark;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The outcome of hammering one binder entry with concurrent adds and removes: how many went through,
+ * whether the final quantity accounts for every one of them, and the request rate reached.
+ */
+@Data
+@NoArgsConstructor
+public class BinderConcurrencyResult {
+
+    private int threads;
+    private int operations;
+    private int adds;
+    private int removes;
+
+    /**
+     * Removes turned down because the binder held too few copies at that moment.
+     */
+    private int rejectedRemoves;
+
+    /**
+     * Operations that failed for any other reason.
+     */
+    private int failures;
+
+    private int initialQuantity;
+
+    /**
+     * The initial quantity plus every successful add, minus every successful remove.
+     */
+    private int expectedQuantity;
+    private int finalQuantity;
+
+    /**
+     * {@code expectedQuantity - finalQuantity}; anything but 0 means updates were lost or applied twice.
+     */
+    private int lostUpdates;
+
+    /**
+     * Binder rows for the user and card afterwards; more than 1 means duplicate rows were inserted.
+     */
+    private long rows;
+    private double seconds;
+    private double operationsPerSecond;
+}
@@ -0,0 +1,50 @@
+package com.abrams.magic_db.service.benchmark;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Heap footprint and per-request cost of reading cards through Hibernate versus the in-memory catalog.
+ */
+@Data
+@NoArgsConstructor
+public class CatalogBenchmarkResult {
+
+    private long cards;
+
+    /**
+     * Heap retained by every card and face loaded as entities in one persistence context (measured after GC).
+     */
+    private long entityHeapBytes;
+
+    /**
+     * Heap retained by a freshly built catalog (measured after GC).
+     */
+    private long catalogHeapBytes;
+
+    /**
+     * Average bytes allocated by loading one card by id through the repository.
+     */
+    private long entityBytesPerLookup;
+
+    /**
+     * Average bytes allocated by reading one card by id from the catalog.
+     */
+    private long catalogBytesPerLookup;
+
+    private double entityMicrosPerLookup;
+    private double catalogMicrosPerLookup;
+
+    /**
+     * Average bytes allocated by loading a page of cards by id through the repository.
+     */
+    private long entityBytesPerPage;
+
+    /**
+     * Average bytes allocated by reading a page of cards by id from the catalog.
+     */
+    private long catalogBytesPerPage;
+
+    private double entityMicrosPerPage;
+    private double catalogMicrosPerPage;
+}
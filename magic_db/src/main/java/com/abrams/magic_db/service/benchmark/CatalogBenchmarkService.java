@@ -0,0 +1,136 @@
+package com.abrams.magic_db.service.benchmark;
+
+import com.abrams.magic_db.model.Card;
+import com.abrams.magic_db.repository.CardRepository;
+import com.abrams.magic_db.repository.CardRepository.CardNameView;
+import com.abrams.magic_db.service.catalog.CardCatalog;
+import com.abrams.magic_db.service.catalog.CardCatalogService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Compares reading cards as Hibernate entities against reading them from the in-memory
+ * {@link CardCatalog}: how much heap the whole catalog takes either way, and how much each
+ * lookup allocates and costs. Allocation is counted per thread by the JVM, so it is exact
+ * for the request thread; heap footprints are measured around a full GC and are approximate.
+ */
+@Service
+public class CatalogBenchmarkService {
+
+    private static final int PAGE_SIZE = 20;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final CardRepository cardRepository;
+    private final CardCatalogService cardCatalogService;
+    private final PlatformTransactionManager transactionManager;
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    public CatalogBenchmarkService(CardRepository cardRepository, CardCatalogService cardCatalogService,
+                                   PlatformTransactionManager transactionManager) {
+        this.cardRepository = cardRepository;
+        this.cardCatalogService = cardCatalogService;
+        this.transactionManager = transactionManager;
+    }
+
+    /**
+     * @param lookups How many random cards to look up (and pages of {@value #PAGE_SIZE} to load) per path.
+     * @return The footprint and per-lookup figures for both paths.
+     */
+    public CatalogBenchmarkResult benchmarkCatalog(int lookups) {
+        List<UUID> ids = new ArrayList<>(cardRepository.findAllNames().stream().map(CardNameView::getId).toList());
+        if (ids.isEmpty()) throw new RuntimeException("No cards to benchmark against; run an import first");
+        Collections.shuffle(ids, new Random(42));
+        List<UUID> sample = ids.subList(0, Math.min(lookups, ids.size()));
+        List<List<UUID>> pages = new ArrayList<>();
+        for (int i = 0; i + PAGE_SIZE <= ids.size() && pages.size() < lookups; i += PAGE_SIZE) {
+            pages.add(ids.subList(i, i + PAGE_SIZE));
+        }
+
+        CatalogBenchmarkResult result = new CatalogBenchmarkResult();
+        result.setCards(ids.size());
+
+        long before = usedHeapAfterGc();
+        CardCatalog catalog = cardCatalogService.load();
+        result.setCatalogHeapBytes(usedHeapAfterGc() - before);
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            long entityBefore = usedHeapAfterGc();
+            // Fetch-join the faces; the plain EAGER mapping would run one face query per card
+            List<Card> all = entityManager.createQuery("SELECT DISTINCT c FROM Card c LEFT JOIN FETCH c.faces", Card.class)
+                    .getResultList();
+            result.setEntityHeapBytes(usedHeapAfterGc() - entityBefore);
+            Reference.reachabilityFence(all);
+            entityManager.clear();
+
+            // Each lookup gets a fresh persistence context, as each request would
+            long[] entityLookup = measure(sample, id -> {
+                cardRepository.findById(id);
+                entityManager.clear();
+            });
+            result.setEntityBytesPerLookup(entityLookup[0]);
+            result.setEntityMicrosPerLookup(entityLookup[1] / 1000.0);
+
+            long[] entityPage = measure(pages, page -> {
+                cardRepository.findAllById(page);
+                entityManager.clear();
+            });
+            result.setEntityBytesPerPage(entityPage[0]);
+            result.setEntityMicrosPerPage(entityPage[1] / 1000.0);
+        });
+
+        long[] catalogLookup = measure(sample, catalog::get);
+        result.setCatalogBytesPerLookup(catalogLookup[0]);
+        result.setCatalogMicrosPerLookup(catalogLookup[1] / 1000.0);
+
+        long[] catalogPage = measure(pages, catalog::getAll);
+        result.setCatalogBytesPerPage(catalogPage[0]);
+        result.setCatalogMicrosPerPage(catalogPage[1] / 1000.0);
+
+        System.out.printf("Catalog benchmark [%d cards]: heap entities %d MB vs catalog %d MB; "
+                        + "per lookup %d B / %.1f us vs %d B / %.1f us; per page %d B / %.1f us vs %d B / %.1f us%n",
+                result.getCards(), result.getEntityHeapBytes() / (1024 * 1024), result.getCatalogHeapBytes() / (1024 * 1024),
+                result.getEntityBytesPerLookup(), result.getEntityMicrosPerLookup(),
+                result.getCatalogBytesPerLookup(), result.getCatalogMicrosPerLookup(),
+                result.getEntityBytesPerPage(), result.getEntityMicrosPerPage(),
+                result.getCatalogBytesPerPage(), result.getCatalogMicrosPerPage());
+        return result;
+    }
+
+    // Runs the action over every input once to warm up, then again timed; returns {bytes, nanos} per input
+    private <T> long[] measure(List<T> inputs, Consumer<T> action) {
+        if (inputs.isEmpty()) return new long[]{0, 0};
+        inputs.forEach(action);
+        long thread = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        inputs.forEach(action);
+        long nanos = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+        return new long[]{allocated / inputs.size(), nanos / inputs.size()};
+    }
+
+    private long usedHeapAfterGc() {
+        System.gc();
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
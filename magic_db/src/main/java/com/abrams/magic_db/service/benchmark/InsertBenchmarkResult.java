@@ -0,0 +1,25 @@
+package com.abrams.magic_db.service.benchmark;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * How fast a batch of rows could be inserted through JPA.
+ */
+@Data
+@NoArgsConstructor
+public class InsertBenchmarkResult {
+
+    /**
+     * The table the rows went into.
+     */
+    private String table;
+    private long rows;
+    private double seconds;
+    private double rowsPerSecond;
+
+    /**
+     * The configured {@code hibernate.jdbc.batch_size}; rows per round trip when batching applies.
+     */
+    private int jdbcBatchSize;
+}
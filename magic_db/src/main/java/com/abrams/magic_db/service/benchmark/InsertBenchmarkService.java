@@ -0,0 +1,122 @@
+package com.abrams.magic_db.service.benchmark;
+
+import com.abrams.magic_db.model.Binder;
+import com.abrams.magic_db.model.Card;
+import com.abrams.magic_db.model.CardFace;
+import com.abrams.magic_db.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Measures JPA insert throughput for the tables that used to be bound to one round trip per row.
+ * Every run happens in a transaction that is rolled back, so nothing is left behind.
+ */
+@Service
+public class InsertBenchmarkService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final PlatformTransactionManager transactionManager;
+    private final int jdbcBatchSize;
+
+    public InsertBenchmarkService(PlatformTransactionManager transactionManager,
+                                  @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:0}") int jdbcBatchSize) {
+        this.transactionManager = transactionManager;
+        this.jdbcBatchSize = jdbcBatchSize;
+    }
+
+    /**
+     * Inserts throwaway cards with two faces each and times the face inserts.
+     * @param cards The number of cards to create; twice as many faces are inserted.
+     * @return The face insert throughput.
+     */
+    public InsertBenchmarkResult benchmarkFaceInserts(int cards) {
+        return inRolledBackTransaction("card_faces", () -> {
+            List<CardFace> faces = new ArrayList<>();
+            for (int i = 0; i < cards; i++) {
+                Card card = new Card();
+                card.setId(UUID.randomUUID());
+                card.setOracleId(UUID.randomUUID());
+                card.setName("Benchmark Card " + i);
+                card.setSetCode("bench");
+                entityManager.persist(card);
+                for (int index = 0; index < 2; index++) {
+                    CardFace face = new CardFace();
+                    face.setCard(card);
+                    face.setFaceIndex(index);
+                    face.setName("Benchmark Face " + i + "/" + index);
+                    faces.add(face);
+                }
+            }
+            // Cards go in first so only the face inserts are timed
+            entityManager.flush();
+
+            long start = System.nanoTime();
+            faces.forEach(entityManager::persist);
+            entityManager.flush();
+            return new long[]{faces.size(), System.nanoTime() - start};
+        });
+    }
+
+    /**
+     * Adds one copy of up to {@code count} cards the user does not own yet to their binder. The inserts
+     * are batched, but binders_seq hands out one id per row (see V12), so each row still costs a nextval.
+     * @param userId The user whose binder receives the rows.
+     * @param count The maximum number of binder rows to insert.
+     * @return The binder insert throughput.
+     * @throws RuntimeException if the user is not found.
+     */
+    public InsertBenchmarkResult benchmarkBinderInserts(Long userId, int count) {
+        return inRolledBackTransaction("binders", () -> {
+            User user = entityManager.find(User.class, userId);
+            if (user == null) throw new RuntimeException("User not found");
+            List<UUID> cardIds = entityManager.createQuery(
+                            "SELECT c.id FROM Card c WHERE NOT EXISTS "
+                                    + "(SELECT 1 FROM Binder b WHERE b.card = c AND b.user.id = :userId)", UUID.class)
+                    .setParameter("userId", userId)
+                    .setMaxResults(count)
+                    .getResultList();
+
+            long start = System.nanoTime();
+            for (UUID cardId : cardIds) {
+                Binder binder = new Binder();
+                binder.setUser(user);
+                binder.setCard(entityManager.getReference(Card.class, cardId));
+                binder.setQuantity(1);
+                entityManager.persist(binder);
+            }
+            entityManager.flush();
+            return new long[]{cardIds.size(), System.nanoTime() - start};
+        });
+    }
+
+    /**
+     * Runs the work, which returns {rows, elapsed nanos}, and rolls it back afterwards.
+     */
+    private InsertBenchmarkResult inRolledBackTransaction(String table, Supplier<long[]> work) {
+        long[] measured = new TransactionTemplate(transactionManager).execute(status -> {
+            status.setRollbackOnly();
+            return work.get();
+        });
+
+        InsertBenchmarkResult result = new InsertBenchmarkResult();
+        result.setTable(table);
+        result.setRows(measured[0]);
+        result.setSeconds(measured[1] / 1_000_000_000.0);
+        result.setRowsPerSecond(result.getSeconds() > 0 ? measured[0] / result.getSeconds() : 0);
+        result.setJdbcBatchSize(jdbcBatchSize);
+        System.out.printf("Insert benchmark [%s] %d rows in %.3fs (%.0f rows/sec, batch size %d)%n",
+                table, result.getRows(), result.getSeconds(), result.getRowsPerSecond(), jdbcBatchSize);
+        return result;
+    }
+}
@@ -0,0 +1,37 @@
+package com.abrams.magic_db.service.benchmark;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Queries, time and response size of one listing page as entities versus as summaries.
+ */
+@Data
+@NoArgsConstructor
+public class ListQueryBenchmarkResult {
+
+    /**
+     * The listing measured, e.g. {@code all} or {@code name:bolt}.
+     */
+    private String listing;
+    private int pageSize;
+
+    /**
+     * SQL statements for one page of {@code Card} entities (page query, count query and any face queries).
+     */
+    private long entityQueries;
+
+    /**
+     * SQL statements for one page of {@code CardSummary} projections.
+     */
+    private long summaryQueries;
+
+    private double entityMillis;
+    private double summaryMillis;
+
+    /**
+     * The page serialized to JSON, in bytes.
+     */
+    private long entityResponseBytes;
+    private long summaryResponseBytes;
+}
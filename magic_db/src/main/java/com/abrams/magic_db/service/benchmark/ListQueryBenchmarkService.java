@@ -0,0 +1,116 @@
+package com.abrams.magic_db.service.benchmark;
+
+import com.abrams.magic_db.config.QueryCountInspector;
+import com.abrams.magic_db.model.Card;
+import com.abrams.magic_db.model.CardSummary;
+import com.abrams.magic_db.repository.CardRepository;
+import com.abrams.magic_db.service.CardService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Compares listing pages of {@link Card} entities (EAGER faces, full rules text) against listing
+ * {@link CardSummary} projections: how many SQL statements one page costs, how long it takes and how
+ * large the JSON response is. The entity side calls the repository directly, as the listing did
+ * before summaries and the in-memory catalog existed.
+ */
+@Service
+public class ListQueryBenchmarkService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final CardRepository cardRepository;
+    private final CardService cardService;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    public ListQueryBenchmarkService(CardRepository cardRepository, CardService cardService,
+                                     PlatformTransactionManager transactionManager, ObjectMapper objectMapper) {
+        this.cardRepository = cardRepository;
+        this.cardService = cardService;
+        this.transactionManager = transactionManager;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param names Name searches to measure, in addition to the unfiltered listing.
+     * @param size The page size.
+     * @param iterations How many timed runs to average, after one warm-up run.
+     * @return One result per listing.
+     */
+    public List<ListQueryBenchmarkResult> benchmarkListing(List<String> names, int size, int iterations) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status -> {
+            Pageable firstPage = PageRequest.of(0, size);
+            List<ListQueryBenchmarkResult> results = new ArrayList<>();
+            results.add(measure("all", size, iterations,
+                    () -> cardRepository.findAll(firstPage),
+                    () -> cardService.listSummaries(null, null, null, firstPage)));
+            for (String name : names) {
+                results.add(measure("name:" + name, size, iterations,
+                        () -> cardRepository.findByNameContainingIgnoreCase(name, firstPage),
+                        () -> cardService.listSummaries(null, null, name, firstPage)));
+            }
+            return results;
+        });
+    }
+
+    private ListQueryBenchmarkResult measure(String listing, int size, int iterations,
+                                             Supplier<Page<Card>> entities, Supplier<Page<CardSummary>> summaries) {
+        ListQueryBenchmarkResult result = new ListQueryBenchmarkResult();
+        result.setListing(listing);
+        result.setPageSize(size);
+
+        QueryCountInspector.reset();
+        Page<Card> entityPage = entities.get();
+        result.setEntityQueries(QueryCountInspector.count());
+        result.setEntityResponseBytes(jsonBytes(entityPage.getContent()));
+        entityManager.clear();
+        result.setEntityMillis(averageMillis(iterations, entities));
+
+        QueryCountInspector.reset();
+        Page<CardSummary> summaryPage = summaries.get();
+        result.setSummaryQueries(QueryCountInspector.count());
+        result.setSummaryResponseBytes(jsonBytes(summaryPage.getContent()));
+        entityManager.clear();
+        result.setSummaryMillis(averageMillis(iterations, summaries));
+
+        System.out.printf("Listing benchmark [%s, %d per page]: entities %d queries / %.2f ms / %d B, summaries %d queries / %.2f ms / %d B%n",
+                listing, size, result.getEntityQueries(), result.getEntityMillis(), result.getEntityResponseBytes(),
+                result.getSummaryQueries(), result.getSummaryMillis(), result.getSummaryResponseBytes());
+        return result;
+    }
+
+    private long jsonBytes(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value).length;
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize benchmark page", e);
+        }
+    }
+
+    private double averageMillis(int iterations, Supplier<?> listing) {
+        listing.get();
+        entityManager.clear();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            listing.get();
+            entityManager.clear();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / iterations;
+    }
+}
@@ -0,0 +1,35 @@
+package com.abrams.magic_db.service.benchmark;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * How long one name search took through the repository query and through the in-memory name index.
+ */
+@Data
+@NoArgsConstructor
+public class SearchBenchmarkResult {
+
+    private String query;
+
+    /**
+     * The number of cards searched over.
+     */
+    private long rows;
+    private long matches;
+
+    /**
+     * Average time of {@code findByNameContainingIgnoreCase} (page + count query).
+     */
+    private double repositoryMillis;
+
+    /**
+     * Average time of the index lookup for the same page.
+     */
+    private double indexMillis;
+
+    /**
+     * Average time of the index lookup plus loading the page of cards by id.
+     */
+    private double indexWithFetchMillis;
+}
@@ -0,0 +1,180 @@
+package com.abrams.magic_db.service.benchmark;
+
+import com.abrams.magic_db.model.Card;
+import com.abrams.magic_db.repository.CardRepository;
+import com.abrams.magic_db.repository.CardRepository.CardNameView;
+import com.abrams.magic_db.service.search.CardNameIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Compares the card name search through the repository query against the in-memory name index,
+ * and the ranked full-text search against a plain substring match over rules text.
+ * The tables are padded with renamed copies of the existing cards to reach the requested
+ * row count, inside a transaction that is rolled back afterwards.
+ */
+@Service
+public class SearchBenchmarkService {
+
+    private static final int PAGE_SIZE = 20;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final CardRepository cardRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    public SearchBenchmarkService(CardRepository cardRepository, PlatformTransactionManager transactionManager) {
+        this.cardRepository = cardRepository;
+        this.transactionManager = transactionManager;
+    }
+
+    /**
+     * Runs each query against both search paths and averages the timings.
+     * @param rows The number of cards to search over, at least the number already stored.
+     * @param queries The search terms to time.
+     * @param iterations How many timed runs to average, after one warm-up run.
+     * @return One result per query.
+     */
+    public List<SearchBenchmarkResult> benchmarkNameSearch(int rows, List<String> queries, int iterations) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            status.setRollbackOnly();
+            long stored = cardRepository.count();
+            if (stored == 0) throw new RuntimeException("No cards to benchmark against; run an import first");
+
+            long copies = Math.max(0, (rows + stored - 1) / stored - 1);
+            if (copies > 0) {
+                entityManager.createNativeQuery("""
+                                INSERT INTO cards (id, oracle_id, name, set_code, collector_number, rarity, layout)
+                                SELECT gen_random_uuid(), oracle_id, name || ' ' || g, set_code, collector_number, rarity, layout
+                                FROM cards CROSS JOIN generate_series(1, :copies) g
+                                """)
+                        .setParameter("copies", copies)
+                        .executeUpdate();
+                entityManager.createNativeQuery("ANALYZE cards").executeUpdate();
+            }
+
+            List<CardNameView> cards = cardRepository.findAllNames();
+            List<UUID> ids = new ArrayList<>(cards.size());
+            List<String> names = new ArrayList<>(cards.size());
+            cards.forEach(card -> {
+                ids.add(card.getId());
+                names.add(card.getName());
+            });
+            CardNameIndex index = CardNameIndex.build(ids, names);
+            Pageable firstPage = PageRequest.of(0, PAGE_SIZE);
+
+            List<SearchBenchmarkResult> results = new ArrayList<>();
+            for (String query : queries) {
+                SearchBenchmarkResult result = new SearchBenchmarkResult();
+                result.setQuery(query);
+                result.setRows(cards.size());
+                result.setMatches(index.search(query, 0, PAGE_SIZE).total());
+                result.setRepositoryMillis(averageMillis(iterations,
+                        () -> cardRepository.findByNameContainingIgnoreCase(query, firstPage)));
+                result.setIndexMillis(averageMillis(iterations, () -> index.search(query, 0, PAGE_SIZE)));
+                result.setIndexWithFetchMillis(averageMillis(iterations, () -> {
+                    List<Card> page = cardRepository.findAllById(index.search(query, 0, PAGE_SIZE).ids());
+                    // Keep the persistence context from answering later runs
+                    entityManager.clear();
+                    return page;
+                }));
+                System.out.printf("Name search benchmark [%d rows, \"%s\"] %d matches: repository %.2f ms, index %.4f ms, index+fetch %.2f ms%n",
+                        result.getRows(), query, result.getMatches(), result.getRepositoryMillis(),
+                        result.getIndexMillis(), result.getIndexWithFetchMillis());
+                results.add(result);
+            }
+            return results;
+        });
+    }
+
+    /**
+     * Runs each query through the ranked full-text search and through a substring match on the
+     * rules text, and averages the timings. Padding copies faces too, so the GIN index grows with the table.
+     * @param rows The number of cards to search over, at least the number already stored.
+     * @param queries The search text to time, in web search syntax.
+     * @param iterations How many timed runs to average, after one warm-up run.
+     * @return One result per query.
+     */
+    public List<TextSearchBenchmarkResult> benchmarkTextSearch(int rows, List<String> queries, int iterations) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            status.setRollbackOnly();
+            long stored = cardRepository.count();
+            if (stored == 0) throw new RuntimeException("No cards to benchmark against; run an import first");
+
+            long copies = Math.max(0, (rows + stored - 1) / stored - 1);
+            if (copies > 0) {
+                // Both inserts see the same copy ids; the foreign key is checked once the whole statement is done
+                entityManager.createNativeQuery("""
+                                WITH copies AS (
+                                    SELECT c.id AS source_id, gen_random_uuid() AS copy_id, g
+                                    FROM cards c CROSS JOIN generate_series(1, :copies) g
+                                ), new_cards AS (
+                                    INSERT INTO cards (id, oracle_id, name, set_code, collector_number, rarity, layout)
+                                    SELECT k.copy_id, c.oracle_id, c.name || ' ' || k.g, c.set_code, c.collector_number, c.rarity, c.layout
+                                    FROM copies k JOIN cards c ON c.id = k.source_id
+                                )
+                                INSERT INTO card_faces (card_id, face_index, name, mana_cost, cmc, type_line, oracle_text, colors, power, toughness, image_url)
+                                SELECT k.copy_id, f.face_index, f.name, f.mana_cost, f.cmc, f.type_line, f.oracle_text, f.colors, f.power, f.toughness, f.image_url
+                                FROM copies k JOIN card_faces f ON f.card_id = k.source_id
+                                """)
+                        .setParameter("copies", copies)
+                        .executeUpdate();
+                entityManager.createNativeQuery("ANALYZE cards").executeUpdate();
+                entityManager.createNativeQuery("ANALYZE card_faces").executeUpdate();
+            }
+            long cards = cardRepository.count();
+            Pageable firstPage = PageRequest.of(0, PAGE_SIZE);
+
+            List<TextSearchBenchmarkResult> results = new ArrayList<>();
+            for (String query : queries) {
+                String pattern = "%" + query.toLowerCase() + "%";
+                TextSearchBenchmarkResult result = new TextSearchBenchmarkResult();
+                result.setQuery(query);
+                result.setRows(cards);
+                result.setMatches(cardRepository.searchFullText(query, firstPage).getTotalElements());
+                result.setFullTextMillis(averageMillis(iterations, () -> cardRepository.searchFullText(query, firstPage)));
+                result.setSubstringMillis(averageMillis(iterations, () -> {
+                    List<?> page = entityManager.createNativeQuery("""
+                                    SELECT DISTINCT f.card_id FROM card_faces f
+                                    WHERE lower(f.oracle_text) LIKE :pattern
+                                    LIMIT :limit
+                                    """)
+                            .setParameter("pattern", pattern)
+                            .setParameter("limit", PAGE_SIZE)
+                            .getResultList();
+                    Object count = entityManager.createNativeQuery(
+                                    "SELECT COUNT(DISTINCT f.card_id) FROM card_faces f WHERE lower(f.oracle_text) LIKE :pattern")
+                            .setParameter("pattern", pattern)
+                            .getSingleResult();
+                    return List.of(page, count);
+                }));
+                System.out.printf("Text search benchmark [%d rows, \"%s\"] %d matches: full-text %.2f ms, substring %.2f ms%n",
+                        result.getRows(), query, result.getMatches(), result.getFullTextMillis(), result.getSubstringMillis());
+                results.add(result);
+            }
+            return results;
+        });
+    }
+
+    private double averageMillis(int iterations, Supplier<?> search) {
+        search.get();
+        entityManager.clear();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            search.get();
+            entityManager.clear();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / iterations;
+    }
+}
@@ -0,0 +1,34 @@
+package com.abrams.magic_db.service.benchmark;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * How long one rules-text search took through the ranked full-text search and through a substring match.
+ */
+@Data
+@NoArgsConstructor
+public class TextSearchBenchmarkResult {
+
+    private String query;
+
+    /**
+     * The number of cards searched over.
+     */
+    private long rows;
+
+    /**
+     * The number of cards the full-text search matched.
+     */
+    private long matches;
+
+    /**
+     * Average time of {@code searchFullText} for the first page (ranked page + count query).
+     */
+    private double fullTextMillis;
+
+    /**
+     * Average time of {@code lower(oracle_text) LIKE '%query%'} for the first page plus its count.
+     */
+    private double substringMillis;
+}
@@ -0,0 +1,112 @@
+package com.abrams.magic_db.service.catalog;
+
+import com.abrams.magic_db.model.Card;
+import com.abrams.magic_db.model.CardFace;
+import com.abrams.magic_db.repository.CardRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * A bounded read-through cache of {@link Card} entities by id, so adding the same popular cards to
+ * binders and decks does not reload them every time. Cached cards are fully loaded (faces are EAGER)
+ * and shared between requests, so callers must treat them as read-only. A card loaded inside the
+ * caller's transaction is detached from it before it is cached, so no request's persistence context
+ * ever manages an instance other threads are reading.
+ * Entries are evicted by approximate memory or by count, and the whole cache is dropped after
+ * every import, which is the only thing that changes cards.
+ */
+@Service
+public class CardCache {
+
+    private final CardRepository cardRepository;
+    private final Cache<UUID, Card> cache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public CardCache(CardRepository cardRepository,
+                     @Value("${cards.cache.max-megabytes}") long maxMegabytes,
+                     @Value("${cards.cache.max-entries}") long maxEntries) {
+        this.cardRepository = cardRepository;
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+        if (maxMegabytes > 0) {
+            builder.maximumWeight(maxMegabytes * 1024 * 1024)
+                    .weigher((UUID id, Card card) -> weigh(card));
+        } else {
+            builder.maximumSize(maxEntries);
+        }
+        this.cache = builder.build();
+    }
+
+    /**
+     * @return The card with the given id, loading and caching it on a miss, or empty if it does not exist.
+     */
+    public Optional<Card> find(UUID id) {
+        return Optional.ofNullable(cache.get(id, this::load));
+    }
+
+    /**
+     * @throws RuntimeException if the card does not exist.
+     */
+    public Card get(UUID id) {
+        return find(id).orElseThrow(() -> new RuntimeException("Card not found"));
+    }
+
+    /**
+     * Drops every cached card, e.g. after an import has changed the catalog.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+        System.out.println("Card cache cleared");
+    }
+
+    /**
+     * @return Hit, miss and eviction counts since startup, and the current size.
+     */
+    public CardCacheStats getStats() {
+        CacheStats stats = cache.stats();
+        CardCacheStats result = new CardCacheStats();
+        result.setHits(stats.hitCount());
+        result.setMisses(stats.missCount());
+        result.setHitRate(stats.hitRate());
+        result.setEvictions(stats.evictionCount());
+        result.setEvictedBytes(stats.evictionWeight());
+        result.setAverageLoadMillis(stats.averageLoadPenalty() / 1_000_000.0);
+        result.setSize(cache.estimatedSize());
+        cache.policy().eviction().ifPresent(eviction -> eviction.weightedSize().ifPresent(result::setWeightBytes));
+        return result;
+    }
+
+    private Card load(UUID id) {
+        Card card = cardRepository.findById(id).orElse(null);
+        // Detaching cascades to the faces
+        if (card != null && entityManager.contains(card)) entityManager.detach(card);
+        return card;
+    }
+
+    // A rough byte count: object headers and fields plus two bytes per character of text
+    private static int weigh(Card card) {
+        long bytes = 200 + chars(card.getName()) + chars(card.getSetCode()) + chars(card.getCollectorNumber())
+                + chars(card.getRarity()) + chars(card.getLayout());
+        if (card.getFaces() != null) {
+            for (CardFace face : card.getFaces()) {
+                bytes += 250 + chars(face.getName()) + chars(face.getManaCost()) + chars(face.getTypeLine())
+                        + chars(face.getOracleText()) + chars(face.getPower()) + chars(face.getToughness())
+                        + chars(face.getImageUrl());
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    private static long chars(String value) {
+        return value == null ? 0 : 40 + 2L * value.length();
+    }
+}
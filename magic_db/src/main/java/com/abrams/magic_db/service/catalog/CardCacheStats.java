@@ -0,0 +1,34 @@
+package com.abrams.magic_db.service.catalog;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A snapshot of the {@link CardCache} counters.
+ */
+@Data
+@NoArgsConstructor
+public class CardCacheStats {
+
+    private long hits;
+    private long misses;
+    private double hitRate;
+    private long evictions;
+
+    /**
+     * The approximate bytes of all evicted cards (0 when the cache is bounded by entry count).
+     */
+    private long evictedBytes;
+
+    /**
+     * Average time of a database load on a miss.
+     */
+    private double averageLoadMillis;
+
+    private long size;
+
+    /**
+     * The approximate bytes currently cached (0 when bounded by entry count).
+     */
+    private long weightBytes;
+}
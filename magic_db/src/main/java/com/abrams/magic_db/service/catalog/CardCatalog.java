@@ -0,0 +1,245 @@
+package com.abrams.magic_db.service.catalog;
+
+import com.abrams.magic_db.model.Card;
+import com.abrams.magic_db.model.CardFace;
+import com.abrams.magic_db.repository.CardRepository.CatalogCardView;
+import com.abrams.magic_db.repository.CardRepository.CatalogFaceView;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * An immutable, column-oriented copy of the card catalog.
+ *
+ * <p>Each card column is one array indexed by the card's ordinal, and each face column one array
+ * indexed by the face's ordinal; a card's faces are the contiguous range
+ * {@code faceStart[ordinal] .. faceStart[ordinal + 1]}. UUIDs are split into two {@code long}
+ * arrays and cards are kept in id order, so looking up a UUID is a binary search over primitives
+ * rather than a hash map holding a boxed entry per card. Repeated strings (set codes, rarities, type
+ * lines, mana costs, colors, ...) are deduplicated while building, so each distinct value is stored once.
+ *
+ * <p>Reads hand out plain, detached {@link Card} and {@link CardFace} objects built from the columns,
+ * with the same JSON shape as the entities, without a persistence context or dirty-checking snapshot.
+ */
+public class CardCatalog {
+
+    private final long[] idHigh;
+    private final long[] idLow;
+    private final long[] oracleHigh;
+    private final long[] oracleLow;
+    private final BitSet noOracleId = new BitSet();
+    private final String[] names;
+    private final String[] setCodes;
+    private final String[] collectorNumbers;
+    private final String[] rarities;
+    private final String[] layouts;
+    private final int[] faceStart;
+    private final int[] listingOrder;
+
+    private final long[] faceIds;
+    private final int[] faceIndexes;
+    private final String[] faceNames;
+    private final String[] manaCosts;
+    private final double[] cmcs;
+    private final String[] typeLines;
+    private final String[] oracleTexts;
+    private final List<String>[] colors;
+    private final String[] powers;
+    private final String[] toughnesses;
+    private final String[] imageUrls;
+
+    @SuppressWarnings("unchecked")
+    private CardCatalog(int cardCount, int faceCount) {
+        idHigh = new long[cardCount];
+        idLow = new long[cardCount];
+        oracleHigh = new long[cardCount];
+        oracleLow = new long[cardCount];
+        names = new String[cardCount];
+        setCodes = new String[cardCount];
+        collectorNumbers = new String[cardCount];
+        rarities = new String[cardCount];
+        layouts = new String[cardCount];
+        faceStart = new int[cardCount + 1];
+        listingOrder = new int[cardCount];
+
+        faceIds = new long[faceCount];
+        faceIndexes = new int[faceCount];
+        faceNames = new String[faceCount];
+        manaCosts = new String[faceCount];
+        cmcs = new double[faceCount];
+        typeLines = new String[faceCount];
+        oracleTexts = new String[faceCount];
+        colors = new List[faceCount];
+        powers = new String[faceCount];
+        toughnesses = new String[faceCount];
+        imageUrls = new String[faceCount];
+    }
+
+    /**
+     * Builds the catalog.
+     * @param cards Every card, in the order {@link #slice} lists them (the database's name, id order).
+     * @param faces Every face, grouped by card and ordered by face index within a card.
+     */
+    public static CardCatalog build(List<CatalogCardView> cards, List<CatalogFaceView> faces) {
+        List<CatalogCardView> sorted = new ArrayList<>(cards);
+        sorted.sort(Comparator.comparing(CatalogCardView::getId, CardCatalog::compareIds));
+
+        CardCatalog catalog = new CardCatalog(sorted.size(), faces.size());
+        Map<Object, Object> pool = new HashMap<>();
+        for (int i = 0; i < sorted.size(); i++) {
+            CatalogCardView card = sorted.get(i);
+            catalog.idHigh[i] = card.getId().getMostSignificantBits();
+            catalog.idLow[i] = card.getId().getLeastSignificantBits();
+            if (card.getOracleId() != null) {
+                catalog.oracleHigh[i] = card.getOracleId().getMostSignificantBits();
+                catalog.oracleLow[i] = card.getOracleId().getLeastSignificantBits();
+            } else {
+                catalog.noOracleId.set(i);
+            }
+            catalog.names[i] = intern(pool, card.getName());
+            catalog.setCodes[i] = intern(pool, card.getSetCode());
+            catalog.collectorNumbers[i] = intern(pool, card.getCollectorNumber());
+            catalog.rarities[i] = intern(pool, card.getRarity());
+            catalog.layouts[i] = intern(pool, card.getLayout());
+        }
+        // The columns are in id order for lookups; remember the order the cards came in for listing
+        for (int i = 0; i < cards.size(); i++) {
+            catalog.listingOrder[i] = catalog.ordinalOf(cards.get(i).getId());
+        }
+
+        // Count the faces of each card, turn the counts into start offsets, then drop each face into place
+        int[] ordinals = new int[faces.size()];
+        for (int f = 0; f < faces.size(); f++) {
+            ordinals[f] = catalog.ordinalOf(faces.get(f).getCardId());
+            if (ordinals[f] >= 0) catalog.faceStart[ordinals[f] + 1]++;
+        }
+        for (int i = 0; i < sorted.size(); i++) {
+            catalog.faceStart[i + 1] += catalog.faceStart[i];
+        }
+        int[] next = Arrays.copyOf(catalog.faceStart, sorted.size());
+        for (int f = 0; f < faces.size(); f++) {
+            if (ordinals[f] < 0) continue;
+            CatalogFaceView face = faces.get(f);
+            int slot = next[ordinals[f]]++;
+            catalog.faceIds[slot] = face.getId();
+            catalog.faceIndexes[slot] = face.getFaceIndex();
+            catalog.faceNames[slot] = intern(pool, face.getName());
+            catalog.manaCosts[slot] = intern(pool, face.getManaCost());
+            catalog.cmcs[slot] = face.getCmc() != null ? face.getCmc() : Double.NaN;
+            catalog.typeLines[slot] = intern(pool, face.getTypeLine());
+            catalog.oracleTexts[slot] = intern(pool, face.getOracleText());
+            catalog.colors[slot] = internColors(pool, face.getColors());
+            catalog.powers[slot] = intern(pool, face.getPower());
+            catalog.toughnesses[slot] = intern(pool, face.getToughness());
+            catalog.imageUrls[slot] = face.getImageUrl();
+        }
+        return catalog;
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * @return The card with the given id, or null if it is not in the catalog.
+     */
+    public Card get(UUID id) {
+        int ordinal = ordinalOf(id);
+        return ordinal >= 0 ? toCard(ordinal) : null;
+    }
+
+    /**
+     * @return The cards with the given ids, in the same order, leaving out ids not in the catalog.
+     */
+    public List<Card> getAll(List<UUID> ids) {
+        List<Card> cards = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            int ordinal = ordinalOf(id);
+            if (ordinal >= 0) cards.add(toCard(ordinal));
+        }
+        return cards;
+    }
+
+    /**
+     * @return Up to {@code limit} cards starting at {@code offset}, in the order the catalog was built with.
+     */
+    public List<Card> slice(long offset, int limit) {
+        int from = (int) Math.min(offset, size());
+        int to = Math.min(size(), from + limit);
+        List<Card> cards = new ArrayList<>(to - from);
+        for (int position = from; position < to; position++) {
+            cards.add(toCard(listingOrder[position]));
+        }
+        return cards;
+    }
+
+    private Card toCard(int ordinal) {
+        Card card = new Card();
+        card.setId(new UUID(idHigh[ordinal], idLow[ordinal]));
+        card.setOracleId(noOracleId.get(ordinal) ? null : new UUID(oracleHigh[ordinal], oracleLow[ordinal]));
+        card.setName(names[ordinal]);
+        card.setSetCode(setCodes[ordinal]);
+        card.setCollectorNumber(collectorNumbers[ordinal]);
+        card.setRarity(rarities[ordinal]);
+        card.setLayout(layouts[ordinal]);
+        List<CardFace> faces = new ArrayList<>(faceStart[ordinal + 1] - faceStart[ordinal]);
+        for (int slot = faceStart[ordinal]; slot < faceStart[ordinal + 1]; slot++) {
+            CardFace face = new CardFace();
+            face.setId(faceIds[slot]);
+            face.setCard(card);
+            face.setFaceIndex(faceIndexes[slot]);
+            face.setName(faceNames[slot]);
+            face.setManaCost(manaCosts[slot]);
+            face.setCmc(Double.isNaN(cmcs[slot]) ? null : cmcs[slot]);
+            face.setTypeLine(typeLines[slot]);
+            face.setOracleText(oracleTexts[slot]);
+            face.setColors(colors[slot]);
+            face.setPower(powers[slot]);
+            face.setToughness(toughnesses[slot]);
+            face.setImageUrl(imageUrls[slot]);
+            faces.add(face);
+        }
+        card.setFaces(faces);
+        return card;
+    }
+
+    // Binary search over the id columns, in the order compareIds defines
+    private int ordinalOf(UUID id) {
+        long high = id.getMostSignificantBits();
+        long low = id.getLeastSignificantBits();
+        int lo = 0;
+        int hi = idHigh.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = idHigh[mid] != high ? Long.compare(idHigh[mid], high) : Long.compare(idLow[mid], low);
+            if (cmp < 0) lo = mid + 1;
+            else if (cmp > 0) hi = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    private static int compareIds(UUID a, UUID b) {
+        int cmp = Long.compare(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return cmp != 0 ? cmp : Long.compare(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    private static String intern(Map<Object, Object> pool, String value) {
+        if (value == null) return null;
+        return (String) pool.computeIfAbsent(value, v -> v);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> internColors(Map<Object, Object> pool, String joined) {
+        if (joined == null) return null;
+        // Keyed by a list so the pool never confuses a color list with an equal string
+        List<String> colors = joined.isEmpty() ? List.of() : List.of(joined.split(","));
+        return (List<String>) pool.computeIfAbsent(colors, v -> v);
+    }
+}
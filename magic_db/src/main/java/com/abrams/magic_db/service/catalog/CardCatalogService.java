@@ -0,0 +1,47 @@
+package com.abrams.magic_db.service.catalog;
+
+import com.abrams.magic_db.repository.CardRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Holds the in-memory {@link CardCatalog} that card reads are served from. The catalog only
+ * changes through imports, so it is built at startup and rebuilt after every import.
+ */
+@Service
+public class CardCatalogService {
+
+    private final CardRepository cardRepository;
+
+    private volatile CardCatalog catalog;
+
+    public CardCatalogService(CardRepository cardRepository) {
+        this.cardRepository = cardRepository;
+    }
+
+    /**
+     * Reloads every card and face and swaps in a fresh catalog.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        catalog = load();
+        System.out.printf("Card catalog built: %d cards in %d ms%n",
+                catalog.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Builds a catalog from the database without installing it.
+     */
+    public CardCatalog load() {
+        return CardCatalog.build(cardRepository.findAllCatalogCards(), cardRepository.findAllCatalogFaces());
+    }
+
+    /**
+     * @return The current catalog, or null while it is still being built at startup.
+     */
+    public CardCatalog getCatalog() {
+        return catalog;
+    }
+}
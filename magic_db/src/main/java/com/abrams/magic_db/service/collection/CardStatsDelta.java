@@ -0,0 +1,12 @@
+package com.abrams.magic_db.service.collection;
+
+import java.util.UUID;
+
+/**
+ * A change to one card's binder entry, as it affects the collection stats.
+ * @param cardId The card printing.
+ * @param copies Copies added (negative when removed).
+ * @param cards 1 if the binder entry was created, -1 if it was deleted, 0 otherwise.
+ */
+public record CardStatsDelta(UUID cardId, int copies, int cards) {
+}
@@ -0,0 +1,31 @@
+package com.abrams.magic_db.service.collection;
+
+/**
+ * The file formats a binder can be exported as.
+ */
+public enum CollectionExportFormat {
+    /**
+     * A header row and one row per binder entry; readable by the collection import.
+     */
+    CSV("text/csv", "csv"),
+    /**
+     * One JSON object per line.
+     */
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    CollectionExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
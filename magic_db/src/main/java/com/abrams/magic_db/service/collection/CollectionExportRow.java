@@ -0,0 +1,10 @@
+package com.abrams.magic_db.service.collection;
+
+import java.util.UUID;
+
+/**
+ * One binder entry as written by the export.
+ */
+public record CollectionExportRow(UUID cardId, int quantity, String name, String setCode,
+                                  String collectorNumber, String rarity) {
+}
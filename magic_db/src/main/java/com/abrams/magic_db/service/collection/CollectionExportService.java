@@ -0,0 +1,150 @@
+package com.abrams.magic_db.service.collection;
+
+import com.abrams.magic_db.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Streams a user's binder out as CSV or NDJSON.
+ *
+ * <p>Rows are read through a forward-only cursor and written to the response as they arrive, so
+ * nothing but the current fetch batch is held in memory and the first bytes go out before the last
+ * row has been read. The PostgreSQL driver only uses a cursor inside a transaction and with a fetch
+ * size set; otherwise it reads the whole result into memory before returning the first row.
+ */
+@Service
+public class CollectionExportService {
+
+    public static final int FETCH_SIZE = 1000;
+
+    // Same order as the binder listing
+    private static final String FIND_ROWS = """
+            SELECT b.card_id, b.quantity, c.name, c.set_code, c.collector_number, c.rarity
+            FROM binders b
+            JOIN cards c ON c.id = b.card_id
+            WHERE b.user_id = ?
+            ORDER BY c.name, b.binder_id
+            """;
+
+    // Column names the collection import recognizes, so an export can be imported again
+    static final String CSV_HEADER = "quantity,name,set_code,collector_number,rarity,card_id";
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate cursorTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    public CollectionExportService(UserRepository userRepository, DataSource dataSource,
+                                   PlatformTransactionManager transactionManager, ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.cursorTemplate = new JdbcTemplate(dataSource);
+        this.cursorTemplate.setFetchSize(FETCH_SIZE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Prepares the export of a user's binder. Nothing is read until the returned body is written.
+     * @param userId The ID of the user.
+     * @param format The file format.
+     * @return The response body that streams the binder.
+     * @throws RuntimeException if the user is not found.
+     */
+    public StreamingResponseBody export(Long userId, CollectionExportFormat format) {
+        if (!userRepository.existsById(userId)) throw new RuntimeException("User not found");
+        return out -> {
+            long start = System.nanoTime();
+            long rows = format == CollectionExportFormat.CSV ? writeCsv(userId, out) : writeNdjson(userId, out);
+            System.out.printf("Exported %d binder entries of user %d as %s in %.3fs%n",
+                    rows, userId, format, (System.nanoTime() - start) / 1_000_000_000.0);
+        };
+    }
+
+    private long writeCsv(Long userId, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        long rows = streamRows(userId, row -> writeCsvRow(writer, row));
+        writer.flush();
+        return rows;
+    }
+
+    // One CSV record in the column order of CSV_HEADER
+    static void writeCsvRow(Writer writer, CollectionExportRow row) throws IOException {
+        writer.write(Integer.toString(row.quantity()));
+        writer.write(',');
+        writer.write(csvField(row.name()));
+        writer.write(',');
+        writer.write(csvField(row.setCode()));
+        writer.write(',');
+        writer.write(csvField(row.collectorNumber()));
+        writer.write(',');
+        writer.write(csvField(row.rarity()));
+        writer.write(',');
+        writer.write(row.cardId().toString());
+        writer.write('\n');
+    }
+
+    private long writeNdjson(Long userId, OutputStream out) throws IOException {
+        OutputStream buffered = new BufferedOutputStream(out);
+        ObjectWriter writer = objectMapper.writerFor(CollectionExportRow.class);
+        long rows = streamRows(userId, row -> {
+            buffered.write(writer.writeValueAsBytes(row));
+            buffered.write('\n');
+        });
+        buffered.flush();
+        return rows;
+    }
+
+    // Hands each row to the sink as it is fetched; returns the number of rows
+    private long streamRows(Long userId, RowSink sink) throws IOException {
+        try {
+            Long rows = readOnlyTransaction.execute(status -> {
+                long[] count = new long[1];
+                cursorTemplate.query(FIND_ROWS, rs -> {
+                    CollectionExportRow row = new CollectionExportRow(rs.getObject("card_id", UUID.class),
+                            rs.getInt("quantity"), rs.getString("name"), rs.getString("set_code"),
+                            rs.getString("collector_number"), rs.getString("rarity"));
+                    try {
+                        sink.write(row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    count[0]++;
+                }, userId);
+                return count[0];
+            });
+            return rows == null ? 0 : rows;
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; stop reading instead of draining the cursor
+            throw e.getCause();
+        }
+    }
+
+    private static String csvField(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private interface RowSink {
+        void write(CollectionExportRow row) throws IOException;
+    }
+}
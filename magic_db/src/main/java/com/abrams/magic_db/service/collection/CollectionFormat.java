@@ -0,0 +1,19 @@
+package com.abrams.magic_db.service.collection;
+
+/**
+ * The layout of a pasted or uploaded card collection.
+ */
+public enum CollectionFormat {
+    /**
+     * CSV if the first line is a header naming a card name or set column, a text list otherwise.
+     */
+    AUTO,
+    /**
+     * One card per line, e.g. {@code 4 Lightning Bolt} or {@code 2x Counterspell (MH2) 267}.
+     */
+    TEXT,
+    /**
+     * Comma-separated with a header row, e.g. {@code quantity,name,set,collector_number}.
+     */
+    CSV
+}
@@ -0,0 +1,37 @@
+package com.abrams.magic_db.service.collection;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What a bulk binder import did: how many lines it read and applied, and a report of the lines it skipped.
+ */
+@Data
+@NoArgsConstructor
+public class CollectionImportResult {
+
+    /**
+     * Lines that named a card, not counting blank lines, comments, section headers and the CSV header.
+     */
+    private int lines;
+
+    /**
+     * Lines whose card was found and whose copies were added.
+     */
+    private int imported;
+
+    /**
+     * Distinct card printings the imported lines resolved to.
+     */
+    private int cards;
+
+    /**
+     * Copies added across all imported lines.
+     */
+    private long copies;
+
+    private List<CollectionLineError> errors = new ArrayList<>();
+}
@@ -0,0 +1,242 @@
+package com.abrams.magic_db.service.collection;
+
+import com.abrams.magic_db.repository.CardRepository;
+import com.abrams.magic_db.repository.CardRepository.CardKeyView;
+import com.abrams.magic_db.repository.UserRepository;
+import com.abrams.magic_db.service.BatchTooLargeException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Adds a whole card collection to a user's binder at once.
+ *
+ * <p>The collection is parsed, every distinct name, name and set pair, and printing is resolved with a
+ * few set-based queries instead of one lookup per line, copies of the same printing are summed, and the totals are
+ * applied with a single {@code INSERT ... ON CONFLICT (user_id, card_id) DO UPDATE} that adds to the
+ * quantities the user already owns. Lines that cannot be read or resolved are skipped and reported.
+ * The collection stats are updated in the same transaction.
+ */
+@Service
+public class CollectionImportService {
+
+    public static final int MAX_LINES = 50_000;
+
+    // Keeps each IN list well below PostgreSQL's limit of 32767 bind parameters per statement
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    // One row per printing; binder_id comes from the column default. (xmax = 0) tells inserted rows from
+    // updated ones and relies on PostgreSQL storage internals (see BinderRepository.addQuantity)
+    private static final String UPSERT_QUANTITIES = """
+            INSERT INTO binders (user_id, card_id, quantity)
+            SELECT ?, t.card_id, t.quantity FROM unnest(?::uuid[], ?::int[]) AS t(card_id, quantity)
+            ON CONFLICT (user_id, card_id) DO UPDATE SET quantity = binders.quantity + EXCLUDED.quantity
+            RETURNING card_id, (xmax = 0) AS inserted
+            """;
+
+    private final CardRepository cardRepository;
+    private final UserRepository userRepository;
+    private final CollectionStatsService collectionStatsService;
+    private final JdbcTemplate jdbcTemplate;
+
+    public CollectionImportService(CardRepository cardRepository, UserRepository userRepository,
+                                   CollectionStatsService collectionStatsService, JdbcTemplate jdbcTemplate) {
+        this.cardRepository = cardRepository;
+        this.userRepository = userRepository;
+        this.collectionStatsService = collectionStatsService;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Parses a collection and adds every card it names to the user's binder in one transaction.
+     * Lines that cannot be read or matched to a card are left out and listed in the result.
+     * * @param userId The ID of the user whose binder receives the cards.
+     * @param input The collection as a text list or CSV.
+     * @param format How the collection is laid out.
+     * @return The counts of lines read and applied, and the per-line error report.
+     * @throws RuntimeException if the user is not found.
+     * @throws BatchTooLargeException if the collection has more than {@link #MAX_LINES} card lines.
+     */
+    @Transactional
+    public CollectionImportResult importCollection(Long userId, String input, CollectionFormat format) {
+        if (!userRepository.existsById(userId)) throw new RuntimeException("User not found");
+
+        ParsedCollection parsed = CollectionParser.parse(input, format);
+        if (parsed.lines().size() > MAX_LINES) {
+            throw new BatchTooLargeException(parsed.lines().size(), MAX_LINES);
+        }
+        List<CollectionLineError> errors = new ArrayList<>(parsed.errors());
+        List<ResolvedLine> resolved = resolve(parsed.lines(), errors);
+
+        // ON CONFLICT cannot touch the same row twice in one statement, so repeats are summed first
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        long copies = 0;
+        for (ResolvedLine line : resolved) {
+            quantities.merge(line.cardId(), line.quantity(), Integer::sum);
+            copies += line.quantity();
+        }
+        if (!quantities.isEmpty()) {
+            collectionStatsService.recordChanges(userId, upsertQuantities(userId, quantities));
+        }
+
+        errors.sort((a, b) -> Integer.compare(a.line(), b.line()));
+        CollectionImportResult result = new CollectionImportResult();
+        result.setLines(parsed.lines().size());
+        result.setImported(resolved.size());
+        result.setCards(quantities.size());
+        result.setCopies(copies);
+        result.setErrors(errors);
+        System.out.printf("Imported %d of %d collection lines (%d cards, %d copies) into binder of user %d%n",
+                resolved.size(), parsed.lines().size(), quantities.size(), copies, userId);
+        return result;
+    }
+
+    /**
+     * Matches each line to a card printing. A set and collector number pick that exact printing;
+     * otherwise the name is matched (full name or front face, ignoring case), within the set if one is
+     * given, taking the newest printing. A leading number without an {@code x} is read as part of the
+     * name, for a single copy, when the name with it is a card ({@code 1996 World Champion}).
+     */
+    private List<ResolvedLine> resolve(List<CollectionLine> lines, List<CollectionLineError> errors) {
+        Set<String> names = new LinkedHashSet<>();
+        Set<SetKey> namesInSets = new LinkedHashSet<>();
+        Set<SetKey> printings = new LinkedHashSet<>();
+        for (CollectionLine line : lines) {
+            if (line.setCode() != null && line.collectorNumber() != null) {
+                printings.add(new SetKey(line.setCode(), line.collectorNumber().toLowerCase(Locale.ROOT)));
+            } else if (line.setCode() != null) {
+                namesInSets.add(new SetKey(line.setCode(), nameKey(line.name())));
+                if (line.nameWithNumber() != null) namesInSets.add(new SetKey(line.setCode(), nameKey(line.nameWithNumber())));
+            } else {
+                names.add(nameKey(line.name()));
+                if (line.nameWithNumber() != null) names.add(nameKey(line.nameWithNumber()));
+            }
+        }
+
+        Map<String, CardKeyView> byPrinting = new HashMap<>();
+        for (List<SetKey> chunk : chunks(printings)) {
+            for (CardKeyView card : cardRepository.findKeysByCollectorNumbersInSets(values(chunk), setCodes(chunk))) {
+                byPrinting.putIfAbsent(printingKey(card.getSetCode().toLowerCase(Locale.ROOT), card.getCollectorNumber()), card);
+            }
+        }
+        Map<String, UUID> byNameInSet = new HashMap<>();
+        for (List<SetKey> chunk : chunks(namesInSets)) {
+            for (CardKeyView card : cardRepository.findKeysByLowerNamesInSets(values(chunk), setCodes(chunk))) {
+                String setCode = card.getSetCode().toLowerCase(Locale.ROOT);
+                for (String key : nameKeys(card.getName())) {
+                    byNameInSet.putIfAbsent(setCode + "|" + key, card.getId());
+                }
+            }
+        }
+        Map<String, UUID> byName = new HashMap<>();
+        for (List<String> chunk : chunks(names)) {
+            // Newest printing first, so the first card seen per name wins
+            for (CardKeyView card : cardRepository.findKeysByLowerNames(chunk)) {
+                for (String key : nameKeys(card.getName())) {
+                    byName.putIfAbsent(key, card.getId());
+                }
+            }
+        }
+
+        List<ResolvedLine> resolved = new ArrayList<>(lines.size());
+        for (CollectionLine line : lines) {
+            String withNumber = line.nameWithNumber() != null ? nameKey(line.nameWithNumber()) : null;
+            UUID cardId;
+            UUID numberedCardId = null;
+            String message;
+            if (line.setCode() != null && line.collectorNumber() != null) {
+                CardKeyView card = byPrinting.get(printingKey(line.setCode(), line.collectorNumber()));
+                cardId = card != null ? card.getId() : null;
+                if (card != null && withNumber != null && nameKeys(card.getName()).contains(withNumber)) {
+                    numberedCardId = cardId;
+                }
+                message = "No card " + line.setCode().toUpperCase(Locale.ROOT) + " #" + line.collectorNumber();
+            } else if (line.setCode() != null) {
+                cardId = byNameInSet.get(line.setCode() + "|" + nameKey(line.name()));
+                if (withNumber != null) numberedCardId = byNameInSet.get(line.setCode() + "|" + withNumber);
+                message = "No card named \"" + line.name() + "\" in set " + line.setCode().toUpperCase(Locale.ROOT);
+            } else {
+                cardId = byName.get(nameKey(line.name()));
+                if (withNumber != null) numberedCardId = byName.get(withNumber);
+                message = "No card named \"" + line.name() + "\"";
+            }
+            if (numberedCardId != null) {
+                resolved.add(new ResolvedLine(numberedCardId, 1));
+            } else if (cardId == null) {
+                errors.add(new CollectionLineError(line.line(), line.text(), message));
+            } else {
+                resolved.add(new ResolvedLine(cardId, line.quantity()));
+            }
+        }
+        return resolved;
+    }
+
+    // Returns what the upsert changed, for the collection stats
+    private List<CardStatsDelta> upsertQuantities(Long userId, Map<UUID, Integer> quantities) {
+        UUID[] cardIds = quantities.keySet().toArray(new UUID[0]);
+        Integer[] counts = quantities.values().toArray(new Integer[0]);
+        return jdbcTemplate.query(UPSERT_QUANTITIES, ps -> {
+            ps.setLong(1, userId);
+            ps.setArray(2, ps.getConnection().createArrayOf("uuid", cardIds));
+            ps.setArray(3, ps.getConnection().createArrayOf("integer", counts));
+        }, (rs, row) -> {
+            UUID cardId = rs.getObject("card_id", UUID.class);
+            return new CardStatsDelta(cardId, quantities.get(cardId), rs.getBoolean("inserted") ? 1 : 0);
+        });
+    }
+
+    private static <T> List<List<T>> chunks(Set<T> values) {
+        List<T> all = new ArrayList<>(values);
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += LOOKUP_CHUNK_SIZE) {
+            chunks.add(all.subList(from, Math.min(all.size(), from + LOOKUP_CHUNK_SIZE)));
+        }
+        return chunks;
+    }
+
+    // A card answers to its full name and, for split and double-faced cards, its front face name
+    private static List<String> nameKeys(String name) {
+        String full = nameKey(name);
+        int split = full.indexOf(" // ");
+        return split < 0 ? List.of(full) : List.of(full, full.substring(0, split));
+    }
+
+    private static String nameKey(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String printingKey(String setCode, String collectorNumber) {
+        return setCode + "|" + collectorNumber.toLowerCase(Locale.ROOT);
+    }
+
+    // Binds a chunk of (set, value) pairs as two IN lists; the few extra rows the cross product lets through
+    // simply find no line
+    private static Set<String> values(List<SetKey> keys) {
+        Set<String> values = new LinkedHashSet<>();
+        keys.forEach(key -> values.add(key.value()));
+        return values;
+    }
+
+    private static Set<String> setCodes(List<SetKey> keys) {
+        Set<String> setCodes = new LinkedHashSet<>();
+        keys.forEach(key -> setCodes.add(key.setCode()));
+        return setCodes;
+    }
+
+    private record ResolvedLine(UUID cardId, int quantity) {
+    }
+
+    // A lower-case name or collector number looked up within one set
+    private record SetKey(String setCode, String value) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.abrams.magic_db.service.collection;
+
+/**
+ * One card entry read from a collection.
+ * @param line The 1-based line number in the input.
+ * @param text The line as it was given.
+ * @param quantity The number of copies.
+ * @param name The card name, or null if the line only names a printing.
+ * @param setCode The lower-case set code, or null.
+ * @param collectorNumber The collector number within the set, or null.
+ * @param nameWithNumber The name including the leading number read as the quantity, when that number had no
+ *                       {@code x} after it and may belong to the name (e.g. {@code 1996 World Champion}), or null.
+ */
+public record CollectionLine(int line, String text, int quantity, String name, String setCode, String collectorNumber,
+                             String nameWithNumber) {
+}
@@ -0,0 +1,10 @@
+package com.abrams.magic_db.service.collection;
+
+/**
+ * A collection line that was not imported, and why.
+ * @param line The 1-based line number in the input.
+ * @param text The line as it was given.
+ * @param message What was wrong with it.
+ */
+public record CollectionLineError(int line, String text, String message) {
+}
@@ -0,0 +1,207 @@
+package com.abrams.magic_db.service.collection;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads card collections pasted as a text list or exported as CSV from collection managers.
+ *
+ * <p>A text list has one card per line: an optional quantity (optionally followed by {@code x}),
+ * the card name, then optionally the set code in parentheses or brackets and a collector number,
+ * e.g. {@code 4 Lightning Bolt}, {@code 1x Ragavan, Nimble Pilferer (MH2) 138}. A leading number
+ * without an {@code x} may also be the start of the name ({@code 1996 World Champion}); the line then
+ * carries both readings and the one that names a card wins when it is resolved. Blank lines,
+ * {@code //} and {@code #} comments and section headers such as {@code Sideboard} are skipped, so
+ * a deck export can be imported as it is.
+ *
+ * <p>A CSV file needs a header row. Quantity, name, set and collector number columns are found by
+ * their usual names ({@code Count}, {@code Card Name}, {@code Edition}, {@code Collector Number}, ...);
+ * other columns are ignored. A row needs either a name or a set and collector number.
+ */
+public class CollectionParser {
+
+    public static final int MAX_QUANTITY = 10_000;
+
+    private static final Pattern TEXT_LINE = Pattern.compile(
+            "^(?:(\\d+)\\s*([xX])?\\s+)?(.+?)(?:\\s+[(\\[]([A-Za-z0-9]{2,6})[)\\]](?:\\s+(\\S+))?)?(?:\\s+\\*[A-Za-z]+\\*)?$");
+    private static final Pattern SECTION_HEADER = Pattern.compile(
+            "^(deck|main ?deck|sideboard|commander|companion|maybeboard|considering)\\s*:?\\s*(\\(\\d+\\))?$",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Map<String, Column> HEADERS = Map.ofEntries(
+            Map.entry("quantity", Column.QUANTITY), Map.entry("qty", Column.QUANTITY),
+            Map.entry("count", Column.QUANTITY), Map.entry("amount", Column.QUANTITY),
+            Map.entry("name", Column.NAME), Map.entry("card", Column.NAME), Map.entry("card name", Column.NAME),
+            Map.entry("set", Column.SET), Map.entry("set code", Column.SET), Map.entry("edition", Column.SET),
+            Map.entry("edition code", Column.SET),
+            Map.entry("collector number", Column.NUMBER), Map.entry("card number", Column.NUMBER),
+            Map.entry("number", Column.NUMBER), Map.entry("cn", Column.NUMBER));
+
+    private enum Column { QUANTITY, NAME, SET, NUMBER }
+
+    private CollectionParser() {
+    }
+
+    /**
+     * @param input The collection, one entry per line.
+     * @param format How the collection is laid out.
+     * @return The entries read, in input order, and the lines that could not be read.
+     */
+    public static ParsedCollection parse(String input, CollectionFormat format) {
+        String[] rows = input == null ? new String[0] : input.split("\\r?\\n", -1);
+        if (format == CollectionFormat.AUTO) {
+            format = looksLikeCsvHeader(firstNonBlank(rows)) ? CollectionFormat.CSV : CollectionFormat.TEXT;
+        }
+        List<CollectionLine> lines = new ArrayList<>();
+        List<CollectionLineError> errors = new ArrayList<>();
+        if (format == CollectionFormat.CSV) {
+            parseCsv(rows, lines, errors);
+        } else {
+            parseText(rows, lines, errors);
+        }
+        return new ParsedCollection(lines, errors);
+    }
+
+    private static void parseText(String[] rows, List<CollectionLine> lines, List<CollectionLineError> errors) {
+        for (int i = 0; i < rows.length; i++) {
+            String text = stripBom(rows[i], i).trim();
+            if (text.isEmpty() || text.startsWith("//") || text.startsWith("#")
+                    || SECTION_HEADER.matcher(text).matches()) {
+                continue;
+            }
+            Matcher m = TEXT_LINE.matcher(text);
+            if (!m.matches()) {
+                errors.add(new CollectionLineError(i + 1, text, "Could not read the line"));
+                continue;
+            }
+            Integer quantity = parseQuantity(m.group(1), i + 1, text, errors);
+            if (quantity == null) continue;
+            String nameWithNumber = m.group(1) != null && m.group(2) == null ? text.substring(0, m.end(3)).trim() : null;
+            lines.add(new CollectionLine(i + 1, text, quantity, m.group(3).trim(),
+                    lower(m.group(4)), m.group(5), nameWithNumber));
+        }
+    }
+
+    private static void parseCsv(String[] rows, List<CollectionLine> lines, List<CollectionLineError> errors) {
+        int header = -1;
+        for (int i = 0; i < rows.length && header < 0; i++) {
+            if (!rows[i].isBlank()) header = i;
+        }
+        if (header < 0) return;
+
+        Map<Column, Integer> columns = new EnumMap<>(Column.class);
+        List<String> names = splitCsv(stripBom(rows[header], header));
+        for (int c = 0; c < names.size(); c++) {
+            Column column = HEADERS.get(normalizeHeader(names.get(c)));
+            if (column != null) columns.putIfAbsent(column, c);
+        }
+        if (!columns.containsKey(Column.NAME) && !columns.containsKey(Column.NUMBER)) {
+            errors.add(new CollectionLineError(header + 1, rows[header],
+                    "CSV header needs a name column or set and collector number columns"));
+            return;
+        }
+
+        for (int i = header + 1; i < rows.length; i++) {
+            String text = rows[i];
+            if (text.isBlank()) continue;
+            List<String> fields = splitCsv(text);
+            String name = field(fields, columns.get(Column.NAME));
+            String setCode = lower(field(fields, columns.get(Column.SET)));
+            String number = field(fields, columns.get(Column.NUMBER));
+            if (name == null && (setCode == null || number == null)) {
+                errors.add(new CollectionLineError(i + 1, text, "Row has no card name or set and collector number"));
+                continue;
+            }
+            Integer quantity = parseQuantity(field(fields, columns.get(Column.QUANTITY)), i + 1, text, errors);
+            if (quantity == null) continue;
+            lines.add(new CollectionLine(i + 1, text, quantity, name, setCode, number, null));
+        }
+    }
+
+    // A missing quantity means one copy; a bad one is reported and the line dropped (null)
+    private static Integer parseQuantity(String value, int line, String text, List<CollectionLineError> errors) {
+        if (value == null) return 1;
+        int quantity;
+        try {
+            quantity = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            errors.add(new CollectionLineError(line, text, "Quantity is not a number"));
+            return null;
+        }
+        if (quantity <= 0 || quantity > MAX_QUANTITY) {
+            errors.add(new CollectionLineError(line, text, "Quantity must be between 1 and " + MAX_QUANTITY));
+            return null;
+        }
+        return quantity;
+    }
+
+    private static boolean looksLikeCsvHeader(String row) {
+        if (row == null || !row.contains(",")) return false;
+        for (String name : splitCsv(row)) {
+            Column column = HEADERS.get(normalizeHeader(name));
+            if (column == Column.NAME || column == Column.SET) return true;
+        }
+        return false;
+    }
+
+    private static String firstNonBlank(String[] rows) {
+        for (int i = 0; i < rows.length; i++) {
+            if (!rows[i].isBlank()) return stripBom(rows[i], i);
+        }
+        return null;
+    }
+
+    /**
+     * Splits one CSV record. Fields may be quoted, with {@code ""} standing for a quote inside a quoted field.
+     */
+    static List<String> splitCsv(String row) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < row.length(); i++) {
+            char ch = row.charAt(i);
+            if (quoted) {
+                if (ch == '"' && i + 1 < row.length() && row.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (ch == '"') {
+                    quoted = false;
+                } else {
+                    field.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(ch);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String field(List<String> fields, Integer column) {
+        if (column == null || column >= fields.size()) return null;
+        String value = fields.get(column).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String normalizeHeader(String name) {
+        return name.trim().toLowerCase(Locale.ROOT).replace('_', ' ').replace('-', ' ');
+    }
+
+    private static String stripBom(String row, int index) {
+        return index == 0 && row.startsWith("\uFEFF") ? row.substring(1) : row;
+    }
+
+    private static String lower(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,9 @@
+package com.abrams.magic_db.service.collection;
+
+/**
+ * How much of a user's binder falls under one facet value.
+ * @param copies The number of copies owned.
+ * @param cards The number of distinct card printings owned.
+ */
+public record CollectionStatCount(long copies, int cards) {
+}
@@ -0,0 +1,10 @@
+package com.abrams.magic_db.service.collection;
+
+import java.util.Map;
+
+/**
+ * Totals for a user's binder: copies and distinct printings owned overall and, per facet (color,
+ * rarity, set, cmc), per value of that facet. A card counts towards each of its colors.
+ */
+public record CollectionStats(long copies, int cards, Map<String, Map<String, CollectionStatCount>> facets) {
+}
@@ -0,0 +1,163 @@
+package com.abrams.magic_db.service.collection;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps per-user collection stats in {@code binder_stats} and reads them back.
+ *
+ * <p>Every binder write reports what it changed as {@link CardStatsDelta}s, and those are added onto
+ * the stats rows in the same transaction with one upsert. Which rows a card counts towards (its rarity,
+ * set, mana value and colors) comes from the {@code card_stat_keys} view, so the write path never loads
+ * the card. Reading the stats is a primary key range scan over a few dozen rows, however large the
+ * binder is.
+ */
+@Service
+public class CollectionStatsService {
+
+    private static final String COLOR_ORDER = "WUBRGC";
+    private static final List<String> FACETS = List.of("color", "rarity", "set", "cmc");
+
+    // Rows are upserted in key order so concurrent writes for the same user lock them in the same
+    // order and cannot deadlock
+    private static final String APPLY_DELTAS = """
+            INSERT INTO binder_stats (user_id, facet, value, copies, cards)
+            SELECT ?, k.facet, k.value, SUM(d.copies), SUM(d.cards)
+            FROM unnest(?::uuid[], ?::int[], ?::int[]) AS d(card_id, copies, cards)
+            JOIN card_stat_keys k ON k.card_id = d.card_id
+            GROUP BY k.facet, k.value
+            ORDER BY k.facet, k.value
+            ON CONFLICT (user_id, facet, value) DO UPDATE SET
+                copies = binder_stats.copies + EXCLUDED.copies, cards = binder_stats.cards + EXCLUDED.cards
+            """;
+
+    // Recomputes a user's rows from the binder; SET rather than add, so a concurrent write that
+    // already counted its change is not counted twice
+    private static final String DELETE_STATS = "DELETE FROM binder_stats WHERE user_id = ?";
+    private static final String REBUILD_STATS = """
+            INSERT INTO binder_stats (user_id, facet, value, copies, cards)
+            SELECT b.user_id, k.facet, k.value, SUM(b.quantity), COUNT(*)
+            FROM binders b
+            JOIN card_stat_keys k ON k.card_id = b.card_id
+            WHERE b.user_id = ?
+            GROUP BY b.user_id, k.facet, k.value
+            ORDER BY k.facet, k.value
+            ON CONFLICT (user_id, facet, value) DO UPDATE SET copies = EXCLUDED.copies, cards = EXCLUDED.cards
+            """;
+
+    private static final String DELETE_ALL_STATS = "DELETE FROM binder_stats";
+    private static final String REBUILD_ALL_STATS = """
+            INSERT INTO binder_stats (user_id, facet, value, copies, cards)
+            SELECT b.user_id, k.facet, k.value, SUM(b.quantity), COUNT(*)
+            FROM binders b
+            JOIN card_stat_keys k ON k.card_id = b.card_id
+            GROUP BY b.user_id, k.facet, k.value
+            ORDER BY b.user_id, k.facet, k.value
+            ON CONFLICT (user_id, facet, value) DO UPDATE SET copies = EXCLUDED.copies, cards = EXCLUDED.cards
+            """;
+
+    private static final String FIND_STATS =
+            "SELECT facet, value, copies, cards FROM binder_stats WHERE user_id = ? AND copies > 0";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CollectionStatsService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Adds one card's binder change onto the user's stats. Must run in the transaction that made the change.
+     */
+    public void recordChange(Long userId, UUID cardId, int copies, int cards) {
+        recordChanges(userId, List.of(new CardStatsDelta(cardId, copies, cards)));
+    }
+
+    /**
+     * Adds several cards' binder changes onto the user's stats with one statement.
+     * Must run in the transaction that made the changes.
+     */
+    public void recordChanges(Long userId, List<CardStatsDelta> deltas) {
+        if (deltas.isEmpty()) return;
+        UUID[] cardIds = new UUID[deltas.size()];
+        Integer[] copies = new Integer[deltas.size()];
+        Integer[] cards = new Integer[deltas.size()];
+        for (int i = 0; i < deltas.size(); i++) {
+            cardIds[i] = deltas.get(i).cardId();
+            copies[i] = deltas.get(i).copies();
+            cards[i] = deltas.get(i).cards();
+        }
+        jdbcTemplate.update(APPLY_DELTAS, ps -> {
+            ps.setLong(1, userId);
+            ps.setArray(2, ps.getConnection().createArrayOf("uuid", cardIds));
+            ps.setArray(3, ps.getConnection().createArrayOf("integer", copies));
+            ps.setArray(4, ps.getConnection().createArrayOf("integer", cards));
+        });
+    }
+
+    /**
+     * Recomputes the user's stats from their whole binder, for writes that replace much of it at once.
+     * Must run in the transaction that made the changes.
+     */
+    public void rebuild(Long userId) {
+        jdbcTemplate.update(DELETE_STATS, userId);
+        jdbcTemplate.update(REBUILD_STATS, userId);
+    }
+
+    /**
+     * Recomputes every user's stats from the binders. A card import can change the rarity, set, colors
+     * or mana value of cards people already own, which moves them between stats rows.
+     */
+    @Transactional
+    public void rebuildAll() {
+        long start = System.nanoTime();
+        jdbcTemplate.update(DELETE_ALL_STATS);
+        int rows = jdbcTemplate.update(REBUILD_ALL_STATS);
+        System.out.printf("Rebuilt %d collection stats rows in %.3fs%n", rows, (System.nanoTime() - start) / 1_000_000_000.0);
+    }
+
+    /**
+     * @param userId The ID of the user.
+     * @return The user's collection totals; all zero for an empty binder or an unknown user.
+     */
+    public CollectionStats getStats(Long userId) {
+        long[] total = new long[2];
+        Map<String, List<Map.Entry<String, CollectionStatCount>>> byFacet = new LinkedHashMap<>();
+        FACETS.forEach(facet -> byFacet.put(facet, new ArrayList<>()));
+        jdbcTemplate.query(FIND_STATS, rs -> {
+            String facet = rs.getString("facet");
+            CollectionStatCount count = new CollectionStatCount(rs.getLong("copies"), rs.getInt("cards"));
+            if (facet.equals("total")) {
+                total[0] = count.copies();
+                total[1] = count.cards();
+            } else if (byFacet.containsKey(facet)) {
+                byFacet.get(facet).add(Map.entry(rs.getString("value"), count));
+            }
+        }, userId);
+
+        Map<String, Map<String, CollectionStatCount>> facets = new LinkedHashMap<>();
+        byFacet.forEach((facet, entries) -> {
+            entries.sort(orderFor(facet));
+            Map<String, CollectionStatCount> values = new LinkedHashMap<>();
+            entries.forEach(entry -> values.put(entry.getKey(), entry.getValue()));
+            facets.put(facet, values);
+        });
+        return new CollectionStats(total[0], (int) total[1], facets);
+    }
+
+    private static Comparator<Map.Entry<String, CollectionStatCount>> orderFor(String facet) {
+        return switch (facet) {
+            case "color" -> Comparator.comparingInt(e -> COLOR_ORDER.indexOf(e.getKey()));
+            case "cmc" -> Comparator.comparingInt(e -> e.getKey().equals("7+") ? Integer.MAX_VALUE : Integer.parseInt(e.getKey()));
+            default -> Comparator.<Map.Entry<String, CollectionStatCount>>comparingLong(e -> e.getValue().copies()).reversed()
+                    .thenComparing(Map.Entry::getKey);
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.abrams.magic_db.service.collection;
+
+import java.util.UUID;
+
+/**
+ * One binder entry a sync changes.
+ * @param cardId The card printing.
+ * @param from The quantity in the binder before the sync (0 if there was no entry).
+ * @param to The quantity in the snapshot (0 if the entry is deleted).
+ */
+public record CollectionSyncChange(UUID cardId, int from, int to) {
+}
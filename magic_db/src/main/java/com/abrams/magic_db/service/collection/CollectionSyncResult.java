@@ -0,0 +1,42 @@
+package com.abrams.magic_db.service.collection;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The difference between a binder and a snapshot of it, and whether it was applied.
+ */
+@Data
+@NoArgsConstructor
+public class CollectionSyncResult {
+
+    /**
+     * True if the diff was only computed, not applied.
+     */
+    private boolean dryRun;
+
+    /**
+     * Distinct card printings in the snapshot.
+     */
+    private int snapshotCards;
+
+    /**
+     * Binder entries that already matched the snapshot.
+     */
+    private int unchanged;
+
+    private List<CollectionSyncChange> inserts = new ArrayList<>();
+    private List<CollectionSyncChange> updates = new ArrayList<>();
+    private List<CollectionSyncChange> deletes = new ArrayList<>();
+
+    /**
+     * Snapshot card ids that match no card; they are left out of the binder.
+     */
+    private List<UUID> unknownCardIds = new ArrayList<>();
+
+    private double seconds;
+}
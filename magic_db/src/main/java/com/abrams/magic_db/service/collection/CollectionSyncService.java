@@ -0,0 +1,190 @@
+package com.abrams.magic_db.service.collection;
+
+import com.abrams.magic_db.repository.CardRepository;
+import com.abrams.magic_db.repository.UserRepository;
+import com.abrams.magic_db.service.BatchTooLargeException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Makes a user's binder match a full snapshot of (card id, quantity) uploaded by the client.
+ *
+ * <p>The current binder is read into a hash map with one query and diffed against the snapshot, so
+ * the cost is linear in the two sizes; the diff is what a dry run reports. Applying it does not trust
+ * that read, though: every snapshot entry is upserted with its quantity, in set-based statements over
+ * arrays of up to {@link #WRITE_BATCH_SIZE} rows, and one statement deletes every other entry of the
+ * user. Rows that already hold the right quantity are left untouched. So the snapshot wins over
+ * whatever the binder held, including rows added, changed or deleted by other requests after the read.
+ */
+@Service
+public class CollectionSyncService {
+
+    public static final int MAX_SNAPSHOT_SIZE = 100_000;
+    public static final int WRITE_BATCH_SIZE = 5000;
+
+    // Keeps each IN list well below PostgreSQL's limit of 32767 bind parameters per statement
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    private static final String FIND_BINDER = "SELECT card_id, quantity FROM binders WHERE user_id = ?";
+
+    // Covers rows added or deleted since the binder was read; rows already matching are not rewritten
+    private static final String UPSERT_ENTRIES = """
+            INSERT INTO binders (user_id, card_id, quantity)
+            SELECT ?, t.card_id, t.quantity FROM unnest(?::uuid[], ?::int[]) AS t(card_id, quantity)
+            ON CONFLICT (user_id, card_id) DO UPDATE SET quantity = EXCLUDED.quantity
+            WHERE binders.quantity <> EXCLUDED.quantity
+            """;
+
+    // Everything not in the snapshot, including rows added since the binder was read
+    private static final String DELETE_OTHER_ENTRIES = "DELETE FROM binders WHERE user_id = ? AND card_id <> ALL(?::uuid[])";
+
+    private final CardRepository cardRepository;
+    private final UserRepository userRepository;
+    private final CollectionStatsService collectionStatsService;
+    private final JdbcTemplate jdbcTemplate;
+
+    public CollectionSyncService(CardRepository cardRepository, UserRepository userRepository,
+                                 CollectionStatsService collectionStatsService, JdbcTemplate jdbcTemplate) {
+        this.cardRepository = cardRepository;
+        this.userRepository = userRepository;
+        this.collectionStatsService = collectionStatsService;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Diffs the user's binder against a snapshot and, unless this is a dry run, applies the difference.
+     * Entries for the same card are added together; a quantity of 0 means the card is not owned.
+     * * @param userId The ID of the user.
+     * @param snapshot Every card the user owns, with its quantity.
+     * @param dryRun Whether to only compute the diff.
+     * @return The inserts, updates and deletes, and any snapshot card ids that match no card.
+     * @throws RuntimeException if the user is not found.
+     * @throws InvalidSnapshotException if an entry has no card id or a negative quantity, or a card's
+     *                                   entries add up to more than {@link CollectionParser#MAX_QUANTITY}.
+     * @throws BatchTooLargeException if the snapshot has more than {@link #MAX_SNAPSHOT_SIZE} entries.
+     */
+    @Transactional
+    public CollectionSyncResult sync(Long userId, List<SnapshotEntry> snapshot, boolean dryRun) {
+        long start = System.nanoTime();
+        if (!userRepository.existsById(userId)) throw new RuntimeException("User not found");
+        if (snapshot.size() > MAX_SNAPSHOT_SIZE) {
+            throw new BatchTooLargeException(snapshot.size(), MAX_SNAPSHOT_SIZE);
+        }
+        Map<UUID, Integer> wanted = new LinkedHashMap<>();
+        for (SnapshotEntry entry : snapshot) {
+            if (entry.cardId() == null) throw new InvalidSnapshotException("Snapshot entry without a card id");
+            if (entry.quantity() < 0) {
+                throw new InvalidSnapshotException("Negative quantity for card " + entry.cardId());
+            }
+            int total = wanted.getOrDefault(entry.cardId(), 0) + Math.min(entry.quantity(), CollectionParser.MAX_QUANTITY + 1);
+            if (total > CollectionParser.MAX_QUANTITY) {
+                throw new InvalidSnapshotException("Quantity for card " + entry.cardId() + " is more than "
+                        + CollectionParser.MAX_QUANTITY);
+            }
+            wanted.put(entry.cardId(), total);
+        }
+
+        Map<UUID, Integer> current = new HashMap<>();
+        jdbcTemplate.query(FIND_BINDER,
+                rs -> { current.put(rs.getObject("card_id", UUID.class), rs.getInt("quantity")); }, userId);
+
+        CollectionSyncResult result = new CollectionSyncResult();
+        result.setDryRun(dryRun);
+        result.setSnapshotCards(wanted.size());
+        List<UUID> newCardIds = new ArrayList<>();
+        for (Map.Entry<UUID, Integer> entry : wanted.entrySet()) {
+            Integer owned = current.get(entry.getKey());
+            int quantity = entry.getValue();
+            if (owned == null) {
+                if (quantity > 0) newCardIds.add(entry.getKey());
+            } else if (quantity == 0) {
+                result.getDeletes().add(new CollectionSyncChange(entry.getKey(), owned, 0));
+            } else if (quantity != owned) {
+                result.getUpdates().add(new CollectionSyncChange(entry.getKey(), owned, quantity));
+            } else {
+                result.setUnchanged(result.getUnchanged() + 1);
+            }
+        }
+        for (Map.Entry<UUID, Integer> entry : current.entrySet()) {
+            if (!wanted.containsKey(entry.getKey())) {
+                result.getDeletes().add(new CollectionSyncChange(entry.getKey(), entry.getValue(), 0));
+            }
+        }
+        // Only cards not in the binder yet need checking; the rest are known through the foreign key
+        Set<UUID> known = findExistingIds(newCardIds);
+        for (UUID cardId : newCardIds) {
+            if (known.contains(cardId)) {
+                result.getInserts().add(new CollectionSyncChange(cardId, 0, wanted.get(cardId)));
+            } else {
+                result.getUnknownCardIds().add(cardId);
+            }
+        }
+
+        // Applied even when the read showed no difference, since the binder may have changed since
+        if (!dryRun) {
+            apply(userId, wanted, new HashSet<>(result.getUnknownCardIds()));
+            collectionStatsService.rebuild(userId);
+        }
+        result.setSeconds((System.nanoTime() - start) / 1_000_000_000.0);
+        System.out.printf("%s binder of user %d: %d inserts, %d updates, %d deletes, %d unchanged in %.3fs%n",
+                dryRun ? "Diffed" : "Synced", userId, result.getInserts().size(), result.getUpdates().size(),
+                result.getDeletes().size(), result.getUnchanged(), result.getSeconds());
+        return result;
+    }
+
+    // Writes the snapshot itself rather than the diff, which may be stale by now
+    private void apply(Long userId, Map<UUID, Integer> wanted, Set<UUID> unknown) {
+        List<CollectionSyncChange> kept = new ArrayList<>();
+        wanted.forEach((cardId, quantity) -> {
+            if (quantity > 0 && !unknown.contains(cardId)) kept.add(new CollectionSyncChange(cardId, 0, quantity));
+        });
+        for (List<CollectionSyncChange> batch : batches(kept, WRITE_BATCH_SIZE)) {
+            UUID[] cardIds = cardIds(batch);
+            Integer[] quantities = quantities(batch);
+            jdbcTemplate.update(UPSERT_ENTRIES, ps -> {
+                ps.setLong(1, userId);
+                ps.setArray(2, ps.getConnection().createArrayOf("uuid", cardIds));
+                ps.setArray(3, ps.getConnection().createArrayOf("integer", quantities));
+            });
+        }
+        UUID[] keptIds = cardIds(kept);
+        jdbcTemplate.update(DELETE_OTHER_ENTRIES, ps -> {
+            ps.setLong(1, userId);
+            ps.setArray(2, ps.getConnection().createArrayOf("uuid", keptIds));
+        });
+    }
+
+    private Set<UUID> findExistingIds(List<UUID> cardIds) {
+        Set<UUID> existing = new HashSet<>();
+        for (List<UUID> chunk : batches(cardIds, LOOKUP_CHUNK_SIZE)) {
+            existing.addAll(cardRepository.findExistingIds(chunk));
+        }
+        return existing;
+    }
+
+    private static UUID[] cardIds(List<CollectionSyncChange> changes) {
+        return changes.stream().map(CollectionSyncChange::cardId).toArray(UUID[]::new);
+    }
+
+    private static Integer[] quantities(List<CollectionSyncChange> changes) {
+        return changes.stream().map(CollectionSyncChange::to).toArray(Integer[]::new);
+    }
+
+    private static <T> List<List<T>> batches(List<T> values, int size) {
+        List<List<T>> batches = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += size) {
+            batches.add(values.subList(from, Math.min(values.size(), from + size)));
+        }
+        return batches;
+    }
+}
@@ -0,0 +1,16 @@
+package com.abrams.magic_db.service.collection;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a binder snapshot has an entry without a card id or with a negative quantity.
+ * Nothing is synced, since skipping the entry would delete the card from the binder.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidSnapshotException extends RuntimeException {
+
+    public InvalidSnapshotException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.abrams.magic_db.service.collection;
+
+import java.util.List;
+
+/**
+ * The card entries read from a collection, and the lines that could not be read.
+ */
+public record ParsedCollection(List<CollectionLine> lines, List<CollectionLineError> errors) {
+}
@@ -0,0 +1,9 @@
+package com.abrams.magic_db.service.collection;
+
+import java.util.UUID;
+
+/**
+ * One line of a binder snapshot: the number of copies of a card printing the user owns.
+ */
+public record SnapshotEntry(UUID cardId, int quantity) {
+}
@@ -0,0 +1,16 @@
+package com.abrams.magic_db.service.image;
+
+/**
+ * An encoded image, its MIME type and the version of the source image it was made from,
+ * as served by the image endpoint.
+ */
+public record CachedImage(byte[] data, String contentType, String version) {
+
+    /**
+     * Works out the MIME type from the image's magic number; Scryfall serves JPEGs and a few PNGs.
+     */
+    public static CachedImage of(byte[] data, String version) {
+        boolean png = data.length > 3 && (data[0] & 0xFF) == 0x89 && data[1] == 'P' && data[2] == 'N' && data[3] == 'G';
+        return new CachedImage(data, png ? "image/png" : "image/jpeg", version);
+    }
+}
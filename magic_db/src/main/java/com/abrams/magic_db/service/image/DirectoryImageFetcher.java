@@ -0,0 +1,30 @@
+package com.abrams.magic_db.service.image;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reads images from a local mirror of the CDN: the path of the image URL is resolved
+ * against a root directory, e.g. {@code https://cards.scryfall.io/normal/front/a/b/x.jpg}
+ * is read from {@code <root>/normal/front/a/b/x.jpg}.
+ */
+public class DirectoryImageFetcher implements ImageFetcher {
+
+    private final Path root;
+
+    public DirectoryImageFetcher(Path root) {
+        this.root = root.toAbsolutePath().normalize();
+    }
+
+    @Override
+    public byte[] fetch(String imageUrl) throws IOException {
+        String path = URI.create(imageUrl).getPath();
+        Path file = root.resolve(path.startsWith("/") ? path.substring(1) : path).normalize();
+        if (!file.startsWith(root)) {
+            throw new IOException("Image path escapes the image directory: " + imageUrl);
+        }
+        return Files.readAllBytes(file);
+    }
+}
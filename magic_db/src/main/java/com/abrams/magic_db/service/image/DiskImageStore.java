@@ -0,0 +1,152 @@
+package com.abrams.magic_db.service.image;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * A directory of cached images bounded by total size. When a write pushes the directory over
+ * its limit, the least recently used files are deleted. Recency survives restarts through the
+ * files' modification times. Safe to use from several request threads; only the index is locked,
+ * file contents are read and written outside the lock.
+ */
+public class DiskImageStore {
+
+    private final Path directory;
+    private final long maxBytes;
+
+    // Access-ordered: iteration starts at the least recently used key
+    private final LinkedHashMap<String, Long> sizes = new LinkedHashMap<>(1024, 0.75f, true);
+    private long totalBytes;
+
+    /**
+     * Opens the store, creating the directory if needed and indexing the files already in it.
+     * @param directory Where the images are kept.
+     * @param maxBytes The most the directory may hold before old images are evicted.
+     */
+    public DiskImageStore(Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(Files::isRegularFile)
+                        .filter(file -> !file.getFileName().toString().endsWith(".tmp"))
+                        .sorted(Comparator.comparing(DiskImageStore::lastModified))
+                        .forEach(file -> {
+                            long size = file.toFile().length();
+                            sizes.put(file.getFileName().toString(), size);
+                            totalBytes += size;
+                        });
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open image cache at " + directory, e);
+        }
+        evictOverflow();
+        System.out.printf("Image cache at %s: %d files, %d MB of %d MB%n",
+                directory, sizes.size(), totalBytes / (1024 * 1024), maxBytes / (1024 * 1024));
+    }
+
+    /**
+     * @param key The file name of the image.
+     * @return The image, or empty if it is not cached.
+     */
+    public Optional<byte[]> get(String key) {
+        synchronized (this) {
+            if (sizes.get(key) == null) return Optional.empty();
+        }
+        Path file = directory.resolve(key);
+        try {
+            byte[] data = Files.readAllBytes(file);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return Optional.of(data);
+        } catch (NoSuchFileException e) {
+            // Evicted between the index lookup and the read
+            forget(key);
+            return Optional.empty();
+        } catch (IOException e) {
+            System.err.println("Failed to read cached image " + key + " - " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores an image, replacing any previous version, and evicts old images if the store is full.
+     * @param key The file name of the image.
+     * @param data The encoded image.
+     */
+    public void put(String key, byte[] data) {
+        Path file = directory.resolve(key);
+        Path temp = directory.resolve(key + "." + Thread.currentThread().getId() + ".tmp");
+        try {
+            Files.write(temp, data);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Failed to cache image " + key + " - " + e.getMessage());
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // Left for the next restart to skip
+            }
+            return;
+        }
+        synchronized (this) {
+            Long previous = sizes.put(key, (long) data.length);
+            totalBytes += data.length - (previous != null ? previous : 0);
+        }
+        evictOverflow();
+    }
+
+    public synchronized int getFileCount() {
+        return sizes.size();
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    private synchronized void forget(String key) {
+        Long size = sizes.remove(key);
+        if (size != null) totalBytes -= size;
+    }
+
+    private void evictOverflow() {
+        List<String> evicted = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Map.Entry<String, Long>> it = sizes.entrySet().iterator();
+            while (totalBytes > maxBytes && it.hasNext()) {
+                Map.Entry<String, Long> eldest = it.next();
+                totalBytes -= eldest.getValue();
+                evicted.add(eldest.getKey());
+                it.remove();
+            }
+        }
+        for (String key : evicted) {
+            try {
+                Files.deleteIfExists(directory.resolve(key));
+            } catch (IOException e) {
+                System.err.println("Failed to evict cached image " + key + " - " + e.getMessage());
+            }
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.abrams.magic_db.service.image;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+
+/**
+ * Downloads images straight from the URL stored on the card face.
+ */
+public class HttpImageFetcher implements ImageFetcher {
+
+    private static final int TIMEOUT_MILLIS = 10_000;
+
+    @Override
+    public byte[] fetch(String imageUrl) throws IOException {
+        URLConnection connection = new URL(imageUrl).openConnection();
+        connection.setConnectTimeout(TIMEOUT_MILLIS);
+        connection.setReadTimeout(TIMEOUT_MILLIS);
+        try (InputStream in = connection.getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+}
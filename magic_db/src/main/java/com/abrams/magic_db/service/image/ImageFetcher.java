@@ -0,0 +1,17 @@
+package com.abrams.magic_db.service.image;
+
+import java.io.IOException;
+
+/**
+ * Loads the original bytes of a card face image. The CDN is the usual source; a local
+ * directory can stand in for it in tests or on hosts without network access.
+ */
+public interface ImageFetcher {
+
+    /**
+     * @param imageUrl The remote URL stored on the card face.
+     * @return The encoded image (JPEG or PNG).
+     * @throws IOException if the image cannot be loaded.
+     */
+    byte[] fetch(String imageUrl) throws IOException;
+}
@@ -0,0 +1,203 @@
+package com.abrams.magic_db.service.image;
+
+import com.abrams.magic_db.repository.CardFaceRepository;
+import com.abrams.magic_db.repository.CardFaceRepository.FaceImageView;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serves card face images from a local, size-bounded disk cache. Each image is fetched from
+ * the CDN (or a local mirror) once, and its thumbnail is generated from that copy. Cached files
+ * are keyed by face and a hash of the face's image URL, so a re-import that points a face at a
+ * new image is picked up instead of serving the old file; the old files age out of the cache.
+ */
+@Service
+public class ImageService {
+
+    private final CardFaceRepository cardFaceRepository;
+    private final ImageFetcher fetcher;
+    private final DiskImageStore store;
+    private final long prefetchDelayMillis;
+
+    private final ExecutorService prefetchExecutor =
+            Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "image-prefetch"));
+    private final AtomicBoolean prefetching = new AtomicBoolean();
+
+    public ImageService(CardFaceRepository cardFaceRepository,
+                        @Value("${images.cache-dir}") String cacheDir,
+                        @Value("${images.max-megabytes}") long maxMegabytes,
+                        @Value("${images.source-dir:}") String sourceDir,
+                        @Value("${images.prefetch-delay-ms}") long prefetchDelayMillis) {
+        this.cardFaceRepository = cardFaceRepository;
+        this.store = new DiskImageStore(Path.of(cacheDir), maxMegabytes * 1024 * 1024);
+        this.fetcher = sourceDir.isBlank() ? new HttpImageFetcher() : new DirectoryImageFetcher(Path.of(sourceDir));
+        this.prefetchDelayMillis = prefetchDelayMillis;
+    }
+
+    /**
+     * Tells which source image a face currently has without reading or fetching it, so a client's
+     * copy can be validated cheaply.
+     * @param faceId The ID of the card face.
+     * @return A short hash of the face's image URL; it changes whenever the URL does.
+     * @throws RuntimeException if the face is not found or has no image.
+     */
+    public String getImageVersion(Long faceId) {
+        return version(findImageUrl(faceId));
+    }
+
+    /**
+     * Returns an image of a card face, fetching and caching it on first use.
+     * @param faceId The ID of the card face.
+     * @param size The rendition to return.
+     * @return The encoded image.
+     * @throws RuntimeException if the face is not found, has no image, or the image cannot be fetched.
+     */
+    public CachedImage getImage(Long faceId, ImageSize size) {
+        String imageUrl = findImageUrl(faceId);
+        String version = version(imageUrl);
+        Optional<byte[]> cached = store.get(key(faceId, version, size));
+        if (cached.isPresent()) return CachedImage.of(cached.get(), version);
+
+        try {
+            return CachedImage.of(load(faceId, imageUrl, size), version);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not load image for card face " + faceId, e);
+        }
+    }
+
+    /**
+     * Starts caching the original and thumbnail of every face image in the background, skipping
+     * the ones already cached. Requests are spaced out to stay within the CDN's rate limits.
+     * @return False if a prefetch is already running.
+     */
+    public boolean startPrefetch() {
+        if (!prefetching.compareAndSet(false, true)) return false;
+        prefetchExecutor.execute(() -> {
+            try {
+                prefetchAll();
+            } finally {
+                prefetching.set(false);
+            }
+        });
+        return true;
+    }
+
+    public boolean isPrefetching() {
+        return prefetching.get();
+    }
+
+    public int getCachedFileCount() {
+        return store.getFileCount();
+    }
+
+    public long getCachedBytes() {
+        return store.getTotalBytes();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        prefetchExecutor.shutdownNow();
+    }
+
+    private void prefetchAll() {
+        List<FaceImageView> faces = cardFaceRepository.findAllImageUrls();
+        System.out.println("Prefetching images for " + faces.size() + " card faces...");
+        int fetched = 0, failed = 0;
+        for (FaceImageView face : faces) {
+            if (Thread.currentThread().isInterrupted()) return;
+            if (store.get(key(face.getId(), version(face.getImageUrl()), ImageSize.THUMB)).isPresent()) continue;
+            try {
+                load(face.getId(), face.getImageUrl(), ImageSize.THUMB);
+                fetched++;
+                Thread.sleep(prefetchDelayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException e) {
+                failed++;
+                System.err.println("Failed to prefetch image for face " + face.getId() + " - " + e.getMessage());
+            }
+        }
+        System.out.println("Image prefetch done: " + fetched + " fetched, " + failed + " failed");
+    }
+
+    private String findImageUrl(Long faceId) {
+        return cardFaceRepository.findImageUrlById(faceId)
+                .orElseThrow(() -> new RuntimeException("Card face has no image"));
+    }
+
+    /**
+     * Fetches the original if it is not cached yet, stores it, and derives the requested size from it.
+     */
+    private byte[] load(Long faceId, String imageUrl, ImageSize size) throws IOException {
+        String version = version(imageUrl);
+        String originalKey = key(faceId, version, ImageSize.NORMAL);
+        byte[] original = store.get(originalKey).orElse(null);
+        if (original == null) {
+            original = fetcher.fetch(imageUrl);
+            store.put(originalKey, original);
+        }
+        if (size == ImageSize.NORMAL) return original;
+
+        byte[] resized = resize(original, size.getWidth());
+        store.put(key(faceId, version, size), resized);
+        return resized;
+    }
+
+    /**
+     * Scales an image down to the given width as a JPEG, halving it in steps first so the
+     * bilinear filter does not skip pixels.
+     */
+    private static byte[] resize(byte[] original, int width) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(original));
+        if (image == null) throw new IOException("Unsupported image format");
+
+        int targetHeight = Math.max(1, Math.round(image.getHeight() * (width / (float) image.getWidth())));
+        while (image.getWidth() > width) {
+            int stepWidth = Math.max(width, image.getWidth() / 2);
+            int stepHeight = stepWidth == width ? targetHeight : Math.max(1, image.getHeight() / 2);
+            BufferedImage scaled = new BufferedImage(stepWidth, stepHeight, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = scaled.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(image, 0, 0, stepWidth, stepHeight, null);
+            g.dispose();
+            image = scaled;
+        }
+        if (image.getType() != BufferedImage.TYPE_INT_RGB) {
+            // Small PNGs skip the loop; JPEG has no alpha channel
+            BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = rgb.createGraphics();
+            g.drawImage(image, 0, 0, null);
+            g.dispose();
+            image = rgb;
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", out);
+        return out.toByteArray();
+    }
+
+    private static String key(Long faceId, String version, ImageSize size) {
+        return faceId + "-" + version + "-" + size.name().toLowerCase() + ".img";
+    }
+
+    // Changes whenever the face's image URL does
+    private static String version(String imageUrl) {
+        return Integer.toHexString(imageUrl.hashCode());
+    }
+}
@@ -0,0 +1,30 @@
+package com.abrams.magic_db.service.image;
+
+/**
+ * The renditions of a card face image kept in the local image cache.
+ */
+public enum ImageSize {
+
+    /**
+     * The image as fetched from the CDN (Scryfall's "normal", 488 px wide).
+     */
+    NORMAL(0),
+
+    /**
+     * A scaled-down copy for grids and lists.
+     */
+    THUMB(146);
+
+    private final int width;
+
+    ImageSize(int width) {
+        this.width = width;
+    }
+
+    /**
+     * @return The target width in pixels, or 0 to keep the original size.
+     */
+    public int getWidth() {
+        return width;
+    }
+}
@@ -0,0 +1,38 @@
+package com.abrams.magic_db.service.importer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * A place the Scryfall bulk file can be read from. Every source hands the import the same
+ * decompressed JSON stream, so parsing and writing do not care where the bytes came from.
+ */
+public interface BulkDataSource {
+
+    int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Opens the bulk file and registers its raw (possibly compressed) bytes with the stats for progress.
+     * @param stats Receives the counting stream and the raw size of the file.
+     * @return The decompressed JSON; the caller closes it.
+     */
+    InputStream open(ImportStats stats) throws IOException;
+
+    /**
+     * @return A short description of the source for log output, e.g. the URL or path.
+     */
+    String describe();
+
+    /**
+     * Counts the raw bytes for progress reporting, then decompresses them if needed.
+     * @param raw The stream as it comes off the disk or network.
+     * @param length The size of the raw stream, or -1 if unknown.
+     * @param gzip Whether the raw stream is gzip-compressed.
+     */
+    static InputStream track(InputStream raw, long length, boolean gzip, ImportStats stats) throws IOException {
+        CountingInputStream counting = new CountingInputStream(raw);
+        stats.trackInput(counting, length);
+        return gzip ? new GZIPInputStream(counting, GZIP_BUFFER_SIZE) : counting;
+    }
+}
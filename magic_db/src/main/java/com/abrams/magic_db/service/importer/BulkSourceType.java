@@ -0,0 +1,22 @@
+package com.abrams.magic_db.service.importer;
+
+/**
+ * Where the Scryfall bulk file is read from during an import.
+ */
+public enum BulkSourceType {
+
+    /**
+     * Downloads the bulk file from Scryfall, gzip-encoded when the server supports it.
+     */
+    HTTP,
+
+    /**
+     * Reads an already-downloaded bulk file from disk, plain or gzipped ({@code .gz}).
+     */
+    FILE,
+
+    /**
+     * Memory-maps an already-downloaded bulk file, so reads are served straight from the page cache.
+     */
+    MAPPED
+}
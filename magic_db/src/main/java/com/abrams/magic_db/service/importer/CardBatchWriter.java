@@ -0,0 +1,43 @@
+package com.abrams.magic_db.service.importer;
+
+import com.abrams.magic_db.model.Card;
+import com.abrams.magic_db.model.Set;
+
+import java.util.List;
+
+/**
+ * Destination for the sets and cards produced by an import. Implementations decide
+ * how (and when) the rows actually reach the database.
+ */
+public interface CardBatchWriter extends AutoCloseable {
+
+    /**
+     * Writes a set that was not yet known when the import started. Callers make a set
+     * durable no later than the first card that references it, either in the same unit of
+     * work or, when several writers commit independently, before the cards are handed out.
+     */
+    void writeSet(Set set);
+
+    /**
+     * Writes a batch of cards together with their faces. The list may be reused by
+     * the caller once this returns.
+     */
+    void writeCards(List<Card> cards);
+
+    /**
+     * Records that every card before the given ordinal is handled for the given job. The checkpoint
+     * becomes durable together with the cards written in the same unit of work.
+     */
+    void writeCheckpoint(Long jobId, long nextOrdinal);
+
+    /**
+     * Makes everything written so far durable.
+     */
+    void finish();
+
+    /**
+     * Releases any resources held by the writer. Work that was not finished is discarded.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,65 @@
+package com.abrams.magic_db.service.importer;
+
+import com.abrams.magic_db.model.Card;
+import com.abrams.magic_db.model.CardFace;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Computes the content fingerprint stored in {@link Card#getContentHash()}. Every imported
+ * column of the card and of each of its faces feeds the hash, so any change Scryfall makes
+ * to a printing produces a different value.
+ */
+public final class CardContentHash {
+
+    private static final char FIELD_SEPARATOR = '\u001f';
+    private static final char NULL_MARKER = '\u0000';
+
+    private CardContentHash() {
+    }
+
+    /**
+     * @param card A fully built card, including its faces.
+     * @return The first 64 bits of a SHA-256 digest over the card's imported fields.
+     */
+    public static long of(Card card) {
+        StringBuilder sb = new StringBuilder(512);
+        append(sb, card.getOracleId());
+        append(sb, card.getName());
+        append(sb, card.getSetCode());
+        append(sb, card.getCollectorNumber());
+        append(sb, card.getRarity());
+        append(sb, card.getLayout());
+        append(sb, card.getColorIdentity());
+        if (card.getFaces() != null) {
+            for (CardFace face : card.getFaces()) {
+                append(sb, face.getFaceIndex());
+                append(sb, face.getName());
+                append(sb, face.getManaCost());
+                append(sb, face.getCmc());
+                append(sb, face.getTypeLine());
+                append(sb, face.getOracleText());
+                append(sb, face.getColors());
+                append(sb, face.getPower());
+                append(sb, face.getToughness());
+                append(sb, face.getImageUrl());
+            }
+        }
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM is required to ship SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void append(StringBuilder sb, Object value) {
+        sb.append(value == null ? NULL_MARKER : value.toString()).append(FIELD_SEPARATOR);
+    }
+}
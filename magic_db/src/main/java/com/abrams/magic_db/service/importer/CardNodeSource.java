@@ -0,0 +1,16 @@
+package com.abrams.magic_db.service.importer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Supplies the card objects of a Scryfall bulk file, one JsonNode per card, in file order.
+ * Each node comes with its ordinal, its zero-based position in the file's card array.
+ */
+@FunctionalInterface
+public interface CardNodeSource {
+
+    void forEach(ObjLongConsumer<JsonNode> action) throws IOException;
+}
@@ -0,0 +1,252 @@
+package com.abrams.magic_db.service.importer;
+
+import com.abrams.magic_db.model.Card;
+import com.abrams.magic_db.model.CardFace;
+import com.abrams.magic_db.model.Set;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Bulk loads cards with PostgreSQL COPY. Rows are streamed into session-local staging
+ * tables on a dedicated connection and merged into {@code sets}, {@code cards} and
+ * {@code card_faces} with a handful of set-based statements when {@link #finish()} is called.
+ * Nothing is visible to other sessions until then, and a checkpoint written in between
+ * commits atomically with the merge.
+ */
+public class CopyCardBatchWriter implements CardBatchWriter {
+
+    // ON COMMIT DELETE ROWS keeps the tables around for the session so a pooled connection can reuse them
+    private static final String CREATE_STAGING_TABLES = """
+            CREATE TEMP TABLE IF NOT EXISTS sets_stage (
+                code text, name text, release_date date
+            ) ON COMMIT DELETE ROWS;
+            CREATE TEMP TABLE IF NOT EXISTS cards_stage (
+                id uuid, oracle_id uuid, name text, set_code text,
+                collector_number text, rarity text, layout text, content_hash bigint,
+                color_mask smallint, color_identity smallint
+            ) ON COMMIT DELETE ROWS;
+            CREATE TEMP TABLE IF NOT EXISTS card_faces_stage (
+                card_id uuid, face_index int, name text, mana_cost text, cmc double precision,
+                type_line text, oracle_text text, colors text[], color_mask smallint, power text, toughness text,
+                image_url text
+            ) ON COMMIT DELETE ROWS;
+            """;
+
+    private static final String COPY_SETS = "COPY sets_stage (code, name, release_date) FROM STDIN";
+    private static final String COPY_CARDS = "COPY cards_stage (id, oracle_id, name, set_code, collector_number, rarity, layout, content_hash, "
+            + "color_mask, color_identity) FROM STDIN";
+    private static final String COPY_FACES = "COPY card_faces_stage (card_id, face_index, name, mana_cost, cmc, type_line, "
+            + "oracle_text, colors, color_mask, power, toughness, image_url) FROM STDIN";
+
+    // Faces are matched on (card_id, face_index) so existing face ids survive a re-import. New faces take
+    // their ids the way Hibernate's pooled optimizer does: one nextval per 50 rows (card_faces_seq's
+    // increment), used as the top of a block, rather than the column default burning a block per row
+    private static final String MERGE = """
+            ANALYZE sets_stage;
+            ANALYZE cards_stage;
+            ANALYZE card_faces_stage;
+
+            INSERT INTO sets (code, name, release_date)
+            SELECT DISTINCT ON (code) code, name, release_date FROM sets_stage
+            ON CONFLICT (code) DO NOTHING;
+
+            INSERT INTO cards (id, oracle_id, name, set_code, collector_number, rarity, layout, content_hash, color_mask, color_identity)
+            SELECT DISTINCT ON (id) id, oracle_id, name, set_code, collector_number, rarity, layout, content_hash, color_mask, color_identity
+            FROM cards_stage
+            ON CONFLICT (id) DO UPDATE SET
+                oracle_id = EXCLUDED.oracle_id, name = EXCLUDED.name, set_code = EXCLUDED.set_code,
+                collector_number = EXCLUDED.collector_number, rarity = EXCLUDED.rarity, layout = EXCLUDED.layout,
+                content_hash = EXCLUDED.content_hash, color_mask = EXCLUDED.color_mask, color_identity = EXCLUDED.color_identity;
+
+            UPDATE card_faces f SET
+                name = s.name, mana_cost = s.mana_cost, cmc = s.cmc, type_line = s.type_line,
+                oracle_text = s.oracle_text, colors = s.colors, color_mask = s.color_mask, power = s.power,
+                toughness = s.toughness, image_url = s.image_url
+            FROM card_faces_stage s
+            WHERE f.card_id = s.card_id AND f.face_index = s.face_index;
+
+            WITH new_faces AS MATERIALIZED (
+                SELECT s.*, row_number() OVER () - 1 AS n
+                FROM card_faces_stage s
+                WHERE NOT EXISTS (SELECT 1 FROM card_faces f WHERE f.card_id = s.card_id AND f.face_index = s.face_index)
+            ), id_blocks AS MATERIALIZED (
+                SELECT nextval('card_faces_seq') AS top, row_number() OVER () - 1 AS block
+                FROM generate_series(1, (SELECT (count(*) + 49) / 50 FROM new_faces))
+            )
+            INSERT INTO card_faces (face_id, card_id, face_index, name, mana_cost, cmc, type_line, oracle_text, colors, color_mask, power, toughness, image_url)
+            SELECT b.top - 49 + f.n % 50, f.card_id, f.face_index, f.name, f.mana_cost, f.cmc, f.type_line, f.oracle_text, f.colors, f.color_mask, f.power, f.toughness, f.image_url
+            FROM new_faces f JOIN id_blocks b ON b.block = f.n / 50;
+
+            DELETE FROM card_faces f USING cards_stage c
+            WHERE f.card_id = c.id
+              AND NOT EXISTS (SELECT 1 FROM card_faces_stage s WHERE s.card_id = f.card_id AND s.face_index = f.face_index);
+            """;
+
+    // Same statement as ImportCheckpointRepository.saveCheckpoint, run on this writer's connection
+    private static final String SAVE_CHECKPOINT = """
+            INSERT INTO import_checkpoints (job_id, next_ordinal, updated_at) VALUES (?, ?, now())
+            ON CONFLICT (job_id) DO UPDATE
+            SET next_ordinal = GREATEST(import_checkpoints.next_ordinal, EXCLUDED.next_ordinal), updated_at = now()
+            """;
+
+    private final Connection connection;
+    private final CopyManager copyManager;
+    private final StringBuilder pendingSets = new StringBuilder();
+    private final StringBuilder cardRows = new StringBuilder();
+    private final StringBuilder faceRows = new StringBuilder();
+    private long stagedCards;
+
+    /**
+     * Borrows a connection from the pool and prepares the staging tables on it.
+     * @param dataSource The pool to borrow the connection from.
+     */
+    public CopyCardBatchWriter(DataSource dataSource) {
+        try {
+            this.connection = dataSource.getConnection();
+            this.connection.setAutoCommit(false);
+            this.copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING_TABLES);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Could not prepare COPY staging tables", e);
+        }
+    }
+
+    @Override
+    public void writeSet(Set set) {
+        appendField(pendingSets, set.getCode()).append('\t');
+        appendField(pendingSets, set.getName()).append('\t');
+        appendField(pendingSets, set.getReleaseDate()).append('\n');
+    }
+
+    @Override
+    public void writeCards(List<Card> cards) {
+        for (Card card : cards) {
+            appendField(cardRows, card.getId()).append('\t');
+            appendField(cardRows, card.getOracleId()).append('\t');
+            appendField(cardRows, card.getName()).append('\t');
+            appendField(cardRows, card.getSetCode()).append('\t');
+            appendField(cardRows, card.getCollectorNumber()).append('\t');
+            appendField(cardRows, card.getRarity()).append('\t');
+            appendField(cardRows, card.getLayout()).append('\t');
+            appendField(cardRows, card.getContentHash()).append('\t');
+            appendField(cardRows, card.getColorMask()).append('\t');
+            appendField(cardRows, card.getColorIdentity()).append('\n');
+
+            for (CardFace face : card.getFaces()) {
+                appendField(faceRows, card.getId()).append('\t');
+                appendField(faceRows, face.getFaceIndex()).append('\t');
+                appendField(faceRows, face.getName()).append('\t');
+                appendField(faceRows, face.getManaCost()).append('\t');
+                appendField(faceRows, face.getCmc()).append('\t');
+                appendField(faceRows, face.getTypeLine()).append('\t');
+                appendField(faceRows, face.getOracleText()).append('\t');
+                appendArray(faceRows, face.getColors()).append('\t');
+                appendField(faceRows, face.getColorMask()).append('\t');
+                appendField(faceRows, face.getPower()).append('\t');
+                appendField(faceRows, face.getToughness()).append('\t');
+                appendField(faceRows, face.getImageUrl()).append('\n');
+            }
+        }
+        copy(COPY_CARDS, cardRows);
+        copy(COPY_FACES, faceRows);
+        stagedCards += cards.size();
+    }
+
+    @Override
+    public void writeCheckpoint(Long jobId, long nextOrdinal) {
+        try (PreparedStatement statement = connection.prepareStatement(SAVE_CHECKPOINT)) {
+            statement.setLong(1, jobId);
+            statement.setLong(2, nextOrdinal);
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException("Saving import checkpoint failed", e);
+        }
+    }
+
+    @Override
+    public void finish() {
+        long start = System.nanoTime();
+        try {
+            copy(COPY_SETS, pendingSets);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(MERGE);
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            throw new RuntimeException("Merging staged cards failed", e);
+        }
+        System.out.printf("COPY merge of %d staged cards took %d ms%n",
+                stagedCards, (System.nanoTime() - start) / 1_000_000);
+        stagedCards = 0;
+    }
+
+    @Override
+    public void close() {
+        try {
+            connection.rollback();
+            connection.setAutoCommit(true);
+            connection.close();
+        } catch (SQLException e) {
+            System.err.println("Failed to release COPY connection - " + e.getMessage());
+        }
+    }
+
+    private void copy(String sql, StringBuilder rows) {
+        if (rows.length() == 0) return;
+        try {
+            copyManager.copyIn(sql, new StringReader(rows.toString()));
+        } catch (SQLException | IOException e) {
+            throw new RuntimeException("COPY into staging failed", e);
+        }
+        rows.setLength(0);
+    }
+
+    /**
+     * Appends a value in COPY text format, escaping the characters that would break the row.
+     */
+    private static StringBuilder appendField(StringBuilder sb, Object value) {
+        if (value == null) return sb.append("\\N");
+        String text = value.toString();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\' -> sb.append("\\\\");
+                case '\t' -> sb.append("\\t");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                default -> sb.append(c);
+            }
+        }
+        return sb;
+    }
+
+    /**
+     * Appends a list as a PostgreSQL array literal (e.g. {"W","U"}) in COPY text format.
+     */
+    private static StringBuilder appendArray(StringBuilder sb, List<String> values) {
+        if (values == null) return sb.append("\\N");
+        StringBuilder literal = new StringBuilder("{");
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) literal.append(',');
+            literal.append('"');
+            for (char c : values.get(i).toCharArray()) {
+                if (c == '"' || c == '\\') literal.append('\\');
+                literal.append(c);
+            }
+            literal.append('"');
+        }
+        literal.append('}');
+        return appendField(sb, literal);
+    }
+}
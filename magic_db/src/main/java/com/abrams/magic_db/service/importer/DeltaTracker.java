@@ -0,0 +1,80 @@
+package com.abrams.magic_db.service.importer;
+
+import com.abrams.magic_db.model.Card;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides which incoming cards a delta import actually has to write, by comparing their
+ * content hash with the one stored for the same card id. Ids that are never seen in the
+ * bulk file are left over at the end and are the candidates for deletion.
+ * Safe to use from several pipeline workers at once.
+ */
+public class DeltaTracker {
+
+    // ConcurrentHashMap cannot hold nulls, so cards imported before hashing existed get this instead
+    private static final long NO_HASH = Long.MIN_VALUE;
+
+    private final Map<UUID, Long> storedHashes = new ConcurrentHashMap<>();
+    private final LongAdder inserted = new LongAdder();
+    private final LongAdder updated = new LongAdder();
+    private final LongAdder unchanged = new LongAdder();
+    private long deleted;
+    private long retained;
+
+    public void addStored(UUID cardId, Long contentHash) {
+        storedHashes.put(cardId, contentHash != null ? contentHash : NO_HASH);
+    }
+
+    /**
+     * Marks the card as seen and records whether it is new, changed or unchanged.
+     * @return true if the card has to be written.
+     */
+    public boolean needsWrite(Card card) {
+        Long stored = storedHashes.remove(card.getId());
+        if (stored == null) {
+            inserted.increment();
+            return true;
+        }
+        if (stored != NO_HASH && stored.equals(card.getContentHash())) {
+            unchanged.increment();
+            return false;
+        }
+        updated.increment();
+        return true;
+    }
+
+    /**
+     * Marks a card as present in the bulk file without writing it, e.g. because it failed
+     * to build. This keeps it from being deleted.
+     */
+    public void markSeen(UUID cardId) {
+        storedHashes.remove(cardId);
+    }
+
+    /**
+     * @return The ids of stored cards that were not in the bulk file.
+     */
+    public List<UUID> getUnseenIds() {
+        return new ArrayList<>(storedHashes.keySet());
+    }
+
+    /**
+     * @param deleted Number of unseen cards that were deleted.
+     * @param retained Number of unseen cards kept because a binder or deck still references them.
+     */
+    public void recordDeletes(long deleted, long retained) {
+        this.deleted = deleted;
+        this.retained = retained;
+    }
+
+    public void report() {
+        System.out.printf("Delta summary: inserted=%d updated=%d deleted=%d unchanged=%d (kept %d removed cards still in binders or decks)%n",
+                inserted.sum(), updated.sum(), deleted, unchanged.sum(), retained);
+    }
+}
@@ -0,0 +1,36 @@
+package com.abrams.magic_db.service.importer;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reads an already-downloaded bulk file from disk. Files ending in {@code .gz} are decompressed on the fly.
+ */
+public class FileBulkDataSource implements BulkDataSource {
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private final Path path;
+
+    public FileBulkDataSource(Path path) {
+        this.path = path;
+    }
+
+    @Override
+    public InputStream open(ImportStats stats) throws IOException {
+        InputStream raw = new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE);
+        return BulkDataSource.track(raw, Files.size(path), isGzip(path), stats);
+    }
+
+    @Override
+    public String describe() {
+        return path.toString();
+    }
+
+    static boolean isGzip(Path path) {
+        return path.getFileName().toString().endsWith(".gz");
+    }
+}
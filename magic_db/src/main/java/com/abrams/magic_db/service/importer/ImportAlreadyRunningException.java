@@ -0,0 +1,15 @@
+package com.abrams.magic_db.service.importer;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when an import is requested while another one is still queued or running.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ImportAlreadyRunningException extends RuntimeException {
+
+    public ImportAlreadyRunningException(Long activeJobId) {
+        super("Import job " + activeJobId + " is already running");
+    }
+}
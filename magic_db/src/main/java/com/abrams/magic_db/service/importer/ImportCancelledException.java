@@ -0,0 +1,11 @@
+package com.abrams.magic_db.service.importer;
+
+/**
+ * Thrown from inside an import when its job has been cancelled.
+ */
+public class ImportCancelledException extends RuntimeException {
+
+    public ImportCancelledException() {
+        super("Import cancelled");
+    }
+}
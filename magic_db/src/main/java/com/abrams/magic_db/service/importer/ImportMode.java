@@ -0,0 +1,19 @@
+package com.abrams.magic_db.service.importer;
+
+/**
+ * How the Scryfall bulk file is turned into card records during an import.
+ */
+public enum ImportMode {
+
+    /**
+     * Reads the whole bulk file into a single JsonNode tree before building any cards.
+     * Kept for comparison; heap use grows with the size of the file.
+     */
+    TREE,
+
+    /**
+     * Walks the bulk file with a {@link com.fasterxml.jackson.core.JsonParser} and
+     * materializes one card object at a time, so heap use stays bounded.
+     */
+    STREAMING
+}
@@ -0,0 +1,61 @@
+package com.abrams.magic_db.service.importer;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The knobs for a single Scryfall import run.
+ */
+@Data
+@NoArgsConstructor
+public class ImportOptions {
+
+    /**
+     * Where the bulk file is read from. The URL ({@code scryfall.bulk-data.url}) and the path of a
+     * downloaded file for the FILE and MAPPED sources ({@code scryfall.bulk-data.path}) only come from
+     * configuration; the options are bound from request parameters, which must not pick what the
+     * server fetches or opens.
+     */
+    private BulkSourceType source = BulkSourceType.HTTP;
+
+    /**
+     * How the bulk file is parsed.
+     */
+    private ImportMode mode = ImportMode.STREAMING;
+
+    /**
+     * How the built cards are written to the database.
+     */
+    private LoadStrategy loader = LoadStrategy.COPY;
+
+    /**
+     * Only writes cards whose content hash changed, and deletes cards that are no longer in the bulk file.
+     */
+    private boolean delta = false;
+
+    /**
+     * Starts caching every card face image and its thumbnail in the background once the import completes.
+     */
+    private boolean prefetchImages = false;
+
+    /**
+     * Runs the import as a parse/map/write {@link ImportPipeline} instead of on a single thread.
+     */
+    private boolean parallel = false;
+
+    /**
+     * Number of workers turning card nodes into entities when running in parallel.
+     */
+    private int mapperThreads = Math.max(1, Runtime.getRuntime().availableProcessors() - 2);
+
+    /**
+     * Number of workers writing batches when running in parallel. Each one holds its own
+     * database connection, so keep this below the connection pool size.
+     */
+    private int writerThreads = 4;
+
+    /**
+     * Maximum number of batches waiting between two stages before the earlier stage blocks.
+     */
+    private int queueCapacity = 8;
+}
@@ -0,0 +1,379 @@
+package com.abrams.magic_db.service.importer;
+
+import com.abrams.magic_db.model.Card;
+import com.abrams.magic_db.model.Set;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs an import as three stages connected by bounded queues:
+ * <ol>
+ *   <li>parse - the calling thread reads card nodes from the source, discovers new sets and groups nodes into batches</li>
+ *   <li>map - a pool of workers turns each batch of nodes into {@link Card} entities</li>
+ *   <li>write - a pool of workers, each with its own {@link CardBatchWriter} (and so its own connection), writes and commits batches</li>
+ * </ol>
+ * A full queue blocks the stage in front of it, so a slow database throttles parsing instead of
+ * letting batches pile up in memory. The first failure in any stage stops the whole pipeline.
+ * <p>
+ * Sets discovered while parsing a batch are committed by the parse stage, through a writer of its
+ * own, before the batch is queued. Write workers commit batches in any order, so this is what keeps
+ * a card from becoming visible before the set it references.
+ * <p>
+ * Each batch covers a contiguous range of ordinals. When a job id is given, writers record a
+ * checkpoint with every batch: the highest ordinal below which all batches are committed, so
+ * batches committing out of order never move the checkpoint past unwritten cards.
+ */
+public class ImportPipeline {
+
+    private static final long POLL_MILLIS = 100;
+    private static final ParsedBatch END_OF_PARSE = new ParsedBatch(List.of(), 0, 0);
+    private static final MappedBatch END_OF_MAP = new MappedBatch(List.of(), 0, 0);
+
+    private final int mapperThreads;
+    private final int writerThreads;
+    private final int batchSize;
+    private final Function<JsonNode, Set> setDiscovery;
+    private final Function<JsonNode, Card> mapper;
+    private final Supplier<CardBatchWriter> writers;
+    private final ImportStats stats;
+    private final Long jobId;
+
+    private final BlockingQueue<ParsedBatch> parsed;
+    private final BlockingQueue<MappedBatch> mapped;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private final StageStats parseStage;
+    private final StageStats mapStage;
+    private final StageStats writeStage;
+
+    // Only touched by the parse stage
+    private List<JsonNode> pendingNodes = new ArrayList<>();
+    private List<Set> pendingSets = new ArrayList<>();
+    private long pendingStart = -1;
+    private long pendingEnd;
+    private CardBatchWriter setWriter;
+
+    private Watermark watermark;
+
+    /**
+     * @param options Thread counts and queue capacity for the stages.
+     * @param batchSize Number of card nodes per batch handed between stages.
+     * @param setDiscovery Returns a {@link Set} the first time a node references a set that is not yet stored, otherwise null. Called from the parse stage only.
+     * @param mapper Builds a card from a node, or returns null if the node should be skipped. Must be thread-safe.
+     * @param writers Opens a writer for one write worker, or for the parse stage to write new sets. Called on the thread that uses it.
+     * @param stats Receives processed counts as batches are committed.
+     * @param jobId The import job to record checkpoints for, or null to not checkpoint.
+     */
+    public ImportPipeline(ImportOptions options, int batchSize, Function<JsonNode, Set> setDiscovery,
+                          Function<JsonNode, Card> mapper, Supplier<CardBatchWriter> writers, ImportStats stats,
+                          Long jobId) {
+        this.mapperThreads = Math.max(1, options.getMapperThreads());
+        this.writerThreads = Math.max(1, options.getWriterThreads());
+        this.batchSize = batchSize;
+        this.setDiscovery = setDiscovery;
+        this.mapper = mapper;
+        this.writers = writers;
+        this.stats = stats;
+        this.jobId = jobId;
+        this.parsed = new ArrayBlockingQueue<>(Math.max(1, options.getQueueCapacity()));
+        this.mapped = new ArrayBlockingQueue<>(Math.max(1, options.getQueueCapacity()));
+        this.parseStage = new StageStats("parse", 1);
+        this.mapStage = new StageStats("map", mapperThreads);
+        this.writeStage = new StageStats("write", writerThreads);
+    }
+
+    /**
+     * Runs the pipeline to completion, feeding it from the given source on the calling thread.
+     * @param source The card nodes to import.
+     * @param startOrdinal The ordinal of the first node the source will supply.
+     * @throws IOException if reading the source fails.
+     * @throws RuntimeException if a map or write worker fails.
+     */
+    public void run(CardNodeSource source, long startOrdinal) throws IOException {
+        watermark = new Watermark(startOrdinal);
+        ExecutorService mapperPool = Executors.newFixedThreadPool(mapperThreads, namedThreads("import-map-"));
+        ExecutorService writerPool = Executors.newFixedThreadPool(writerThreads, namedThreads("import-write-"));
+        AtomicInteger mappersRunning = new AtomicInteger(mapperThreads);
+        long start = System.nanoTime();
+
+        for (int i = 0; i < mapperThreads; i++) {
+            mapperPool.execute(() -> runMapper(mappersRunning));
+        }
+        for (int i = 0; i < writerThreads; i++) {
+            writerPool.execute(this::runWriter);
+        }
+
+        try {
+            source.forEach(this::parse);
+            flushParsed();
+            for (int i = 0; i < mapperThreads; i++) {
+                put(parsed, END_OF_PARSE, parseStage);
+            }
+        } catch (PipelineAbortedException e) {
+            // A worker already failed; its error is rethrown below
+        } catch (IOException | RuntimeException e) {
+            fail(e);
+        } finally {
+            if (setWriter != null) setWriter.close();
+            parseStage.busy(System.nanoTime() - start - parseStage.waitNanos.sum());
+            awaitTermination(mapperPool);
+            awaitTermination(writerPool);
+        }
+
+        report(System.nanoTime() - start);
+
+        Throwable error = failure.get();
+        if (error instanceof IOException e) throw e;
+        if (error instanceof RuntimeException e) throw e;
+        if (error != null) throw new RuntimeException("Import pipeline failed", error);
+    }
+
+    private void parse(JsonNode node, long ordinal) {
+        if (pendingStart < 0) pendingStart = ordinal;
+        pendingEnd = ordinal + 1;
+        Set newSet = setDiscovery.apply(node);
+        if (newSet != null) {
+            pendingSets.add(newSet);
+        }
+        pendingNodes.add(node);
+        parseStage.items.increment();
+        if (pendingNodes.size() >= batchSize) {
+            flushParsed();
+        }
+    }
+
+    private void flushParsed() {
+        if (pendingNodes.isEmpty()) return;
+        writeSets();
+        put(parsed, new ParsedBatch(pendingNodes, pendingStart, pendingEnd), parseStage);
+        pendingNodes = new ArrayList<>(batchSize);
+        pendingSets = new ArrayList<>();
+        pendingStart = -1;
+    }
+
+    // Commits the batch's new sets before any writer can see its cards
+    private void writeSets() {
+        if (pendingSets.isEmpty()) return;
+        if (setWriter == null) setWriter = writers.get();
+        pendingSets.forEach(setWriter::writeSet);
+        setWriter.finish();
+    }
+
+    private void runMapper(AtomicInteger mappersRunning) {
+        try {
+            ParsedBatch batch;
+            while ((batch = take(parsed, mapStage)) != END_OF_PARSE) {
+                long start = System.nanoTime();
+                List<Card> cards = new ArrayList<>(batch.nodes().size());
+                for (JsonNode node : batch.nodes()) {
+                    Card card = mapper.apply(node);
+                    if (card != null) {
+                        cards.add(card);
+                    }
+                }
+                mapStage.items.add(batch.nodes().size());
+                mapStage.busy(System.nanoTime() - start);
+                put(mapped, new MappedBatch(cards, batch.startOrdinal(), batch.endOrdinal()), mapStage);
+            }
+            // The last mapper out tells every writer there is nothing more to come
+            if (mappersRunning.decrementAndGet() == 0) {
+                for (int i = 0; i < writerThreads; i++) {
+                    put(mapped, END_OF_MAP, mapStage);
+                }
+            }
+        } catch (PipelineAbortedException e) {
+            // Another stage failed first
+        } catch (Throwable t) {
+            fail(t);
+        }
+    }
+
+    private void runWriter() {
+        try (CardBatchWriter writer = writers.get()) {
+            MappedBatch batch;
+            while ((batch = take(mapped, writeStage)) != END_OF_MAP) {
+                long start = System.nanoTime();
+                writer.writeCards(batch.cards());
+                if (jobId != null) {
+                    writer.writeCheckpoint(jobId, watermark.ifCommitted(batch.startOrdinal(), batch.endOrdinal()));
+                }
+                writer.finish();
+                watermark.committed(batch.startOrdinal(), batch.endOrdinal());
+                stats.cardsProcessed(batch.cards().size());
+                writeStage.items.add(batch.cards().size());
+                writeStage.busy(System.nanoTime() - start);
+                System.out.println("Saved " + stats.getProcessed() + " cards...");
+            }
+        } catch (PipelineAbortedException e) {
+            // Another stage failed first
+        } catch (Throwable t) {
+            fail(t);
+        }
+    }
+
+    private <T> void put(BlockingQueue<T> queue, T item, StageStats stage) {
+        long start = System.nanoTime();
+        try {
+            while (!queue.offer(item, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                checkNotFailed();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PipelineAbortedException();
+        } finally {
+            stage.waitNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    private <T> T take(BlockingQueue<T> queue, StageStats stage) {
+        long start = System.nanoTime();
+        try {
+            T item;
+            while ((item = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+                checkNotFailed();
+            }
+            return item;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PipelineAbortedException();
+        } finally {
+            stage.waitNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    private void checkNotFailed() {
+        if (failure.get() != null) throw new PipelineAbortedException();
+    }
+
+    private void fail(Throwable t) {
+        if (failure.compareAndSet(null, t)) {
+            System.err.println("Import pipeline failed - " + t.getMessage());
+        }
+    }
+
+    private void awaitTermination(ExecutorService pool) {
+        pool.shutdown();
+        try {
+            while (!pool.awaitTermination(1, TimeUnit.SECONDS)) {
+                // Workers poll the failure flag, so they always finish eventually
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void report(long elapsedNanos) {
+        System.out.printf("Import pipeline finished in %.1fs (map threads=%d, write threads=%d)%n",
+                elapsedNanos / 1e9, mapperThreads, writerThreads);
+        parseStage.report(elapsedNanos);
+        mapStage.report(elapsedNanos);
+        writeStage.report(elapsedNanos);
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record ParsedBatch(List<JsonNode> nodes, long startOrdinal, long endOrdinal) {
+    }
+
+    private record MappedBatch(List<Card> cards, long startOrdinal, long endOrdinal) {
+    }
+
+    /**
+     * Tracks which ordinal ranges have been committed and the contiguous prefix they form.
+     */
+    private static class Watermark {
+        private final TreeMap<Long, Long> committedAbove = new TreeMap<>();
+        private long next;
+
+        Watermark(long start) {
+            this.next = start;
+        }
+
+        /**
+         * @return The watermark that will hold once the given range commits, counting only ranges already committed.
+         */
+        synchronized long ifCommitted(long start, long end) {
+            if (start != next) return next;
+            long mark = end;
+            Long following;
+            while ((following = committedAbove.get(mark)) != null) {
+                mark = following;
+            }
+            return mark;
+        }
+
+        synchronized void committed(long start, long end) {
+            committedAbove.put(start, end);
+            Long following;
+            while ((following = committedAbove.remove(next)) != null) {
+                next = following;
+            }
+        }
+    }
+
+    /**
+     * Thrown inside a stage to unwind it once another stage has failed.
+     */
+    private static class PipelineAbortedException extends RuntimeException {
+        PipelineAbortedException() {
+            super("Import pipeline aborted", null, false, false);
+        }
+    }
+
+    /**
+     * Item counts and time split between useful work and waiting on queues for one stage.
+     * A stage that is busy most of the time while the others wait is the bottleneck.
+     */
+    private static class StageStats {
+        private final String name;
+        private final int threads;
+        private final LongAdder items = new LongAdder();
+        private final LongAdder busyNanos = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+
+        StageStats(String name, int threads) {
+            this.name = name;
+            this.threads = threads;
+        }
+
+        void busy(long nanos) {
+            busyNanos.add(nanos);
+        }
+
+        void report(long elapsedNanos) {
+            double elapsed = elapsedNanos / 1e9;
+            double busy = busyNanos.sum() / 1e9;
+            double waiting = waitNanos.sum() / 1e9;
+            long count = items.sum();
+            // Capacity is how fast the stage would run if it never had to wait on its neighbours
+            System.out.printf("  %-5s threads=%d cards=%d rate=%.0f/s capacity=%.0f/s busy=%.1fs waiting=%.1fs%n",
+                    name, threads, count,
+                    elapsed > 0 ? count / elapsed : 0,
+                    busy > 0 ? count / (busy / threads) : 0,
+                    busy, waiting);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.abrams.magic_db.service.importer;
+
+import com.abrams.magic_db.model.ImportPhase;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects throughput and memory figures for a single import run so the
+ * different import modes can be compared against each other. Also carries the live
+ * progress and the cancellation flag of a running import job. Safe to update from
+ * several pipeline workers at once.
+ */
+public class ImportStats {
+
+    /** How many scanned cards pass between two heap samples. */
+    private static final int HEAP_SAMPLE_INTERVAL = 1024;
+
+    private final String label;
+    private final long startNanos;
+    private final List<MemoryPoolMXBean> heapPools;
+
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder scanned = new LongAdder();
+    private final LongAdder deleted = new LongAdder();
+    private final AtomicLong peakHeapBytes = new AtomicLong();
+
+    private volatile ImportPhase phase = ImportPhase.PREPARING;
+    private volatile boolean cancelRequested;
+    private volatile CountingInputStream input;
+    private volatile long totalBytes = -1;
+    private volatile long expectedNodes = -1;
+
+    /**
+     * Starts the clock and takes the first heap sample. The JVM's own peak counters are left
+     * alone, since they are shared with any other run going on at the same time.
+     * @param label A short description of the run (e.g. the import mode), used in the report.
+     */
+    public ImportStats(String label) {
+        this.label = label;
+        this.heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        this.startNanos = System.nanoTime();
+        sampleHeap();
+    }
+
+    public void cardsProcessed(int count) {
+        processed.add(count);
+        sampleHeap();
+    }
+
+    public void cardFailed() {
+        failed.increment();
+    }
+
+    /**
+     * Records stored cards that a delta import deleted because they are no longer in the bulk file.
+     */
+    public void cardsDeleted(long count) {
+        deleted.add(count);
+    }
+
+    /**
+     * Records that one card object was read from the bulk file, whether or not it ends up written.
+     */
+    public void nodeScanned() {
+        scanned.increment();
+        if (scanned.sum() % HEAP_SAMPLE_INTERVAL == 0) sampleHeap();
+    }
+
+    /**
+     * Records the current heap usage if it is the highest this run has seen.
+     */
+    private void sampleHeap() {
+        long used = heapPools.stream()
+                .mapToLong(pool -> pool.getUsage().getUsed())
+                .sum();
+        peakHeapBytes.accumulateAndGet(used, Math::max);
+    }
+
+    public ImportPhase getPhase() {
+        return phase;
+    }
+
+    public void setPhase(ImportPhase phase) {
+        this.phase = phase;
+    }
+
+    /**
+     * Asks the import to stop at the next card it reads.
+     */
+    public void requestCancel() {
+        cancelRequested = true;
+    }
+
+    /**
+     * @throws ImportCancelledException if {@link #requestCancel()} has been called.
+     */
+    public void checkCancelled() {
+        if (cancelRequested) throw new ImportCancelledException();
+    }
+
+    /**
+     * Tracks how far into the bulk file the import has read.
+     * @param input The counting stream the bulk file is read through.
+     * @param totalBytes The size of the bulk file, or -1 if unknown.
+     */
+    public void trackInput(CountingInputStream input, long totalBytes) {
+        this.input = input;
+        this.totalBytes = totalBytes;
+    }
+
+    /**
+     * @param expectedNodes The number of card objects in the bulk file, when known up front (tree mode).
+     */
+    public void setExpectedNodes(long expectedNodes) {
+        this.expectedNodes = expectedNodes;
+    }
+
+    /**
+     * @return The estimated fraction (0 to 1) of the bulk file handled so far, or -1 if it cannot be estimated.
+     */
+    public double getProgress() {
+        if (expectedNodes > 0) {
+            return Math.min(1.0, scanned.sum() / (double) expectedNodes);
+        }
+        CountingInputStream in = input;
+        if (in != null && totalBytes > 0) {
+            return Math.min(1.0, in.getCount() / (double) totalBytes);
+        }
+        return -1;
+    }
+
+    /**
+     * @return The estimated seconds until the bulk file is fully handled, or -1 if it cannot be estimated.
+     */
+    public long getEtaSeconds() {
+        double progress = getProgress();
+        if (progress <= 0) return -1;
+        return Math.round(getElapsedSeconds() * (1 - progress) / progress);
+    }
+
+    public long getProcessed() {
+        return processed.sum();
+    }
+
+    public long getScanned() {
+        return scanned.sum();
+    }
+
+    /**
+     * @return The raw bytes read from the bulk file so far, or -1 if no input is tracked.
+     */
+    public long getBytesRead() {
+        CountingInputStream in = input;
+        return in != null ? in.getCount() : -1;
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getDeleted() {
+        return deleted.sum();
+    }
+
+    /**
+     * @return true if the run wrote or deleted any card.
+     */
+    public boolean changedCards() {
+        return getProcessed() > 0 || getDeleted() > 0;
+    }
+
+    public double getElapsedSeconds() {
+        return (System.nanoTime() - startNanos) / 1_000_000_000.0;
+    }
+
+    public double getCardsPerSecond() {
+        double seconds = getElapsedSeconds();
+        return seconds > 0 ? getProcessed() / seconds : 0;
+    }
+
+    /**
+     * @return The highest heap usage sampled since this run started, summed over all heap pools.
+     * Samples are taken as cards are scanned and written, so short spikes between them can be missed.
+     */
+    public long getPeakHeapBytes() {
+        sampleHeap();
+        return peakHeapBytes.get();
+    }
+
+    /**
+     * Prints a one-line summary of the run to the console.
+     */
+    public void report() {
+        System.out.printf("Import Complete! [%s] cards=%d failed=%d elapsed=%.1fs rate=%.0f cards/sec peakHeap=%d MB%n",
+                label, getProcessed(), getFailed(), getElapsedSeconds(), getCardsPerSecond(),
+                getPeakHeapBytes() / (1024 * 1024));
+    }
+}
@@ -0,0 +1,121 @@
+package com.abrams.magic_db.service.importer;
+
+import com.abrams.magic_db.model.Card;
+import com.abrams.magic_db.model.CardFace;
+import com.abrams.magic_db.model.Set;
+import com.abrams.magic_db.repository.CardRepository;
+import com.abrams.magic_db.repository.ImportCheckpointRepository;
+import com.abrams.magic_db.repository.SetRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Writes cards through the JPA repositories. A transaction is opened on the first write
+ * and committed by {@link #finish()}, so the writer must be used from a single thread.
+ * If the caller already has a transaction open, the writes simply join it.
+ */
+public class JpaCardBatchWriter implements CardBatchWriter {
+
+    private final CardRepository cardRepository;
+    private final SetRepository setRepository;
+    private final ImportCheckpointRepository checkpointRepository;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+    private TransactionStatus transaction;
+
+    public JpaCardBatchWriter(CardRepository cardRepository, SetRepository setRepository,
+                              ImportCheckpointRepository checkpointRepository,
+                              EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.cardRepository = cardRepository;
+        this.setRepository = setRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.entityManager = entityManager;
+        this.transactionManager = transactionManager;
+    }
+
+    @Override
+    public void writeSet(Set set) {
+        begin();
+        setRepository.saveAndFlush(set);
+    }
+
+    @Override
+    public void writeCards(List<Card> cards) {
+        begin();
+        reuseExistingFaceIds(cards);
+        cardRepository.saveAll(cards);
+        // Detach the saved cards, otherwise the persistence context keeps every card alive until commit
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Override
+    public void writeCheckpoint(Long jobId, long nextOrdinal) {
+        begin();
+        checkpointRepository.saveCheckpoint(jobId, nextOrdinal);
+    }
+
+    @Override
+    public void finish() {
+        if (transaction != null) {
+            transactionManager.commit(transaction);
+            transaction = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (transaction != null) {
+            transactionManager.rollback(transaction);
+            transaction = null;
+        }
+    }
+
+    /**
+     * Gives incoming faces the id of the stored face with the same (card, index) so re-imported
+     * cards update their faces in place instead of piling up duplicates. Stored faces that no
+     * longer exist on the card are removed.
+     */
+    private void reuseExistingFaceIds(List<Card> cards) {
+        if (cards.isEmpty()) return;
+        List<UUID> cardIds = cards.stream().map(Card::getId).toList();
+        Map<String, Long> storedFaceIds = new HashMap<>();
+        List<Long> staleFaceIds = new ArrayList<>();
+        entityManager.createQuery(
+                        "SELECT f.card.id, f.faceIndex, f.id FROM CardFace f WHERE f.card.id IN :ids", Object[].class)
+                .setParameter("ids", cardIds)
+                .getResultList()
+                .forEach(row -> {
+                    // Older imports could leave duplicate faces behind; keep one and drop the rest
+                    Long duplicate = storedFaceIds.put(row[0] + "/" + row[1], (Long) row[2]);
+                    if (duplicate != null) staleFaceIds.add(duplicate);
+                });
+        if (storedFaceIds.isEmpty()) return;
+
+        for (Card card : cards) {
+            for (CardFace face : card.getFaces()) {
+                face.setId(storedFaceIds.remove(card.getId() + "/" + face.getFaceIndex()));
+            }
+        }
+        staleFaceIds.addAll(storedFaceIds.values());
+        if (!staleFaceIds.isEmpty()) {
+            entityManager.createQuery("DELETE FROM CardFace f WHERE f.id IN :ids")
+                    .setParameter("ids", staleFaceIds)
+                    .executeUpdate();
+        }
+    }
+
+    private void begin() {
+        if (transaction == null) {
+            transaction = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.abrams.magic_db.service.importer;
+
+/**
+ * How built cards are written to the database during an import.
+ */
+public enum LoadStrategy {
+
+    /**
+     * Streams rows into staging tables with PostgreSQL COPY and merges them in one
+     * set-based statement per table. Much faster than going through Hibernate.
+     */
+    COPY,
+
+    /**
+     * Saves cards through the JPA repositories. Slower, but works on any database
+     * Hibernate supports and is kept as a fallback.
+     */
+    JPA
+}
@@ -0,0 +1,91 @@
+package com.abrams.magic_db.service.importer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Memory-maps an already-downloaded bulk file and reads it without copying it through a
+ * file buffer first. Files over 2 GB are mapped in consecutive regions, one at a time.
+ * The mappings are released by the garbage collector once the stream is unreachable.
+ */
+public class MappedFileBulkDataSource implements BulkDataSource {
+
+    // Well under the 2 GB limit of a single MappedByteBuffer
+    private static final long REGION_SIZE = 1L << 30;
+
+    private final Path path;
+
+    public MappedFileBulkDataSource(Path path) {
+        this.path = path;
+    }
+
+    @Override
+    public InputStream open(ImportStats stats) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        return BulkDataSource.track(new MappedInputStream(channel), channel.size(),
+                FileBulkDataSource.isGzip(path), stats);
+    }
+
+    @Override
+    public String describe() {
+        return path + " (mapped)";
+    }
+
+    /**
+     * Streams a file channel through read-only mappings of {@link #REGION_SIZE} bytes.
+     */
+    private static class MappedInputStream extends InputStream {
+
+        private final FileChannel channel;
+        private final long size;
+        private long regionStart;
+        private MappedByteBuffer region;
+
+        MappedInputStream(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!nextRegionIfNeeded()) return -1;
+            return region.get() & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) return 0;
+            if (!nextRegionIfNeeded()) return -1;
+            int n = Math.min(len, region.remaining());
+            region.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return region != null ? region.remaining() : 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            region = null;
+            channel.close();
+        }
+
+        /**
+         * Maps the next region once the current one is used up.
+         * @return False at the end of the file.
+         */
+        private boolean nextRegionIfNeeded() throws IOException {
+            if (region != null && region.hasRemaining()) return true;
+            if (region != null) regionStart += region.capacity();
+            if (regionStart >= size) return false;
+            region = channel.map(FileChannel.MapMode.READ_ONLY, regionStart, Math.min(REGION_SIZE, size - regionStart));
+            return true;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.abrams.magic_db.service.importer;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * How fast one bulk data source could be read and parsed, without mapping or writing any cards.
+ */
+@Data
+@NoArgsConstructor
+public class ParseBenchmarkResult {
+
+    private BulkSourceType source;
+    private String location;
+    private ImportMode mode;
+
+    /**
+     * Raw bytes read from the source; compressed bytes for gzipped files.
+     */
+    private long bytesRead;
+    private long cards;
+    private double seconds;
+    private double megabytesPerSecond;
+    private double cardsPerSecond;
+    private long peakHeapMegabytes;
+}
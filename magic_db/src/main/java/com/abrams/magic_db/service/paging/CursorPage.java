@@ -0,0 +1,24 @@
+package com.abrams.magic_db.service.paging;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ * @param content The entries on this page.
+ * @param next Opaque cursor for the following page, or null if this is the last page.
+ * @param totalElements The total number of matching entries, or null if it was not requested.
+ */
+public record CursorPage<T>(List<T> content, String next, Long totalElements) {
+
+    public static final int MAX_SIZE = 200;
+
+    /**
+     * @param size The page size asked for.
+     * @return The size to fetch, at most {@link #MAX_SIZE}.
+     * @throws InvalidPageSizeException if the size is less than 1.
+     */
+    public static int checkSize(int size) {
+        if (size < 1) throw new InvalidPageSizeException(size);
+        return Math.min(size, MAX_SIZE);
+    }
+}
@@ -0,0 +1,15 @@
+package com.abrams.magic_db.service.paging;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a page size is not positive.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidPageSizeException extends RuntimeException {
+
+    public InvalidPageSizeException(int size) {
+        super("Page size must be at least 1, got " + size);
+    }
+}
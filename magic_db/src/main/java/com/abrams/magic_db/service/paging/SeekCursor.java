@@ -0,0 +1,37 @@
+package com.abrams.magic_db.service.paging;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * The sort key of the last entry on a page, (name, id), handed to clients as an opaque string.
+ * The next page starts right after it: {@code WHERE (name, id) > (cursor.name, cursor.id)}.
+ * @param name The name the listing is sorted by.
+ * @param id The tie-breaking id, as text so card UUIDs and numeric ids share one format.
+ */
+public record SeekCursor(String name, String id) {
+
+    private static final char SEPARATOR = '\u0000';
+
+    public String encode() {
+        byte[] raw = (name + SEPARATOR + id).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    /**
+     * @param cursor A cursor previously returned as {@link CursorPage#next()}, or null for the first page.
+     * @return The decoded cursor, or null if none was given.
+     * @throws InvalidCursorException if the cursor was not produced by {@link #encode()}.
+     */
+    public static SeekCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int split = raw.lastIndexOf(SEPARATOR);
+            if (split < 0) throw new InvalidCursorException();
+            return new SeekCursor(raw.substring(0, split), raw.substring(split + 1));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.abrams.magic_db.service.search;
+
+import com.abrams.magic_db.repository.CardRepository;
+import com.abrams.magic_db.repository.CardRepository.CardPopularityView;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Serves name completions from an in-memory {@link CardNamePrefixIndex}, so typing in the
+ * search box never reaches the database. The index is built at startup, after every import,
+ * and periodically to pick up how binder and deck usage has shifted popularity.
+ */
+@Service
+public class CardAutocompleteService {
+
+    public static final int MAX_SUGGESTIONS = 25;
+
+    private final CardRepository cardRepository;
+
+    private volatile CardNamePrefixIndex index;
+
+    public CardAutocompleteService(CardRepository cardRepository) {
+        this.cardRepository = cardRepository;
+    }
+
+    /**
+     * Reloads card names and popularity and swaps in a fresh index.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${search.autocomplete.refresh-ms}", initialDelayString = "${search.autocomplete.refresh-ms}")
+    public void rebuild() {
+        long start = System.nanoTime();
+        List<CardPopularityView> cards = cardRepository.findAllPopularity();
+        List<UUID> ids = new ArrayList<>(cards.size());
+        List<String> names = new ArrayList<>(cards.size());
+        List<Long> popularity = new ArrayList<>(cards.size());
+        for (CardPopularityView card : cards) {
+            ids.add(card.getId());
+            names.add(card.getName());
+            popularity.add(card.getPopularity());
+        }
+        index = CardNamePrefixIndex.build(ids, names, popularity);
+        System.out.printf("Autocomplete index built: %d names in %d ms%n",
+                index.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * @param prefix What the user has typed so far.
+     * @param limit The maximum number of suggestions (capped at {@link #MAX_SUGGESTIONS}).
+     * @return The most popular card names with a word starting with the prefix, or an empty list
+     *         while the index is still being built.
+     */
+    public List<CardSuggestion> complete(String prefix, int limit) {
+        CardNamePrefixIndex current = index;
+        if (current == null || prefix == null) return List.of();
+        return current.complete(prefix, Math.max(1, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+}
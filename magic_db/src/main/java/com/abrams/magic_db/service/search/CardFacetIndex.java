@@ -0,0 +1,237 @@
+package com.abrams.magic_db.service.search;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An immutable bitmap index over the card catalog for faceted counts.
+ *
+ * <p>Every card gets a dense document number and every facet value (a color, a rarity, a set,
+ * a type-line word, a mana value bucket) gets a compressed Roaring bitmap of the cards that have
+ * it. A filter is then a handful of bitmap ANDs and ORs, and a facet count is the cardinality of
+ * an AND, so nothing is scanned row by row. Cards are numbered in set order, which turns the set
+ * bitmaps (and most rarity runs within a set) into run containers that take a few bytes each.
+ *
+ * <p>Within a facet the selected values are ORed (any of these sets), except for colors, which are
+ * ANDed (red and green means a card that is both). Across facets the filters are ANDed. Each
+ * facet's counts ignore that facet's own filter, so the counts show what selecting another value
+ * would return rather than collapsing to the current selection.
+ */
+public class CardFacetIndex {
+
+    public enum Facet {
+        COLOR, RARITY, SET, TYPE, CMC;
+
+        /**
+         * @return The facet name used in query parameters and responses.
+         */
+        public String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public static final String COLORLESS = "C";
+    public static final String CMC_MAX_BUCKET = "7+";
+    private static final String COLOR_ORDER = "WUBRGC";
+
+    private final int size;
+    private final Map<Facet, Map<String, RoaringBitmap>> bitmaps;
+
+    private CardFacetIndex(int size, Map<Facet, Map<String, RoaringBitmap>> bitmaps) {
+        this.size = size;
+        this.bitmaps = bitmaps;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param filters The selected values per facet; facets that are absent or empty are not filtered.
+     * @param limit The maximum number of values returned per facet, most frequent first
+     *              (colors and mana values are always returned in their natural order).
+     * @return The number of cards matching every filter and, per facet, the non-zero counts of its values.
+     */
+    public FacetCounts count(Map<Facet, ? extends Collection<String>> filters, int limit) {
+        Map<Facet, RoaringBitmap> selected = new EnumMap<>(Facet.class);
+        for (Facet facet : Facet.values()) {
+            Collection<String> values = filters.get(facet);
+            if (values != null && !values.isEmpty()) {
+                selected.put(facet, select(facet, values));
+            }
+        }
+
+        Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+        for (Facet facet : Facet.values()) {
+            RoaringBitmap base = intersectExcept(selected, facet);
+            List<Map.Entry<String, Integer>> entries = new ArrayList<>();
+            for (Map.Entry<String, RoaringBitmap> value : bitmaps.get(facet).entrySet()) {
+                int count = base == null ? value.getValue().getCardinality()
+                        : RoaringBitmap.andCardinality(base, value.getValue());
+                if (count > 0) entries.add(Map.entry(value.getKey(), count));
+            }
+            entries.sort(orderFor(facet));
+            Map<String, Integer> top = new LinkedHashMap<>();
+            for (Map.Entry<String, Integer> entry : entries.subList(0, Math.min(limit, entries.size()))) {
+                top.put(entry.getKey(), entry.getValue());
+            }
+            counts.put(facet.key(), top);
+        }
+
+        RoaringBitmap matches = intersectExcept(selected, null);
+        return new FacetCounts(matches == null ? size : matches.getCardinality(), counts);
+    }
+
+    // The cards matching one facet's selected values
+    private RoaringBitmap select(Facet facet, Collection<String> values) {
+        Map<String, RoaringBitmap> byValue = bitmaps.get(facet);
+        List<RoaringBitmap> parts = new ArrayList<>(values.size());
+        for (String value : values) {
+            RoaringBitmap bitmap = byValue.get(normalize(facet, value));
+            if (bitmap == null) {
+                if (facet == Facet.COLOR) return new RoaringBitmap();
+                continue;
+            }
+            parts.add(bitmap);
+        }
+        if (parts.isEmpty()) return new RoaringBitmap();
+        return facet == Facet.COLOR
+                ? FastAggregation.and(parts.iterator())
+                : FastAggregation.or(parts.iterator());
+    }
+
+    // The AND of every selected facet other than the excluded one, or null when nothing is filtered
+    private RoaringBitmap intersectExcept(Map<Facet, RoaringBitmap> selected, Facet excluded) {
+        List<RoaringBitmap> parts = new ArrayList<>(selected.size());
+        for (Map.Entry<Facet, RoaringBitmap> entry : selected.entrySet()) {
+            if (entry.getKey() != excluded) parts.add(entry.getValue());
+        }
+        if (parts.isEmpty()) return null;
+        if (parts.size() == 1) return parts.get(0);
+        return FastAggregation.and(parts.iterator());
+    }
+
+    private static Comparator<Map.Entry<String, Integer>> orderFor(Facet facet) {
+        return switch (facet) {
+            case COLOR -> Comparator.comparingInt(e -> COLOR_ORDER.indexOf(e.getKey()));
+            case CMC -> Comparator.comparingInt(e -> cmcOrder(e.getKey()));
+            default -> Map.Entry.<String, Integer>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey());
+        };
+    }
+
+    private static int cmcOrder(String bucket) {
+        return bucket.equals(CMC_MAX_BUCKET) ? Integer.MAX_VALUE : Integer.parseInt(bucket);
+    }
+
+    /**
+     * Brings a filter or catalog value into the form the index stores it in.
+     */
+    static String normalize(Facet facet, String value) {
+        String trimmed = value.trim();
+        return switch (facet) {
+            case COLOR -> trimmed.toUpperCase(Locale.ROOT);
+            case CMC -> {
+                if (trimmed.equals(CMC_MAX_BUCKET)) yield trimmed;
+                try {
+                    yield cmcBucket(Double.parseDouble(trimmed));
+                } catch (NumberFormatException e) {
+                    yield trimmed;
+                }
+            }
+            default -> trimmed.toLowerCase(Locale.ROOT);
+        };
+    }
+
+    static String cmcBucket(double cmc) {
+        int whole = (int) Math.floor(cmc);
+        return whole >= 7 ? CMC_MAX_BUCKET : Integer.toString(Math.max(0, whole));
+    }
+
+    /**
+     * Collects cards one at a time. Call {@link #nextCard()} before adding a card's values.
+     */
+    public static class Builder {
+
+        private final Map<Facet, Map<String, RoaringBitmap>> bitmaps = new EnumMap<>(Facet.class);
+        private int size;
+        private int doc = -1;
+        private boolean colored;
+
+        private Builder() {
+            for (Facet facet : Facet.values()) {
+                bitmaps.put(facet, new HashMap<>());
+            }
+        }
+
+        public void nextCard() {
+            doc = size++;
+            colored = false;
+        }
+
+        public void add(Facet facet, String value) {
+            if (value == null || value.isBlank()) return;
+            bitmaps.get(facet)
+                    .computeIfAbsent(normalize(facet, value), v -> new RoaringBitmap())
+                    .add(doc);
+        }
+
+        /**
+         * Adds every color letter of a face, e.g. "RG".
+         */
+        public void addColors(String colors) {
+            for (int i = 0; i < colors.length(); i++) {
+                add(Facet.COLOR, String.valueOf(colors.charAt(i)));
+                colored = true;
+            }
+        }
+
+        /**
+         * Adds every word of a type line as a type value, e.g. "legendary", "creature", "elf", "druid".
+         */
+        public void addTypeLine(String typeLine) {
+            for (String word : typeLine.split("[^\\p{L}']+")) {
+                add(Facet.TYPE, word);
+            }
+        }
+
+        public void addCmc(double cmc) {
+            add(Facet.CMC, cmcBucket(cmc));
+        }
+
+        /**
+         * Marks the current card as colorless unless a color has already been added for it.
+         */
+        public void markColorlessIfUncolored() {
+            if (!colored) add(Facet.COLOR, COLORLESS);
+        }
+
+        public CardFacetIndex build() {
+            Map<Facet, Map<String, RoaringBitmap>> frozen = new EnumMap<>(Facet.class);
+            for (Map.Entry<Facet, Map<String, RoaringBitmap>> facet : bitmaps.entrySet()) {
+                Map<String, RoaringBitmap> values = new TreeMap<>();
+                for (Map.Entry<String, RoaringBitmap> value : facet.getValue().entrySet()) {
+                    value.getValue().runOptimize();
+                    values.put(value.getKey(), value.getValue());
+                }
+                frozen.put(facet.getKey(), values);
+            }
+            return new CardFacetIndex(size, frozen);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.abrams.magic_db.service.search;
+
+import com.abrams.magic_db.repository.CardRepository;
+import com.abrams.magic_db.repository.CardRepository.CardFacetView;
+import com.abrams.magic_db.service.search.CardFacetIndex.Facet;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Answers facet counts (colors, rarities, sets, type words, mana values) from an in-memory
+ * {@link CardFacetIndex}, so refining a search never runs a GROUP BY. The index is read-only;
+ * it is built at startup and rebuilt after every import.
+ */
+@Service
+public class CardFacetIndexService {
+
+    public static final int MAX_VALUES_PER_FACET = 500;
+
+    private final CardRepository cardRepository;
+
+    private volatile CardFacetIndex index;
+
+    public CardFacetIndexService(CardRepository cardRepository) {
+        this.cardRepository = cardRepository;
+    }
+
+    /**
+     * Reloads the catalog's facet values and swaps in a fresh index.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        List<CardFacetView> rows = cardRepository.findAllFacetRows();
+        CardFacetIndex.Builder builder = CardFacetIndex.builder();
+        UUID current = null;
+        boolean cmcSet = false;
+        for (CardFacetView row : rows) {
+            // Rows arrive grouped by card, one per face
+            if (!row.getId().equals(current)) {
+                if (current != null) builder.markColorlessIfUncolored();
+                builder.nextCard();
+                builder.add(Facet.RARITY, row.getRarity());
+                builder.add(Facet.SET, row.getSetCode());
+                current = row.getId();
+                cmcSet = false;
+            }
+            if (row.getColors() != null) builder.addColors(row.getColors());
+            if (row.getTypeLine() != null) builder.addTypeLine(row.getTypeLine());
+            // A card's mana value is its front face's
+            if (!cmcSet && row.getCmc() != null) {
+                builder.addCmc(row.getCmc());
+                cmcSet = true;
+            }
+        }
+        if (current != null) builder.markColorlessIfUncolored();
+        index = builder.build();
+        System.out.printf("Facet index built: %d cards in %d ms%n",
+                index.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * @param filters The selected values per facet.
+     * @param limit The maximum number of values per facet (capped at {@link #MAX_VALUES_PER_FACET}).
+     * @return The matching card count and per-facet counts, or an empty result while the index is still being built.
+     */
+    public FacetCounts count(Map<Facet, ? extends Collection<String>> filters, int limit) {
+        CardFacetIndex current = index;
+        if (current == null) return new FacetCounts(0, Map.of());
+        return current.count(filters, Math.max(1, Math.min(limit, MAX_VALUES_PER_FACET)));
+    }
+}
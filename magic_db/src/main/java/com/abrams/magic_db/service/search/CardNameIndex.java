@@ -0,0 +1,190 @@
+package com.abrams.magic_db.service.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * An immutable n-gram inverted index over card names, answering case- and accent-insensitive
+ * "name contains" searches without touching the database.
+ *
+ * <p>Cards are numbered in name order, and every bigram and trigram of a normalized name maps
+ * to the ascending list of card numbers containing it. A query is answered by intersecting the
+ * posting lists of its own n-grams and confirming each candidate with a substring check, so
+ * hits come out already sorted by name and a page is just a slice of them.
+ */
+public class CardNameIndex {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final int[] NO_POSTINGS = new int[0];
+
+    private final UUID[] ids;
+    private final String[] normalizedNames;
+    private final Map<Long, int[]> postings;
+
+    private CardNameIndex(UUID[] ids, String[] normalizedNames, Map<Long, int[]> postings) {
+        this.ids = ids;
+        this.normalizedNames = normalizedNames;
+        this.postings = postings;
+    }
+
+    /**
+     * The ids of one page of matching cards, in name order, and the total number of matches.
+     */
+    public record Hits(List<UUID> ids, int total) {
+    }
+
+    /**
+     * Builds an index over the given cards.
+     * @param ids The card ids.
+     * @param names The card names, in the same order as the ids.
+     */
+    public static CardNameIndex build(List<UUID> ids, List<String> names) {
+        Integer[] order = new Integer[ids.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparing(names::get, String.CASE_INSENSITIVE_ORDER));
+
+        UUID[] sortedIds = new UUID[order.length];
+        String[] normalized = new String[order.length];
+        Map<Long, IntList> building = new HashMap<>();
+        for (int doc = 0; doc < order.length; doc++) {
+            sortedIds[doc] = ids.get(order[doc]);
+            String name = normalize(names.get(order[doc]));
+            normalized[doc] = name;
+            for (int n = 2; n <= 3; n++) {
+                for (int i = 0; i + n <= name.length(); i++) {
+                    IntList list = building.computeIfAbsent(gram(name, i, n), key -> new IntList());
+                    // A name repeating an n-gram must only be listed once
+                    if (list.size == 0 || list.last() != doc) list.add(doc);
+                }
+            }
+        }
+
+        Map<Long, int[]> postings = new HashMap<>(building.size() * 2);
+        building.forEach((gram, list) -> postings.put(gram, list.toArray()));
+        return new CardNameIndex(sortedIds, normalized, postings);
+    }
+
+    /**
+     * Finds the cards whose name contains the query, ignoring case and accents.
+     * @param query The text to search for.
+     * @param offset How many hits to skip (page number times page size).
+     * @param limit The maximum number of ids to return (page size).
+     * @return The requested page of card ids and the total number of hits.
+     */
+    public Hits search(String query, int offset, int limit) {
+        String needle = normalize(query);
+        List<UUID> page = new ArrayList<>(Math.min(limit, 64));
+        int total = 0;
+
+        if (needle.length() < 2) {
+            // Too short for an n-gram lookup; a single character matches most names anyway
+            for (int doc = 0; doc < normalizedNames.length; doc++) {
+                if (normalizedNames[doc].contains(needle)) {
+                    if (total >= offset && page.size() < limit) page.add(ids[doc]);
+                    total++;
+                }
+            }
+            return new Hits(page, total);
+        }
+
+        int[][] lists = postingsFor(needle);
+        int[] cursors = new int[lists.length];
+        for (int doc : lists[0]) {
+            if (!inAll(lists, cursors, doc)) continue;
+            if (lists.length > 1 && !normalizedNames[doc].contains(needle)) continue;
+            if (total >= offset && page.size() < limit) page.add(ids[doc]);
+            total++;
+        }
+        return new Hits(page, total);
+    }
+
+    /**
+     * @return The number of indexed cards.
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Lower-cases a name and strips accents, so "Lim-Dûl" is found by "lim-dul".
+     */
+    public static String normalize(String text) {
+        if (text == null) return "";
+        String lower = text.toLowerCase(Locale.ROOT);
+        if (lower.chars().allMatch(c -> c < 0x80)) return lower;
+        return COMBINING_MARKS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    /**
+     * Collects the posting lists of the query's trigrams (or its single bigram), shortest first.
+     */
+    private int[][] postingsFor(String needle) {
+        int n = needle.length() == 2 ? 2 : 3;
+        int count = needle.length() - n + 1;
+        int[][] lists = new int[count][];
+        for (int i = 0; i < count; i++) {
+            lists[i] = postings.getOrDefault(gram(needle, i, n), NO_POSTINGS);
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.length));
+        return lists;
+    }
+
+    /**
+     * Checks that every other posting list contains the card. Docs are probed in ascending order,
+     * so each list keeps a cursor that only moves forward, galloping past runs of smaller docs.
+     */
+    private static boolean inAll(int[][] lists, int[] cursors, int doc) {
+        for (int i = 1; i < lists.length; i++) {
+            int[] list = lists[i];
+            int from = cursors[i];
+            int step = 1;
+            int to = from;
+            while (to < list.length && list[to] < doc) {
+                from = to;
+                to += step;
+                step <<= 1;
+            }
+            int found = Arrays.binarySearch(list, from, Math.min(to + 1, list.length), doc);
+            cursors[i] = found >= 0 ? found : -found - 1;
+            if (found < 0) return false;
+        }
+        return true;
+    }
+
+    private static long gram(String text, int start, int n) {
+        long key = n;
+        for (int i = start; i < start + n; i++) {
+            key = (key << 16) | text.charAt(i);
+        }
+        return key;
+    }
+
+    /**
+     * A growable int array, to avoid boxing every posting while the index is built.
+     */
+    private static class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        int last() {
+            return values[size - 1];
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.abrams.magic_db.service.search;
+
+import com.abrams.magic_db.repository.CardRepository;
+import com.abrams.magic_db.repository.CardRepository.CardNameView;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Owns the current {@link CardNameIndex}. It is built when the application starts and rebuilt
+ * after every import; searches keep using the previous index until the new one is swapped in.
+ */
+@Service
+public class CardNameIndexService {
+
+    private final CardRepository cardRepository;
+
+    private volatile CardNameIndex index;
+
+    public CardNameIndexService(CardRepository cardRepository) {
+        this.cardRepository = cardRepository;
+    }
+
+    /**
+     * Loads every card name and replaces the current index with a fresh one.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        List<CardNameView> cards = cardRepository.findAllNames();
+        List<UUID> ids = new ArrayList<>(cards.size());
+        List<String> names = new ArrayList<>(cards.size());
+        for (CardNameView card : cards) {
+            ids.add(card.getId());
+            names.add(card.getName());
+        }
+        index = CardNameIndex.build(ids, names);
+        System.out.printf("Card name index built: %d cards in %d ms%n",
+                index.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Finds one page of cards whose name contains the search term.
+     * @param name The search term (case- and accent-insensitive).
+     * @param offset How many hits to skip.
+     * @param limit The page size.
+     * @return The page of card ids in name order, or null if the index has not been built yet.
+     */
+    public CardNameIndex.Hits search(String name, int offset, int limit) {
+        CardNameIndex current = index;
+        return current != null ? current.search(name, offset, limit) : null;
+    }
+
+    /**
+     * Finds every card whose name contains the search term, if there are not too many.
+     * @param name The search term (case- and accent-insensitive).
+     * @param max The most ids the caller is willing to take.
+     * @return The matching card ids in name order, or null if there are more than {@code max}
+     *         or the index has not been built yet.
+     */
+    public List<UUID> matchingIds(String name, int max) {
+        CardNameIndex.Hits hits = search(name, 0, max);
+        return hits != null && hits.total() <= max ? hits.ids() : null;
+    }
+}
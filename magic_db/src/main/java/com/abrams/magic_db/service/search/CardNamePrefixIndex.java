@@ -0,0 +1,218 @@
+package com.abrams.magic_db.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * An immutable prefix index for autocomplete, ranking completions by popularity.
+ *
+ * <p>Every word start of every distinct name is a key ("lightning bolt" and "bolt" both lead to
+ * Lightning Bolt), and the keys are kept in one sorted array. A prefix therefore maps to a
+ * contiguous range of keys, found with two binary searches: a trie laid out flat, with no node
+ * objects. Short prefixes match huge ranges, so every prefix whose range is larger than
+ * {@link #SCAN_LIMIT} has its best completions computed up front; smaller ranges are simply
+ * scanned. Either way a lookup touches at most a few hundred array slots.
+ */
+public class CardNamePrefixIndex {
+
+    private static final int SCAN_LIMIT = 256;
+
+    // Precomputed ranges keep a few extra entries, since one name can appear in a range more than once
+    private static final int PRECOMPUTED = 50;
+
+    private final String[] keys;
+    private final int[] keyNames;
+    private final boolean[] wholeName;
+    private final String[] names;
+    private final UUID[] ids;
+    private final long[] scores;
+    private final Map<String, int[]> topByPrefix;
+
+    private CardNamePrefixIndex(String[] keys, int[] keyNames, boolean[] wholeName, String[] names, UUID[] ids,
+                                long[] scores, Map<String, int[]> topByPrefix) {
+        this.keys = keys;
+        this.keyNames = keyNames;
+        this.wholeName = wholeName;
+        this.names = names;
+        this.ids = ids;
+        this.scores = scores;
+        this.topByPrefix = topByPrefix;
+    }
+
+    /**
+     * Builds the index. Printings that share a name collapse into one entry that keeps the
+     * id of the most popular printing and the summed popularity of all of them.
+     * @param ids The card ids.
+     * @param names The card names, in the same order as the ids.
+     * @param popularity How often each card is used, in the same order as the ids.
+     */
+    public static CardNamePrefixIndex build(List<UUID> ids, List<String> names, List<Long> popularity) {
+        Map<String, Integer> byName = new HashMap<>();
+        List<String> distinctNames = new ArrayList<>();
+        List<UUID> bestIds = new ArrayList<>();
+        List<Long> bestScores = new ArrayList<>();
+        List<Long> totals = new ArrayList<>();
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i);
+            if (name == null) continue;
+            long score = popularity.get(i);
+            Integer slot = byName.get(name);
+            if (slot == null) {
+                byName.put(name, distinctNames.size());
+                distinctNames.add(name);
+                bestIds.add(ids.get(i));
+                bestScores.add(score);
+                totals.add(score);
+            } else {
+                if (score > bestScores.get(slot)) {
+                    bestIds.set(slot, ids.get(i));
+                    bestScores.set(slot, score);
+                }
+                totals.set(slot, totals.get(slot) + score);
+            }
+        }
+
+        List<String> keyList = new ArrayList<>();
+        List<Integer> keyNameList = new ArrayList<>();
+        for (int n = 0; n < distinctNames.size(); n++) {
+            String normalized = CardNameIndex.normalize(distinctNames.get(n));
+            for (int i = 0; i < normalized.length(); i++) {
+                if (i == 0 || (!Character.isLetterOrDigit(normalized.charAt(i - 1)) && Character.isLetterOrDigit(normalized.charAt(i)))) {
+                    keyList.add(normalized.substring(i));
+                    keyNameList.add(n);
+                }
+            }
+        }
+        Integer[] order = new Integer[keyList.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> keyList.get(a).compareTo(keyList.get(b)));
+
+        String[] keys = new String[order.length];
+        int[] keyNames = new int[order.length];
+        boolean[] wholeName = new boolean[order.length];
+        for (int i = 0; i < order.length; i++) {
+            keys[i] = keyList.get(order[i]);
+            keyNames[i] = keyNameList.get(order[i]);
+            wholeName[i] = keys[i].equals(CardNameIndex.normalize(distinctNames.get(keyNames[i])));
+        }
+        long[] scores = totals.stream().mapToLong(Long::longValue).toArray();
+
+        CardNamePrefixIndex index = new CardNamePrefixIndex(keys, keyNames, wholeName, distinctNames.toArray(String[]::new),
+                bestIds.toArray(UUID[]::new), scores, new HashMap<>());
+        index.precompute(0, keys.length, 0);
+        return index;
+    }
+
+    /**
+     * @param prefix What the user has typed so far.
+     * @param limit The maximum number of suggestions.
+     * @return The most popular names with a word starting with the prefix; names that start with
+     *         it come first when popularity is equal.
+     */
+    public List<CardSuggestion> complete(String prefix, int limit) {
+        String normalized = CardNameIndex.normalize(prefix).stripLeading();
+        if (normalized.isEmpty()) return List.of();
+
+        int[] candidates = topByPrefix.get(normalized);
+        if (candidates == null) {
+            int from = lowerBound(normalized);
+            int to = upperBound(normalized, from);
+            candidates = best(from, to, Math.max(limit, PRECOMPUTED));
+        }
+
+        List<CardSuggestion> suggestions = new ArrayList<>(limit);
+        List<Integer> seen = new ArrayList<>(limit);
+        for (int key : candidates) {
+            int name = keyNames[key];
+            if (seen.contains(name)) continue;
+            seen.add(name);
+            suggestions.add(new CardSuggestion(ids[name], names[name]));
+            if (suggestions.size() == limit) break;
+        }
+        return suggestions;
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Walks the prefixes of the sorted keys depth first, storing the best completions of every
+     * prefix whose range is too large to scan at query time.
+     */
+    private void precompute(int from, int to, int depth) {
+        if (to - from <= SCAN_LIMIT) return;
+        if (depth > 0) {
+            topByPrefix.put(keys[from].substring(0, depth), best(from, to, PRECOMPUTED));
+        }
+        int start = from;
+        // Keys shorter than depth + 1 sort first and have no longer prefix to descend into
+        while (start < to && keys[start].length() <= depth) start++;
+        while (start < to) {
+            char c = keys[start].charAt(depth);
+            int end = start;
+            while (end < to && keys[end].charAt(depth) == c) end++;
+            precompute(start, end, depth + 1);
+            start = end;
+        }
+    }
+
+    /**
+     * The positions of the highest ranked keys in [from, to), best first.
+     */
+    private int[] best(int from, int to, int k) {
+        int[] top = new int[Math.min(k, to - from)];
+        int size = 0;
+        for (int key = from; key < to; key++) {
+            if (size < top.length) {
+                top[size++] = key;
+            } else if (ranksBefore(key, top[size - 1])) {
+                top[size - 1] = key;
+            } else {
+                continue;
+            }
+            // Insertion step keeps the small array sorted
+            for (int i = size - 1; i > 0 && ranksBefore(top[i], top[i - 1]); i--) {
+                int swap = top[i];
+                top[i] = top[i - 1];
+                top[i - 1] = swap;
+            }
+        }
+        return top;
+    }
+
+    /**
+     * Orders by popularity, then whole-name matches before later-word matches, then shorter names.
+     */
+    private boolean ranksBefore(int a, int b) {
+        int nameA = keyNames[a], nameB = keyNames[b];
+        if (scores[nameA] != scores[nameB]) return scores[nameA] > scores[nameB];
+        if (wholeName[a] != wholeName[b]) return wholeName[a];
+        if (names[nameA].length() != names[nameB].length()) return names[nameA].length() < names[nameB].length();
+        return keys[a].compareTo(keys[b]) < 0;
+    }
+
+    private int lowerBound(String prefix) {
+        int lo = 0, hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private int upperBound(String prefix, int from) {
+        int lo = from, hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid].startsWith(prefix)) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
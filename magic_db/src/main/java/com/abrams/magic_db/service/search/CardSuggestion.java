@@ -0,0 +1,9 @@
+package com.abrams.magic_db.service.search;
+
+import java.util.UUID;
+
+/**
+ * An autocomplete entry: a card name and the id of its most popular printing.
+ */
+public record CardSuggestion(UUID id, String name) {
+}
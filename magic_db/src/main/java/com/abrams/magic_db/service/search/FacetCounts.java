@@ -0,0 +1,10 @@
+package com.abrams.magic_db.service.search;
+
+import java.util.Map;
+
+/**
+ * The result of a facet query: how many cards match, and per facet (color, rarity, set, type, cmc)
+ * how many of them would match with each value of that facet selected instead.
+ */
+public record FacetCounts(long total, Map<String, Map<String, Integer>> facets) {
+}
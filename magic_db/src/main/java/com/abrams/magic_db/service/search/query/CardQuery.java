@@ -0,0 +1,79 @@
+package com.abrams.magic_db.service.search.query;
+
+import java.util.List;
+
+/**
+ * A parsed card search, e.g. {@code c:rg t:creature cmc>=3 o:"draw a card"}. Produced by
+ * {@link CardQueryParser} and turned into a JPA Specification by {@link CardQueryCompiler}.
+ */
+public sealed interface CardQuery {
+
+    /**
+     * Matches cards that match every one of the terms.
+     */
+    record And(List<CardQuery> terms) implements CardQuery {
+    }
+
+    /**
+     * Matches cards that match at least one of the terms.
+     */
+    record Or(List<CardQuery> terms) implements CardQuery {
+    }
+
+    /**
+     * Matches cards that do not match the term ({@code -t:land}).
+     */
+    record Not(CardQuery term) implements CardQuery {
+    }
+
+    /**
+     * A single comparison such as {@code cmc>=3}. Bare words become {@link Field#NAME} terms.
+     */
+    record Term(Field field, Operator operator, String value) implements CardQuery {
+    }
+
+    /**
+     * The searchable properties of a card and the keywords that select them.
+     */
+    enum Field {
+        NAME("n", "name"),
+        COLOR("c", "color", "colors"),
+        IDENTITY("id", "identity", "ci"),
+        TYPE("t", "type"),
+        ORACLE("o", "oracle"),
+        CMC("cmc", "mv", "manavalue"),
+        RARITY("r", "rarity"),
+        SET("s", "set", "e", "edition");
+
+        private final List<String> keywords;
+
+        Field(String... keywords) {
+            this.keywords = List.of(keywords);
+        }
+
+        /**
+         * @return The field selected by the keyword (case-insensitive), or null if there is none.
+         */
+        public static Field fromKeyword(String keyword) {
+            String lower = keyword.toLowerCase();
+            for (Field field : values()) {
+                if (field.keywords.contains(lower)) return field;
+            }
+            return null;
+        }
+    }
+
+    enum Operator {
+        COLON(":"), EQ("="), NE("!="), LT("<"), LE("<="), GT(">"), GE(">=");
+
+        private final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        public String symbol() {
+            return symbol;
+        }
+    }
+}
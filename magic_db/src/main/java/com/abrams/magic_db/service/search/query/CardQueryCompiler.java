@@ -0,0 +1,267 @@
+package com.abrams.magic_db.service.search.query;
+
+import com.abrams.magic_db.model.Card;
+import com.abrams.magic_db.model.CardFace;
+import com.abrams.magic_db.model.ColorMask;
+import com.abrams.magic_db.model.ColorMask.Match;
+import com.abrams.magic_db.service.search.CardNameIndexService;
+import com.abrams.magic_db.service.search.query.CardQuery.And;
+import com.abrams.magic_db.service.search.query.CardQuery.Field;
+import com.abrams.magic_db.service.search.query.CardQuery.Not;
+import com.abrams.magic_db.service.search.query.CardQuery.Operator;
+import com.abrams.magic_db.service.search.query.CardQuery.Or;
+import com.abrams.magic_db.service.search.query.CardQuery.Term;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Turns a {@link CardQuery} into a JPA {@link Specification} over {@link Card}.
+ *
+ * <p>Card-level terms (set, rarity, colors, color identity) compare columns of {@code cards}; face-level
+ * terms (type, oracle text, cmc) become an EXISTS over {@code card_faces}, so a card matches when any
+ * of its faces does. The terms of an AND are ordered most selective first: name terms are answered
+ * by the in-memory name index and become an {@code id IN (...)} filter when the index narrows
+ * them down far enough, followed by indexed equality checks, and the substring checks on faces last.
+ */
+@Component
+public class CardQueryCompiler {
+
+    // Above this many name matches, an IN list costs more than letting the trigram index do the filtering
+    private static final int MAX_NAME_CANDIDATES = 2000;
+
+    private static final List<String> RARITIES = List.of("common", "uncommon", "rare", "mythic");
+    private static final Map<String, String> RARITY_ABBREVIATIONS = Map.of(
+            "c", "common", "u", "uncommon", "r", "rare", "m", "mythic", "s", "special", "b", "bonus");
+    private static final Map<String, String> COLOR_NAMES = Map.ofEntries(
+            Map.entry("white", "w"), Map.entry("blue", "u"), Map.entry("black", "b"), Map.entry("red", "r"),
+            Map.entry("green", "g"),
+            Map.entry("azorius", "wu"), Map.entry("dimir", "ub"), Map.entry("rakdos", "br"), Map.entry("gruul", "rg"),
+            Map.entry("selesnya", "gw"), Map.entry("orzhov", "wb"), Map.entry("izzet", "ur"), Map.entry("golgari", "bg"),
+            Map.entry("boros", "rw"), Map.entry("simic", "gu"),
+            Map.entry("bant", "gwu"), Map.entry("esper", "wub"), Map.entry("grixis", "ubr"), Map.entry("jund", "brg"),
+            Map.entry("naya", "rgw"), Map.entry("abzan", "wbg"), Map.entry("jeskai", "urw"), Map.entry("sultai", "bgu"),
+            Map.entry("mardu", "rwb"), Map.entry("temur", "gur"));
+
+    private final CardNameIndexService cardNameIndexService;
+
+    public CardQueryCompiler(CardNameIndexService cardNameIndexService) {
+        this.cardNameIndexService = cardNameIndexService;
+    }
+
+    /**
+     * @param query The parsed search.
+     * @return A Specification matching the cards the search describes.
+     * @throws InvalidCardQueryException if a term uses an operator or value its field does not support.
+     */
+    public Specification<Card> compile(CardQuery query) {
+        Function<Context, Predicate> predicate = plan(query);
+        return (root, criteriaQuery, cb) -> predicate.apply(new Context(root, criteriaQuery, cb));
+    }
+
+    /**
+     * The pieces a predicate is built from; a new one is passed for each query Spring runs (page and count).
+     */
+    private record Context(Root<Card> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+    }
+
+    /**
+     * Resolves everything that does not depend on the criteria query (value validation, name index
+     * lookups) once, and returns a function that builds the predicate for a given query.
+     */
+    private Function<Context, Predicate> plan(CardQuery query) {
+        if (query instanceof And and) {
+            List<CardQuery> ordered = new ArrayList<>(and.terms());
+            ordered.sort(Comparator.comparingInt(this::selectivityRank));
+            List<Function<Context, Predicate>> parts = ordered.stream().map(this::plan).toList();
+            return ctx -> ctx.cb().and(parts.stream().map(part -> part.apply(ctx)).toArray(Predicate[]::new));
+        }
+        if (query instanceof Or or) {
+            List<Function<Context, Predicate>> parts = or.terms().stream().map(this::plan).toList();
+            return ctx -> ctx.cb().or(parts.stream().map(part -> part.apply(ctx)).toArray(Predicate[]::new));
+        }
+        if (query instanceof Not not) {
+            Function<Context, Predicate> inner = plan(not.term());
+            return ctx -> ctx.cb().not(inner.apply(ctx));
+        }
+        return planTerm((Term) query);
+    }
+
+    /**
+     * Lower ranks go first. Based on how many cards each kind of term typically leaves,
+     * and on whether it can be answered from an index on {@code cards} rather than a face subquery.
+     */
+    private int selectivityRank(CardQuery query) {
+        if (!(query instanceof Term term)) return 9;
+        return switch (term.field()) {
+            case NAME -> 0;
+            case SET -> 1;
+            case CMC -> term.operator() == Operator.COLON || term.operator() == Operator.EQ ? 3 : 6;
+            case RARITY, COLOR, IDENTITY -> 4;
+            case TYPE -> 5;
+            case ORACLE -> 7;
+        };
+    }
+
+    private Function<Context, Predicate> planTerm(Term term) {
+        return switch (term.field()) {
+            case NAME -> planName(term);
+            case SET -> {
+                requireEquality(term);
+                String code = term.value().toLowerCase(Locale.ROOT);
+                yield ctx -> negateIfNe(ctx, term, ctx.cb().equal(ctx.root().get("setCode"), code));
+            }
+            case RARITY -> planRarity(term);
+            case CMC -> planCmc(term);
+            case TYPE -> planFaceText(term, "typeLine");
+            case ORACLE -> planFaceText(term, "oracleText");
+            case COLOR -> planColors(term, "colorMask");
+            case IDENTITY -> planColors(term, "colorIdentity");
+        };
+    }
+
+    private Function<Context, Predicate> planName(Term term) {
+        requireContains(term);
+        List<UUID> candidates = cardNameIndexService.matchingIds(term.value(), MAX_NAME_CANDIDATES);
+        if (candidates != null) {
+            if (candidates.isEmpty()) return ctx -> ctx.cb().disjunction();
+            return ctx -> ctx.root().get("id").in(candidates);
+        }
+        String pattern = containsPattern(term.value());
+        return ctx -> ctx.cb().like(ctx.cb().lower(ctx.root().get("name")), pattern, '\\');
+    }
+
+    private Function<Context, Predicate> planRarity(Term term) {
+        String rarity = RARITY_ABBREVIATIONS.getOrDefault(term.value().toLowerCase(Locale.ROOT), term.value().toLowerCase(Locale.ROOT));
+        if (term.operator() == Operator.COLON || term.operator() == Operator.EQ || term.operator() == Operator.NE) {
+            return ctx -> negateIfNe(ctx, term, ctx.cb().equal(ctx.root().get("rarity"), rarity));
+        }
+        int rank = RARITIES.indexOf(rarity);
+        if (rank < 0) throw new InvalidCardQueryException("Rarity '" + term.value() + "' cannot be compared");
+        List<String> matching = new ArrayList<>();
+        for (int i = 0; i < RARITIES.size(); i++) {
+            if (compare(i, rank, term.operator())) matching.add(RARITIES.get(i));
+        }
+        return ctx -> ctx.root().get("rarity").in(matching);
+    }
+
+    private Function<Context, Predicate> planCmc(Term term) {
+        double value;
+        try {
+            value = Double.parseDouble(term.value());
+        } catch (NumberFormatException e) {
+            throw new InvalidCardQueryException("cmc needs a number, got '" + term.value() + "'");
+        }
+        return ctx -> anyFace(ctx, face -> {
+            Path<Double> cmc = face.get("cmc");
+            CriteriaBuilder cb = ctx.cb();
+            return switch (term.operator()) {
+                case COLON, EQ -> cb.equal(cmc, value);
+                case NE -> cb.notEqual(cmc, value);
+                case LT -> cb.lessThan(cmc, value);
+                case LE -> cb.lessThanOrEqualTo(cmc, value);
+                case GT -> cb.greaterThan(cmc, value);
+                case GE -> cb.greaterThanOrEqualTo(cmc, value);
+            };
+        });
+    }
+
+    private Function<Context, Predicate> planFaceText(Term term, String attribute) {
+        requireContains(term);
+        String pattern = containsPattern(term.value());
+        return ctx -> anyFace(ctx, face -> ctx.cb().like(ctx.cb().lower(face.get(attribute)), pattern, '\\'));
+    }
+
+    /**
+     * {@code c:rg} / {@code c>=rg}: has at least red and green. {@code c=rg}: exactly red and green.
+     * {@code c<=rg}: no colors besides red and green. {@code c!=rg}: anything but exactly red and green.
+     * {@code c:c} is colorless. Identity terms compare the same way, except that {@code id:ug} means
+     * "within a Simic identity" ({@code id<=ug}), which is how identity is usually asked about.
+     * Either way the filter becomes {@code mask IN (...)} on an indexed column of {@code cards}.
+     */
+    private Function<Context, Predicate> planColors(Term term, String attribute) {
+        int mask = parseColors(term.value());
+        List<Short> masks = switch (term.operator()) {
+            case COLON -> ColorMask.matching(mask, attribute.equals("colorIdentity") ? Match.AT_MOST : Match.INCLUDING);
+            case GE -> ColorMask.matching(mask, Match.INCLUDING);
+            case EQ, NE -> ColorMask.matching(mask, Match.EXACTLY);
+            case LE -> ColorMask.matching(mask, Match.AT_MOST);
+            default -> throw new InvalidCardQueryException("Colors cannot be compared with '" + term.operator().symbol() + "'");
+        };
+        return ctx -> negateIfNe(ctx, term, ctx.root().get(attribute).in(masks));
+    }
+
+    /**
+     * EXISTS (SELECT 1 FROM card_faces f WHERE f.card_id = card.id AND ...)
+     */
+    private Predicate anyFace(Context ctx, Function<Root<CardFace>, Predicate> condition) {
+        Subquery<Integer> subquery = ctx.query().subquery(Integer.class);
+        Root<CardFace> face = subquery.from(CardFace.class);
+        subquery.select(ctx.cb().literal(1))
+                .where(ctx.cb().equal(face.get("card"), ctx.root()), condition.apply(face));
+        return ctx.cb().exists(subquery);
+    }
+
+    private static int parseColors(String value) {
+        String lower = value.toLowerCase(Locale.ROOT);
+        if (lower.equals("c") || lower.equals("colorless")) return 0;
+        if (COLOR_NAMES.containsKey(lower)) lower = COLOR_NAMES.get(lower);
+        int mask = 0;
+        for (char c : lower.toCharArray()) {
+            int bit = ColorMask.bit(String.valueOf(c));
+            if (bit == 0) throw new InvalidCardQueryException("Unknown color '" + c + "'");
+            mask |= bit;
+        }
+        return mask;
+    }
+
+    private static Predicate negateIfNe(Context ctx, Term term, Predicate predicate) {
+        return term.operator() == Operator.NE ? ctx.cb().not(predicate) : predicate;
+    }
+
+    private static boolean compare(int left, int right, Operator operator) {
+        return switch (operator) {
+            case LT -> left < right;
+            case LE -> left <= right;
+            case GT -> left > right;
+            case GE -> left >= right;
+            default -> left == right;
+        };
+    }
+
+    private static void requireEquality(Term term) {
+        if (term.operator() != Operator.COLON && term.operator() != Operator.EQ && term.operator() != Operator.NE) {
+            throw new InvalidCardQueryException(term.field().name().toLowerCase() + " cannot be compared with '" + term.operator().symbol() + "'");
+        }
+    }
+
+    private static void requireContains(Term term) {
+        if (term.operator() != Operator.COLON && term.operator() != Operator.EQ) {
+            throw new InvalidCardQueryException(term.field().name().toLowerCase() + " only supports ':'");
+        }
+    }
+
+    /**
+     * Builds a case-insensitive LIKE pattern for "contains", escaping the LIKE wildcards in the value.
+     */
+    private static String containsPattern(String value) {
+        String escaped = value.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
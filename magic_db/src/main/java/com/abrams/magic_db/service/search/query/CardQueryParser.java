@@ -0,0 +1,161 @@
+package com.abrams.magic_db.service.search.query;
+
+import com.abrams.magic_db.service.search.query.CardQuery.And;
+import com.abrams.magic_db.service.search.query.CardQuery.Field;
+import com.abrams.magic_db.service.search.query.CardQuery.Not;
+import com.abrams.magic_db.service.search.query.CardQuery.Operator;
+import com.abrams.magic_db.service.search.query.CardQuery.Or;
+import com.abrams.magic_db.service.search.query.CardQuery.Term;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses the Scryfall-style search syntax into a {@link CardQuery}.
+ *
+ * <pre>
+ * query  := and ("or" and)*
+ * and    := unary+
+ * unary  := "-" unary | "(" query ")" | term
+ * term   := keyword operator value | word | "quoted words"
+ * </pre>
+ *
+ * Terms next to each other must all match; {@code or} (any case) binds looser than that.
+ * Values may be quoted to include spaces, e.g. {@code o:"draw a card"}. A word ending in a colon
+ * that is not a keyword, as in {@code Circle of Protection: Red}, is part of the name.
+ */
+public class CardQueryParser {
+
+    private final String input;
+    private int pos;
+
+    private CardQueryParser(String input) {
+        this.input = input;
+    }
+
+    /**
+     * @param input The search as typed by the user.
+     * @return The parsed query.
+     * @throws InvalidCardQueryException if the search is malformed or uses an unknown keyword.
+     */
+    public static CardQuery parse(String input) {
+        CardQueryParser parser = new CardQueryParser(input);
+        CardQuery query = parser.parseOr();
+        parser.skipWhitespace();
+        if (parser.pos < input.length()) {
+            throw new InvalidCardQueryException("Unexpected '" + input.charAt(parser.pos) + "' at position " + parser.pos);
+        }
+        return query;
+    }
+
+    private CardQuery parseOr() {
+        List<CardQuery> alternatives = new ArrayList<>();
+        alternatives.add(parseAnd());
+        while (consumeOrKeyword()) {
+            alternatives.add(parseAnd());
+        }
+        return alternatives.size() == 1 ? alternatives.get(0) : new Or(alternatives);
+    }
+
+    private CardQuery parseAnd() {
+        List<CardQuery> terms = new ArrayList<>();
+        while (true) {
+            skipWhitespace();
+            if (pos >= input.length() || peek() == ')' || atOrKeyword()) break;
+            terms.add(parseUnary());
+        }
+        if (terms.isEmpty()) throw new InvalidCardQueryException("Expected a search term at position " + pos);
+        return terms.size() == 1 ? terms.get(0) : new And(terms);
+    }
+
+    private CardQuery parseUnary() {
+        if (pos >= input.length()) throw new InvalidCardQueryException("Expected a search term at position " + pos);
+        char c = peek();
+        if (c == '-') {
+            pos++;
+            return new Not(parseUnary());
+        }
+        if (c == '(') {
+            pos++;
+            CardQuery inner = parseOr();
+            skipWhitespace();
+            if (pos >= input.length() || peek() != ')') throw new InvalidCardQueryException("Missing ')'");
+            pos++;
+            return inner;
+        }
+        return parseTerm();
+    }
+
+    private CardQuery parseTerm() {
+        if (peek() == '"') {
+            return new Term(Field.NAME, Operator.COLON, readQuoted());
+        }
+
+        int start = pos;
+        while (pos < input.length() && Character.isLetter(peek())) pos++;
+        String keyword = input.substring(start, pos);
+        Operator operator = readOperator();
+        Field field = Field.fromKeyword(keyword);
+        if (operator == null || (field == null && operator == Operator.COLON && atWordEnd())) {
+            // A bare word is a name search
+            pos = start;
+            String word = readWord();
+            if (word.isEmpty()) throw new InvalidCardQueryException("Expected a search term at position " + pos);
+            return new Term(Field.NAME, Operator.COLON, word);
+        }
+
+        if (field == null) throw new InvalidCardQueryException("Unknown search keyword '" + keyword + "'");
+        String value = pos < input.length() && peek() == '"' ? readQuoted() : readWord();
+        if (value.isEmpty()) throw new InvalidCardQueryException("Missing value for '" + keyword + operator.symbol() + "'");
+        return new Term(field, operator, value);
+    }
+
+    private Operator readOperator() {
+        if (pos >= input.length()) return null;
+        for (Operator operator : new Operator[]{Operator.NE, Operator.LE, Operator.GE, Operator.COLON, Operator.EQ, Operator.LT, Operator.GT}) {
+            if (input.startsWith(operator.symbol(), pos)) {
+                pos += operator.symbol().length();
+                return operator;
+            }
+        }
+        return null;
+    }
+
+    private String readWord() {
+        int start = pos;
+        while (pos < input.length() && !Character.isWhitespace(peek()) && peek() != '(' && peek() != ')') pos++;
+        return input.substring(start, pos);
+    }
+
+    private String readQuoted() {
+        int end = input.indexOf('"', pos + 1);
+        if (end < 0) throw new InvalidCardQueryException("Missing closing quote");
+        String value = input.substring(pos + 1, end);
+        pos = end + 1;
+        return value;
+    }
+
+    private boolean atWordEnd() {
+        return pos >= input.length() || Character.isWhitespace(peek()) || peek() == ')';
+    }
+
+    private boolean atOrKeyword() {
+        return input.regionMatches(true, pos, "or", 0, 2)
+                && (pos + 2 == input.length() || Character.isWhitespace(input.charAt(pos + 2)) || input.charAt(pos + 2) == '(');
+    }
+
+    private boolean consumeOrKeyword() {
+        skipWhitespace();
+        if (!atOrKeyword()) return false;
+        pos += 2;
+        return true;
+    }
+
+    private void skipWhitespace() {
+        while (pos < input.length() && Character.isWhitespace(peek())) pos++;
+    }
+
+    private char peek() {
+        return input.charAt(pos);
+    }
+}
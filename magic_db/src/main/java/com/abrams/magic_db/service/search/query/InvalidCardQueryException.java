@@ -0,0 +1,15 @@
+package com.abrams.magic_db.service.search.query;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a card search cannot be parsed or uses an unsupported field/operator combination.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidCardQueryException extends RuntimeException {
+
+    public InvalidCardQueryException(String message) {
+        super(message);
+    }
+}
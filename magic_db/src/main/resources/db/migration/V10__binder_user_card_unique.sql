@@ -0,0 +1,16 @@
+-- A user owns at most one binder row per card printing, so quantities can be upserted with
+-- ON CONFLICT (user_id, card_id). Rows duplicated by earlier concurrent adds are folded into
+-- the oldest one first.
+UPDATE binders b SET quantity = d.total
+FROM (SELECT MIN(binder_id) AS keep_id, SUM(quantity) AS total
+      FROM binders GROUP BY user_id, card_id HAVING COUNT(*) > 1) d
+WHERE b.binder_id = d.keep_id;
+
+DELETE FROM binders b USING binders k
+WHERE b.user_id = k.user_id AND b.card_id = k.card_id AND b.binder_id > k.binder_id;
+
+ALTER TABLE binders ADD CONSTRAINT uq_binders_user_card UNIQUE (user_id, card_id);
+
+-- Collection imports resolve card names case-insensitively, by full name or front face name
+CREATE INDEX IF NOT EXISTS idx_cards_lower_name ON cards (lower(name));
+CREATE INDEX IF NOT EXISTS idx_cards_lower_front_name ON cards (lower(split_part(name, ' // ', 1)));
@@ -0,0 +1,36 @@
+-- Per-user collection totals, kept up to date by every binder write (see CollectionStatsService), so the
+-- stats endpoint reads a few dozen rows instead of aggregating the whole binder.
+-- One row per (user, facet, value): copies owned and distinct printings owned. The facet 'total' with
+-- an empty value holds the overall totals.
+CREATE TABLE IF NOT EXISTS binder_stats (
+    user_id bigint NOT NULL REFERENCES users (user_id) ON DELETE CASCADE,
+    facet text NOT NULL,
+    value text NOT NULL,
+    copies bigint NOT NULL DEFAULT 0,
+    cards integer NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, facet, value)
+);
+
+-- The stats rows a card counts towards: the total, its rarity, its set, its front face's mana value
+-- (7 and up in one bucket) and each of its colors (C for colorless)
+CREATE OR REPLACE VIEW card_stat_keys AS
+SELECT c.id AS card_id, k.facet, k.value
+FROM cards c
+LEFT JOIN card_faces f ON f.card_id = c.id AND f.face_index = 0
+CROSS JOIN LATERAL (
+    SELECT 'total' AS facet, '' AS value
+    UNION ALL SELECT 'rarity', c.rarity
+    UNION ALL SELECT 'set', c.set_code
+    UNION ALL SELECT 'cmc', CASE WHEN f.cmc >= 7 THEN '7+' ELSE floor(f.cmc)::int::text END
+    UNION ALL SELECT 'color', b.letter
+              FROM (VALUES (1, 'W'), (2, 'U'), (4, 'B'), (8, 'R'), (16, 'G'), (32, 'C')) AS b(bit, letter)
+              WHERE COALESCE(c.color_mask, 32) & b.bit <> 0
+) k
+WHERE k.value IS NOT NULL;
+
+INSERT INTO binder_stats (user_id, facet, value, copies, cards)
+SELECT b.user_id, k.facet, k.value, SUM(b.quantity), COUNT(*)
+FROM binders b
+JOIN card_stat_keys k ON k.card_id = b.card_id
+GROUP BY b.user_id, k.facet, k.value
+ON CONFLICT (user_id, facet, value) DO NOTHING;
@@ -0,0 +1,13 @@
+-- V5 gave the id columns nextval() defaults on sequences that step by 50, so every raw SQL insert
+-- that falls back on the default takes a whole block of ids, and an INSERT ... ON CONFLICT DO UPDATE
+-- takes one even when it only updates. Left alone that leaves gaps of 49 ids per row.
+--
+-- binders is only written through raw SQL upserts (add to binder, collection import and sync), so its
+-- sequence now steps by 1 and the Binder entity allocates one id at a time. An upsert that ends up
+-- updating still uses up one id.
+--
+-- card_faces keeps its 50-id blocks for the JPA import writer; the COPY merge assigns ids itself, one
+-- nextval per 50 new faces. Only ad hoc inserts that rely on the default (e.g. the search benchmark's
+-- seed data) still skip 49 ids per row. decks and deck_cards are only inserted through JPA.
+
+ALTER SEQUENCE binders_seq INCREMENT BY 1;
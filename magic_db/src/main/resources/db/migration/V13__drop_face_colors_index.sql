@@ -0,0 +1,3 @@
+-- c: and id: compile to IN lists on cards.color_mask and cards.color_identity since V9, so no query
+-- reads card_faces.colors through idx_card_faces_colors anymore; it only slowed down every import
+DROP INDEX IF EXISTS idx_card_faces_colors;
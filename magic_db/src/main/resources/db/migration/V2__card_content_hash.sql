@@ -0,0 +1,2 @@
+-- Fingerprint of a card and its faces, used by delta imports to skip unchanged cards
+ALTER TABLE cards ADD COLUMN IF NOT EXISTS content_hash bigint;
@@ -0,0 +1,11 @@
+CREATE TABLE IF NOT EXISTS import_jobs (
+    job_id        bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    phase         varchar(20) NOT NULL,
+    options       text,
+    processed     bigint DEFAULT 0,
+    failed        bigint DEFAULT 0,
+    created_at    timestamp(6) with time zone NOT NULL,
+    started_at    timestamp(6) with time zone,
+    finished_at   timestamp(6) with time zone,
+    error_message text
+);
@@ -0,0 +1,5 @@
+CREATE TABLE IF NOT EXISTS import_checkpoints (
+    job_id       bigint PRIMARY KEY REFERENCES import_jobs (job_id) ON DELETE CASCADE,
+    next_ordinal bigint NOT NULL,
+    updated_at   timestamp(6) with time zone NOT NULL
+);
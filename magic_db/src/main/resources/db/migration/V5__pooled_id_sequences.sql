@@ -0,0 +1,31 @@
+-- Identity columns force Hibernate to insert one row per round trip. These tables now take
+-- their ids from sequences that hand out blocks of 50 (matching allocationSize), so inserts
+-- can be sent as JDBC batches. Raw SQL inserts (e.g. the COPY merge) keep working through
+-- the column defaults.
+--
+-- Each sequence is moved one block past the current max id: Hibernate's pooled optimizer
+-- treats a fetched value as the top of a block and uses the 49 ids below it as well.
+
+CREATE SEQUENCE IF NOT EXISTS card_faces_seq INCREMENT BY 50;
+ALTER TABLE card_faces ALTER COLUMN face_id DROP IDENTITY IF EXISTS;
+ALTER TABLE card_faces ALTER COLUMN face_id SET DEFAULT nextval('card_faces_seq');
+ALTER SEQUENCE card_faces_seq OWNED BY card_faces.face_id;
+SELECT setval('card_faces_seq', COALESCE(MAX(face_id), 0) + 50) FROM card_faces;
+
+CREATE SEQUENCE IF NOT EXISTS binders_seq INCREMENT BY 50;
+ALTER TABLE binders ALTER COLUMN binder_id DROP IDENTITY IF EXISTS;
+ALTER TABLE binders ALTER COLUMN binder_id SET DEFAULT nextval('binders_seq');
+ALTER SEQUENCE binders_seq OWNED BY binders.binder_id;
+SELECT setval('binders_seq', COALESCE(MAX(binder_id), 0) + 50) FROM binders;
+
+CREATE SEQUENCE IF NOT EXISTS decks_seq INCREMENT BY 50;
+ALTER TABLE decks ALTER COLUMN deck_id DROP IDENTITY IF EXISTS;
+ALTER TABLE decks ALTER COLUMN deck_id SET DEFAULT nextval('decks_seq');
+ALTER SEQUENCE decks_seq OWNED BY decks.deck_id;
+SELECT setval('decks_seq', COALESCE(MAX(deck_id), 0) + 50) FROM decks;
+
+CREATE SEQUENCE IF NOT EXISTS deck_cards_seq INCREMENT BY 50;
+ALTER TABLE deck_cards ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE deck_cards ALTER COLUMN id SET DEFAULT nextval('deck_cards_seq');
+ALTER SEQUENCE deck_cards_seq OWNED BY deck_cards.id;
+SELECT setval('deck_cards_seq', COALESCE(MAX(id), 0) + 50) FROM deck_cards;
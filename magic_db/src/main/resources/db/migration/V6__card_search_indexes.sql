@@ -0,0 +1,19 @@
+-- Indexes behind the card search syntax (CardQueryCompiler)
+
+-- Face-level terms run as EXISTS (... WHERE f.card_id = c.id ...)
+CREATE INDEX IF NOT EXISTS idx_card_faces_card_id ON card_faces (card_id);
+
+-- s:, r: and cmc comparisons
+CREATE INDEX IF NOT EXISTS idx_cards_set_code ON cards (set_code);
+CREATE INDEX IF NOT EXISTS idx_cards_rarity ON cards (rarity);
+CREATE INDEX IF NOT EXISTS idx_card_faces_cmc ON card_faces (cmc);
+
+-- c: terms, rendered as colors @> ARRAY[...]
+CREATE INDEX IF NOT EXISTS idx_card_faces_colors ON card_faces USING gin (colors);
+
+-- Substring terms (t:, o:, and name when the in-memory name index cannot narrow it down) are
+-- lower(x) LIKE '%...%', which only a trigram index can answer without a full scan
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_cards_name_trgm ON cards USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_card_faces_type_line_trgm ON card_faces USING gin (lower(type_line) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_card_faces_oracle_text_trgm ON card_faces USING gin (lower(oracle_text) gin_trgm_ops);
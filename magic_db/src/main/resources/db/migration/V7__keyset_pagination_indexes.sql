@@ -0,0 +1,3 @@
+-- Keyset pagination seeks on (name, id) for cards and walks a user's binder entries
+CREATE INDEX IF NOT EXISTS idx_cards_name_id ON cards (name, id);
+CREATE INDEX IF NOT EXISTS idx_binders_user_id ON binders (user_id, binder_id);
@@ -0,0 +1,12 @@
+-- Ranked full-text search over rules text (CardRepository.searchFullText)
+
+-- Kept up to date by Postgres on every insert and update, so no import path has to fill it in.
+-- Weights let a match in the name outrank one in the type line, and both outrank the rules text.
+ALTER TABLE card_faces ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(name, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(type_line, '')), 'B') ||
+        setweight(to_tsvector('english', coalesce(oracle_text, '')), 'C')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_card_faces_search_vector ON card_faces USING gin (search_vector);
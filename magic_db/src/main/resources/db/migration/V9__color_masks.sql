@@ -0,0 +1,27 @@
+-- Colors as bitmasks (see ColorMask): W=1, U=2, B=4, R=8, G=16, colorless=32
+
+ALTER TABLE card_faces ADD COLUMN IF NOT EXISTS color_mask smallint;
+ALTER TABLE cards ADD COLUMN IF NOT EXISTS color_mask smallint;
+ALTER TABLE cards ADD COLUMN IF NOT EXISTS color_identity smallint;
+
+UPDATE card_faces SET color_mask = COALESCE(NULLIF(
+        (CASE WHEN colors @> ARRAY['W'] THEN 1 ELSE 0 END) |
+        (CASE WHEN colors @> ARRAY['U'] THEN 2 ELSE 0 END) |
+        (CASE WHEN colors @> ARRAY['B'] THEN 4 ELSE 0 END) |
+        (CASE WHEN colors @> ARRAY['R'] THEN 8 ELSE 0 END) |
+        (CASE WHEN colors @> ARRAY['G'] THEN 16 ELSE 0 END), 0), 32);
+
+UPDATE cards c SET color_mask = m.mask
+FROM (SELECT card_id, COALESCE(NULLIF(bit_or(color_mask & 31), 0), 32) AS mask
+      FROM card_faces GROUP BY card_id) m
+WHERE m.card_id = c.id;
+UPDATE cards SET color_mask = 32 WHERE color_mask IS NULL;
+
+-- The identity is not stored anywhere yet, so start from the card's colors. It feeds the content
+-- hash, so the next import sees every card as changed and rewrites it with Scryfall's color_identity.
+UPDATE cards SET color_identity = color_mask;
+
+-- Color filters become color_mask IN (...) over at most 32 values, which a B-tree answers
+-- with one index scan per value (combined as a bitmap when there are several)
+CREATE INDEX IF NOT EXISTS idx_cards_color_mask ON cards (color_mask);
+CREATE INDEX IF NOT EXISTS idx_cards_color_identity ON cards (color_identity);
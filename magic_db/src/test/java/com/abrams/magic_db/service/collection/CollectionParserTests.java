@@ -0,0 +1,146 @@
+package com.abrams.magic_db.service.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CollectionParserTests {
+
+	@Test
+	void readsTextLinesWithQuantitiesSetsAndCollectorNumbers() {
+		ParsedCollection parsed = CollectionParser.parse("""
+				4 Lightning Bolt
+				1x Ragavan, Nimble Pilferer (MH2) 138
+				2X Counterspell [MH2]
+				Sol Ring
+				3 Llanowar Elves (DOM) 168 *F*
+				""", CollectionFormat.TEXT);
+
+		assertEquals(List.of(), parsed.errors());
+		assertEquals(List.of(
+				new CollectionLine(1, "4 Lightning Bolt", 4, "Lightning Bolt", null, null, "4 Lightning Bolt"),
+				new CollectionLine(2, "1x Ragavan, Nimble Pilferer (MH2) 138", 1, "Ragavan, Nimble Pilferer", "mh2", "138", null),
+				new CollectionLine(3, "2X Counterspell [MH2]", 2, "Counterspell", "mh2", null, null),
+				new CollectionLine(4, "Sol Ring", 1, "Sol Ring", null, null, null),
+				new CollectionLine(5, "3 Llanowar Elves (DOM) 168 *F*", 3, "Llanowar Elves", "dom", "168",
+						"3 Llanowar Elves")), parsed.lines());
+	}
+
+	@Test
+	void keepsTheNameWithALeadingNumberUnlessAnXFollowsIt() {
+		ParsedCollection parsed = CollectionParser.parse("1996 World Champion\n2x 1996 World Champion\n", CollectionFormat.TEXT);
+
+		assertEquals(List.of(), parsed.errors());
+		assertEquals(List.of(
+				new CollectionLine(1, "1996 World Champion", 1996, "World Champion", null, null, "1996 World Champion"),
+				new CollectionLine(2, "2x 1996 World Champion", 2, "1996 World Champion", null, null, null)), parsed.lines());
+	}
+
+	@Test
+	void skipsBlankLinesCommentsAndSectionHeaders() {
+		ParsedCollection parsed = CollectionParser.parse("""
+				Deck
+				// Burn
+				4 Lightning Bolt
+
+				# the rest
+				Sideboard (15)
+				SIDEBOARD:
+				2 Pyroblast
+				""", CollectionFormat.TEXT);
+
+		assertEquals(List.of(), parsed.errors());
+		assertEquals(List.of("Lightning Bolt", "Pyroblast"), parsed.lines().stream().map(CollectionLine::name).toList());
+		assertEquals(List.of(3, 8), parsed.lines().stream().map(CollectionLine::line).toList());
+	}
+
+	@Test
+	void reportsQuantitiesOutOfRange() {
+		ParsedCollection parsed = CollectionParser.parse("0 Lightning Bolt\n10001 Island\n99999999999 Forest\n2 Mountain",
+				CollectionFormat.TEXT);
+
+		assertEquals(List.of("Mountain"), parsed.lines().stream().map(CollectionLine::name).toList());
+		assertEquals(List.of(1, 2, 3), parsed.errors().stream().map(CollectionLineError::line).toList());
+		assertEquals("Quantity is not a number", parsed.errors().get(2).message());
+	}
+
+	@Test
+	void readsCsvWithHeaderAliasesAndQuotedFields() {
+		ParsedCollection parsed = CollectionParser.parse("Count,Card Name,Edition,Collector Number,Foil\n"
+				+ "2,\"Kongming, \"\"Sleeping Dragon\"\"\",PTK,\"9\",\n"
+				+ ",Sol Ring,C21,263,foil\n", CollectionFormat.CSV);
+
+		assertEquals(List.of(), parsed.errors());
+		assertEquals(List.of(
+				new CollectionLine(2, "2,\"Kongming, \"\"Sleeping Dragon\"\"\",PTK,\"9\",", 2,
+						"Kongming, \"Sleeping Dragon\"", "ptk", "9", null),
+				new CollectionLine(3, ",Sol Ring,C21,263,foil", 1, "Sol Ring", "c21", "263", null)), parsed.lines());
+	}
+
+	@Test
+	void readsCsvRowsThatOnlyNameAPrinting() {
+		ParsedCollection parsed = CollectionParser.parse("qty,set,cn\r\n3,MH2,138\r\n1,MH2,\r\n", CollectionFormat.CSV);
+
+		assertEquals(List.of(new CollectionLine(2, "3,MH2,138", 3, null, "mh2", "138", null)), parsed.lines());
+		assertEquals(1, parsed.errors().size());
+		assertEquals(3, parsed.errors().get(0).line());
+	}
+
+	@Test
+	void rejectsCsvHeaderWithoutCardColumns() {
+		ParsedCollection parsed = CollectionParser.parse("quantity,price\n1,0.25\n", CollectionFormat.CSV);
+
+		assertTrue(parsed.lines().isEmpty());
+		assertEquals(1, parsed.errors().size());
+		assertEquals(1, parsed.errors().get(0).line());
+	}
+
+	@Test
+	void detectsCsvFromTheHeaderAndStripsTheByteOrderMark() {
+		ParsedCollection parsed = CollectionParser.parse("\uFEFFName,Quantity\nLightning Bolt,4\n", CollectionFormat.AUTO);
+
+		assertEquals(List.of(new CollectionLine(2, "Lightning Bolt,4", 4, "Lightning Bolt", null, null, null)), parsed.lines());
+	}
+
+	@Test
+	void detectsTextListsThatContainCommas() {
+		ParsedCollection parsed = CollectionParser.parse("1 Ragavan, Nimble Pilferer\n1 Sol Ring\n", CollectionFormat.AUTO);
+
+		assertEquals(List.of("Ragavan, Nimble Pilferer", "Sol Ring"),
+				parsed.lines().stream().map(CollectionLine::name).toList());
+	}
+
+	@Test
+	void readsBackACollectionExport() throws IOException {
+		List<CollectionExportRow> rows = List.of(
+				new CollectionExportRow(UUID.randomUUID(), 4, "Lightning Bolt", "m10", "146", "common"),
+				new CollectionExportRow(UUID.randomUUID(), 1, "Ragavan, Nimble Pilferer", "mh2", "138", "mythic"),
+				new CollectionExportRow(UUID.randomUUID(), 2, "Kongming, \"Sleeping Dragon\"", "ptk", "9", "rare"),
+				new CollectionExportRow(UUID.randomUUID(), 12, "Delver of Secrets // Insectile Aberration", "isd", "51a", "common"));
+		StringWriter export = new StringWriter();
+		export.write(CollectionExportService.CSV_HEADER);
+		export.write('\n');
+		for (CollectionExportRow row : rows) {
+			CollectionExportService.writeCsvRow(export, row);
+		}
+
+		ParsedCollection parsed = CollectionParser.parse(export.toString(), CollectionFormat.AUTO);
+
+		assertEquals(List.of(), parsed.errors());
+		assertEquals(rows.size(), parsed.lines().size());
+		for (int i = 0; i < rows.size(); i++) {
+			CollectionExportRow row = rows.get(i);
+			CollectionLine line = parsed.lines().get(i);
+			assertEquals(row.quantity(), line.quantity());
+			assertEquals(row.name(), line.name());
+			assertEquals(row.setCode(), line.setCode());
+			assertEquals(row.collectorNumber(), line.collectorNumber());
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package com.abrams.magic_db.service.image;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DiskImageStoreTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void storesAndReadsImages() {
+		DiskImageStore store = new DiskImageStore(directory, 1000);
+		store.put("1-thumb.img", new byte[]{1, 2, 3});
+
+		assertArrayEquals(new byte[]{1, 2, 3}, store.get("1-thumb.img").orElseThrow());
+		assertTrue(store.get("2-thumb.img").isEmpty());
+		assertEquals(1, store.getFileCount());
+		assertEquals(3, store.getTotalBytes());
+	}
+
+	@Test
+	void evictsLeastRecentlyUsedImagesWhenFull() {
+		DiskImageStore store = new DiskImageStore(directory, 100);
+		store.put("a.img", new byte[40]);
+		store.put("b.img", new byte[40]);
+		store.get("a.img");
+		store.put("c.img", new byte[40]);
+
+		assertTrue(store.get("a.img").isPresent());
+		assertTrue(store.get("b.img").isEmpty());
+		assertTrue(store.get("c.img").isPresent());
+		assertFalse(Files.exists(directory.resolve("b.img")));
+		assertEquals(80, store.getTotalBytes());
+	}
+
+	@Test
+	void replacingAnImageCountsOnlyTheNewSize() {
+		DiskImageStore store = new DiskImageStore(directory, 100);
+		store.put("a.img", new byte[40]);
+		store.put("a.img", new byte[10]);
+
+		assertEquals(1, store.getFileCount());
+		assertEquals(10, store.getTotalBytes());
+	}
+
+	@Test
+	void indexesExistingFilesAndEvictsOverflowOnOpen() throws Exception {
+		Files.write(directory.resolve("old.img"), new byte[60]);
+		Files.setLastModifiedTime(directory.resolve("old.img"), FileTime.fromMillis(1000));
+		Files.write(directory.resolve("new.img"), new byte[60]);
+
+		DiskImageStore store = new DiskImageStore(directory, 100);
+
+		assertEquals(1, store.getFileCount());
+		assertTrue(store.get("new.img").isPresent());
+		assertFalse(Files.exists(directory.resolve("old.img")));
+	}
+}
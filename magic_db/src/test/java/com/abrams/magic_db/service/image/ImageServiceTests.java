@@ -0,0 +1,131 @@
+package com.abrams.magic_db.service.image;
+
+import com.abrams.magic_db.repository.CardFaceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the image cache against a local directory standing in for the CDN.
+ */
+class ImageServiceTests {
+
+	private static final String FIRST_URL = "https://cards.scryfall.io/normal/front/a/b/first.png";
+	private static final String SECOND_URL = "https://cards.scryfall.io/normal/front/a/b/second.png";
+
+	@TempDir
+	Path cacheDir;
+
+	@TempDir
+	Path sourceDir;
+
+	private final CardFaceRepository cardFaceRepository = mock(CardFaceRepository.class);
+	private ImageService imageService;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		writeSourceImage("normal/front/a/b/first.png", Color.RED);
+		writeSourceImage("normal/front/a/b/second.png", Color.BLUE);
+		imageService = new ImageService(cardFaceRepository, cacheDir.toString(), 10, sourceDir.toString(), 0);
+	}
+
+	@AfterEach
+	void tearDown() {
+		imageService.shutdown();
+	}
+
+	@Test
+	void fetchesTheOriginalFromTheSource() throws IOException {
+		when(cardFaceRepository.findImageUrlById(1L)).thenReturn(Optional.of(FIRST_URL));
+
+		CachedImage image = imageService.getImage(1L, ImageSize.NORMAL);
+
+		assertArrayEquals(Files.readAllBytes(sourceDir.resolve("normal/front/a/b/first.png")), image.data());
+		assertEquals("image/png", image.contentType());
+		assertEquals(1, imageService.getCachedFileCount());
+	}
+
+	@Test
+	void derivesTheThumbnailFromTheCachedOriginal() throws IOException {
+		when(cardFaceRepository.findImageUrlById(1L)).thenReturn(Optional.of(FIRST_URL));
+
+		CachedImage thumb = imageService.getImage(1L, ImageSize.THUMB);
+		BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(thumb.data()));
+
+		assertEquals("image/jpeg", thumb.contentType());
+		assertEquals(ImageSize.THUMB.getWidth(), decoded.getWidth());
+		assertEquals(203, decoded.getHeight());
+		// The original and the thumbnail are both cached
+		assertEquals(2, imageService.getCachedFileCount());
+	}
+
+	@Test
+	void servesCachedImagesWithoutTheSource() throws IOException {
+		when(cardFaceRepository.findImageUrlById(1L)).thenReturn(Optional.of(FIRST_URL));
+		byte[] first = imageService.getImage(1L, ImageSize.THUMB).data();
+
+		Files.delete(sourceDir.resolve("normal/front/a/b/first.png"));
+
+		assertArrayEquals(first, imageService.getImage(1L, ImageSize.THUMB).data());
+	}
+
+	@Test
+	void reportsTheVersionWithoutLoadingTheImage() throws IOException {
+		when(cardFaceRepository.findImageUrlById(1L)).thenReturn(Optional.of(FIRST_URL));
+		Files.delete(sourceDir.resolve("normal/front/a/b/first.png"));
+
+		String version = imageService.getImageVersion(1L);
+
+		assertEquals(0, imageService.getCachedFileCount());
+		writeSourceImage("normal/front/a/b/first.png", Color.RED);
+		assertEquals(version, imageService.getImage(1L, ImageSize.NORMAL).version());
+	}
+
+	@Test
+	void picksUpANewImageUrlForTheSameFace() {
+		when(cardFaceRepository.findImageUrlById(1L)).thenReturn(Optional.of(FIRST_URL));
+		CachedImage first = imageService.getImage(1L, ImageSize.NORMAL);
+
+		when(cardFaceRepository.findImageUrlById(1L)).thenReturn(Optional.of(SECOND_URL));
+		CachedImage second = imageService.getImage(1L, ImageSize.NORMAL);
+
+		assertNotEquals(first.version(), second.version());
+		assertEquals(Color.BLUE.getRGB(), decode(second).getRGB(0, 0));
+	}
+
+	private void writeSourceImage(String path, Color color) throws IOException {
+		BufferedImage image = new BufferedImage(488, 680, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = image.createGraphics();
+		g.setColor(color);
+		g.fillRect(0, 0, image.getWidth(), image.getHeight());
+		g.dispose();
+		Path file = sourceDir.resolve(path);
+		Files.createDirectories(file.getParent());
+		ImageIO.write(image, "png", file.toFile());
+	}
+
+	private static BufferedImage decode(CachedImage image) {
+		try {
+			return ImageIO.read(new ByteArrayInputStream(image.data()));
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
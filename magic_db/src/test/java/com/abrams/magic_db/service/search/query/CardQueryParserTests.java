@@ -0,0 +1,75 @@
+package com.abrams.magic_db.service.search.query;
+
+import com.abrams.magic_db.service.search.query.CardQuery.And;
+import com.abrams.magic_db.service.search.query.CardQuery.Field;
+import com.abrams.magic_db.service.search.query.CardQuery.Not;
+import com.abrams.magic_db.service.search.query.CardQuery.Operator;
+import com.abrams.magic_db.service.search.query.CardQuery.Or;
+import com.abrams.magic_db.service.search.query.CardQuery.Term;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CardQueryParserTests {
+
+	@Test
+	void parsesBareWordsAsNameTerms() {
+		assertEquals(new Term(Field.NAME, Operator.COLON, "bolt"), CardQueryParser.parse("bolt"));
+		assertEquals(new Term(Field.NAME, Operator.COLON, "lightning bolt"), CardQueryParser.parse("\"lightning bolt\""));
+	}
+
+	@Test
+	void parsesKeywordsOperatorsAndGrouping() {
+		CardQuery query = CardQueryParser.parse("c:rg -(t:creature or cmc>=3)");
+		assertEquals(new And(List.of(
+				new Term(Field.COLOR, Operator.COLON, "rg"),
+				new Not(new Or(List.of(
+						new Term(Field.TYPE, Operator.COLON, "creature"),
+						new Term(Field.CMC, Operator.GE, "3")))))), query);
+	}
+
+	@Test
+	void treatsUnknownWordEndingInColonAsPartOfTheName() {
+		CardQuery query = CardQueryParser.parse("Circle of Protection: Red");
+		assertEquals(new And(List.of(
+				new Term(Field.NAME, Operator.COLON, "Circle"),
+				new Term(Field.NAME, Operator.COLON, "of"),
+				new Term(Field.NAME, Operator.COLON, "Protection:"),
+				new Term(Field.NAME, Operator.COLON, "Red"))), query);
+	}
+
+	@Test
+	void rejectsUnknownKeywordWithValue() {
+		assertThrows(InvalidCardQueryException.class, () -> CardQueryParser.parse("tpye:creature"));
+	}
+
+	@Test
+	void rejectsKnownKeywordWithoutValue() {
+		assertThrows(InvalidCardQueryException.class, () -> CardQueryParser.parse("c: bolt"));
+	}
+
+	@Test
+	void rejectsDanglingNegation() {
+		assertThrows(InvalidCardQueryException.class, () -> CardQueryParser.parse("bolt -"));
+		assertThrows(InvalidCardQueryException.class, () -> CardQueryParser.parse("-"));
+		assertThrows(InvalidCardQueryException.class, () -> CardQueryParser.parse("c:r -"));
+	}
+
+	@Test
+	void rejectsEmptyTerms() {
+		assertThrows(InvalidCardQueryException.class, () -> CardQueryParser.parse("- bolt"));
+		assertThrows(InvalidCardQueryException.class, () -> CardQueryParser.parse("-)"));
+		assertThrows(InvalidCardQueryException.class, () -> CardQueryParser.parse("()"));
+		assertThrows(InvalidCardQueryException.class, () -> CardQueryParser.parse(""));
+	}
+
+	@Test
+	void rejectsUnbalancedInput() {
+		assertThrows(InvalidCardQueryException.class, () -> CardQueryParser.parse("(bolt"));
+		assertThrows(InvalidCardQueryException.class, () -> CardQueryParser.parse("bolt)"));
+		assertThrows(InvalidCardQueryException.class, () -> CardQueryParser.parse("o:\"draw a card"));
+	}
+}